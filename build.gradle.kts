@@ -4,6 +4,7 @@ plugins {
     idea
     id("org.openjfx.javafxplugin") version "0.1.0"
     id("org.beryx.jlink") version "3.1.2"
+    id("me.champeau.jmh") version "0.7.3"
 
     id("org.springframework.boot") version "3.5.4"
     id("io.spring.dependency-management") version "1.1.7"
@@ -72,6 +73,13 @@ tasks.withType<Test> {
     useJUnitPlatform()
 }
 
+// Micro-benchmarks under src/jmh/java, run with ./gradlew jmh
+jmh {
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+}
+
 val runArgsValue = listOf(
     "-Djavafx.enablePreview=true",
     "-Djava.awt.headless=false",
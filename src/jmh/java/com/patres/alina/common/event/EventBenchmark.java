@@ -0,0 +1,76 @@
+package com.patres.alina.common.event;
+
+import com.patres.alina.common.event.bus.DefaultEventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction and publish throughput of token-level stream events.
+ * <p>
+ * The {@code legacy*} benchmarks reproduce the previous identity scheme, where every event
+ * called {@link UUID#randomUUID()}, so both variants can be compared in one run:
+ * {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventBenchmark {
+
+    private static final String THREAD_ID = "benchmark-thread";
+    private static final String TOKEN = "token";
+
+    private DefaultEventBus eventBus;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        eventBus = new DefaultEventBus();
+        eventBus.subscribe(ChatMessageStreamEvent.class, THREAD_ID, (ChatMessageStreamEvent event) -> { });
+        eventBus.subscribe(ChatMessageStreamEvent.class, "other-thread", (ChatMessageStreamEvent event) -> { });
+    }
+
+    @Benchmark
+    public ChatMessageStreamEvent constructEvent() {
+        return new ChatMessageStreamEvent(THREAD_ID, TOKEN);
+    }
+
+    @Benchmark
+    public void legacyConstructEvent(final Blackhole blackhole) {
+        blackhole.consume(UUID.randomUUID());
+        blackhole.consume(new ChatMessageStreamEvent(THREAD_ID, TOKEN));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ChatMessageStreamEvent constructEventContended() {
+        return new ChatMessageStreamEvent(THREAD_ID, TOKEN);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void legacyConstructEventContended(final Blackhole blackhole) {
+        blackhole.consume(UUID.randomUUID());
+        blackhole.consume(new ChatMessageStreamEvent(THREAD_ID, TOKEN));
+    }
+
+    @Benchmark
+    public void constructAndPublish() {
+        eventBus.publish(new ChatMessageStreamEvent(THREAD_ID, TOKEN));
+    }
+
+    @Benchmark
+    public void legacyConstructAndPublish(final Blackhole blackhole) {
+        blackhole.consume(UUID.randomUUID());
+        eventBus.publish(new ChatMessageStreamEvent(THREAD_ID, TOKEN));
+    }
+}
@@ -1,6 +1,6 @@
 package com.patres.alina.common.event;
 
-public final class AgentInteractionResolvedEvent extends Event {
+public final class AgentInteractionResolvedEvent extends Event implements RoutedEvent {
 
     private final String threadId;
     private final String requestId;
@@ -14,6 +14,11 @@ public final class AgentInteractionResolvedEvent extends Event {
         return threadId;
     }
 
+    @Override
+    public Object getRoutingKey() {
+        return threadId;
+    }
+
     public String getRequestId() {
         return requestId;
     }
@@ -5,7 +5,7 @@ import com.patres.alina.common.message.TodoItem;
 
 import java.util.List;
 
-public final class ChatMessageStreamEvent extends Event {
+public final class ChatMessageStreamEvent extends Event implements RoutedEvent {
 
     public enum StreamEventType {
         TOKEN,
@@ -40,6 +40,8 @@ public final class ChatMessageStreamEvent extends Event {
     private final String agentUsed;
     private final long tokensOutput;
     private final double cost;
+    private final String contentPartId;
+    private final boolean contentDelta;
 
     public ChatMessageStreamEvent(final String threadId, final String token) {
         this(threadId, token, StreamEventType.TOKEN, null, null, null, null, null, null, null, null, null, null, 0, 0.0);
@@ -75,6 +77,27 @@ public final class ChatMessageStreamEvent extends Event {
                 null, null, null, null, null, null, null, 0, 0.0);
     }
 
+    /**
+     * Reasoning text appended to the part {@code partId}; receivers accumulate the deltas of a part
+     * instead of getting the whole text again with every update.
+     */
+    public static ChatMessageStreamEvent reasoningDelta(final String threadId,
+                                                        final String partId,
+                                                        final String delta) {
+        return new ChatMessageStreamEvent(threadId, null, StreamEventType.REASONING, null, delta, null,
+                null, null, null, null, null, null, null, 0, 0.0, partId, true);
+    }
+
+    /**
+     * Commentary text appended to the part {@code partId}, see {@link #reasoningDelta}.
+     */
+    public static ChatMessageStreamEvent commentaryDelta(final String threadId,
+                                                         final String partId,
+                                                         final String delta) {
+        return new ChatMessageStreamEvent(threadId, null, StreamEventType.COMMENTARY, null, null, delta,
+                null, null, null, null, null, null, null, 0, 0.0, partId, true);
+    }
+
     public static ChatMessageStreamEvent interaction(final String threadId,
                                                      final AgentInteractionRequest interaction) {
         return new ChatMessageStreamEvent(threadId, null, StreamEventType.AGENT_INTERACTION, null, null, null,
@@ -111,6 +134,27 @@ public final class ChatMessageStreamEvent extends Event {
                                    final String agentUsed,
                                    final long tokensOutput,
                                    final double cost) {
+        this(threadId, token, eventType, errorMessage, reasoningContent, commentaryContent, activityType, activityName,
+                activityDetail, agentInteraction, todoItems, modelUsed, agentUsed, tokensOutput, cost, null, false);
+    }
+
+    private ChatMessageStreamEvent(final String threadId,
+                                   final String token,
+                                   final StreamEventType eventType,
+                                   final String errorMessage,
+                                   final String reasoningContent,
+                                   final String commentaryContent,
+                                   final ActivityType activityType,
+                                   final String activityName,
+                                   final String activityDetail,
+                                   final AgentInteractionRequest agentInteraction,
+                                   final List<TodoItem> todoItems,
+                                   final String modelUsed,
+                                   final String agentUsed,
+                                   final long tokensOutput,
+                                   final double cost,
+                                   final String contentPartId,
+                                   final boolean contentDelta) {
         this.threadId = threadId;
         this.token = token;
         this.eventType = eventType;
@@ -126,12 +170,19 @@ public final class ChatMessageStreamEvent extends Event {
         this.agentUsed = agentUsed;
         this.tokensOutput = tokensOutput;
         this.cost = cost;
+        this.contentPartId = contentPartId;
+        this.contentDelta = contentDelta;
     }
 
     public String getThreadId() {
         return threadId;
     }
 
+    @Override
+    public Object getRoutingKey() {
+        return threadId;
+    }
+
     public String getToken() {
         return token;
     }
@@ -152,6 +203,20 @@ public final class ChatMessageStreamEvent extends Event {
         return commentaryContent;
     }
 
+    /**
+     * Whether the reasoning or commentary content is a delta to append rather than the full text.
+     */
+    public boolean isContentDelta() {
+        return contentDelta;
+    }
+
+    /**
+     * Part the reasoning or commentary delta belongs to; {@code null} for full-text events.
+     */
+    public String getContentPartId() {
+        return contentPartId;
+    }
+
     public ActivityType getActivityType() {
         return activityType;
     }
@@ -4,17 +4,55 @@ package com.patres.alina.common.event;
 
 import com.patres.alina.common.event.bus.DefaultEventBus;
 
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Base class of all bus events.
+ *
+ * <p>Every event gets a process-wide monotonically increasing sequence number on construction,
+ * which is all {@link #equals}/{@link #hashCode} need. The {@link UUID} form is derived from that
+ * number by the configured {@link EventIdentity} only when {@link #getId()} is first called, so
+ * creating the per-token streaming events does not go through {@code SecureRandom}.
+ */
 public abstract class Event {
 
-    protected final UUID id = UUID.randomUUID();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static volatile EventIdentity identity = EventIdentity.sequential();
+
+    private final long sequence = SEQUENCE.incrementAndGet();
+    private volatile UUID id;
 
     protected Event() {
     }
 
+    /**
+     * Replaces the scheme that creates the ids of events whose id has not been asked for yet.
+     */
+    public static void setIdentity(final EventIdentity eventIdentity) {
+        identity = Objects.requireNonNull(eventIdentity);
+    }
+
     public UUID getId() {
-        return id;
+        UUID result = id;
+        if (result == null) {
+            synchronized (this) {
+                result = id;
+                if (result == null) {
+                    result = identity.toId(sequence);
+                    id = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Position of this event in the order of creation within the running process.
+     */
+    public long getSequence() {
+        return sequence;
     }
 
     @Override
@@ -25,18 +63,18 @@ public abstract class Event {
         if (!(o instanceof Event event)) {
             return false;
         }
-        return id.equals(event.id);
+        return sequence == event.sequence;
     }
 
     @Override
     public int hashCode() {
-        return id.hashCode();
+        return Long.hashCode(sequence);
     }
 
     @Override
     public String toString() {
         return "Event{"
-            + "id=" + id
+            + "id=" + getId()
             + '}';
     }
 
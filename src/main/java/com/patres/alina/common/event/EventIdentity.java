@@ -0,0 +1,30 @@
+/* SPDX-License-Identifier: MIT */
+
+package com.patres.alina.common.event;
+
+import java.util.UUID;
+
+/**
+ * Turns the creation sequence number of an {@link Event} into the id returned by
+ * {@link Event#getId()}. It is called at most once per event, and only when the id is asked for.
+ */
+@FunctionalInterface
+public interface EventIdentity {
+
+    UUID toId(long sequence);
+
+    /**
+     * The default scheme: a random per-process prefix followed by the sequence number.
+     */
+    static EventIdentity sequential() {
+        final long processBits = UUID.randomUUID().getMostSignificantBits();
+        return sequence -> new UUID(processBits, sequence);
+    }
+
+    /**
+     * A random UUID per event, which does not reveal the order in which events were created.
+     */
+    static EventIdentity random() {
+        return sequence -> UUID.randomUUID();
+    }
+}
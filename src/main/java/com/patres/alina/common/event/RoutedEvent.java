@@ -0,0 +1,12 @@
+package com.patres.alina.common.event;
+
+/**
+ * Event addressed to a single logical recipient, such as the chat thread it belongs to.
+ * <p>
+ * Subscribers registered with a key receive only events whose routing key is equal to it,
+ * see {@link com.patres.alina.common.event.bus.EventBus#subscribe(Class, Object, java.util.function.Consumer)}.
+ */
+public interface RoutedEvent {
+
+    Object getRoutingKey();
+}
@@ -3,12 +3,17 @@
 package com.patres.alina.common.event.bus;
 
 import com.patres.alina.common.event.Event;
+import com.patres.alina.common.event.RoutedEvent;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 /**
@@ -17,16 +22,30 @@ import java.util.function.Consumer;
  * <p>Subscribe and publish events. Events are published in channels distinguished by event type.
  * Channels can be grouped using an event type hierarchy.
  *
+ * <p>The subscribers matching a concrete event class are resolved once and cached as an array;
+ * any subscribe or unsubscribe invalidates the cache. Publishing is therefore a single map lookup
+ * followed by a plain loop, which matters for per-token streaming events.
+ *
+ * <p>Subscribers may also register with a routing key. They only receive {@link RoutedEvent}s with
+ * an equal key, resolved by one hash lookup, so an event addressed to one chat thread is not
+ * offered to every open chat window.
+ *
  * <p>You can use the default event bus instance {@link #getInstance}, which is a singleton,
  * or you can create one or multiple instances of {@link DefaultEventBus}.
  */
 @SuppressWarnings({"unchecked", "rawtypes"})
 public final class DefaultEventBus implements EventBus {
 
+    private static final Consumer[] NO_SUBSCRIBERS = new Consumer[0];
+
     public DefaultEventBus() {
     }
 
     private final Map<Class<?>, Set<Consumer>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<Object, Set<Consumer>>> keyedSubscribers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Dispatch> dispatchCache = new ConcurrentHashMap<>();
+    private final Map<Class<?>, EventTypeMetrics> metrics = new ConcurrentHashMap<>();
+    private final AtomicLong subscriptionVersion = new AtomicLong();
 
     @Override
     public <E extends Event> void subscribe(Class<? extends E> eventType, Consumer<E> subscriber) {
@@ -35,15 +54,23 @@ public final class DefaultEventBus implements EventBus {
 
         Set<Consumer> eventSubscribers = getOrCreateSubscribers(eventType);
         eventSubscribers.add(subscriber);
+        invalidateDispatchCache();
     }
 
     private <E> Set<Consumer> getOrCreateSubscribers(Class<E> eventType) {
-        Set<Consumer> eventSubscribers = subscribers.get(eventType);
-        if (eventSubscribers == null) {
-            eventSubscribers = new CopyOnWriteArraySet<>();
-            subscribers.put(eventType, eventSubscribers);
-        }
-        return eventSubscribers;
+        return subscribers.computeIfAbsent(eventType, ignored -> new CopyOnWriteArraySet<>());
+    }
+
+    @Override
+    public <E extends Event> void subscribe(Class<? extends E> eventType, Object key, Consumer<E> subscriber) {
+        Objects.requireNonNull(eventType);
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(subscriber);
+
+        keyedSubscribers.computeIfAbsent(eventType, ignored -> new ConcurrentHashMap<>())
+            .computeIfAbsent(key, ignored -> new CopyOnWriteArraySet<>())
+            .add(subscriber);
+        invalidateDispatchCache();
     }
 
     @Override
@@ -51,6 +78,8 @@ public final class DefaultEventBus implements EventBus {
         Objects.requireNonNull(subscriber);
 
         subscribers.values().forEach(eventSubscribers -> eventSubscribers.remove(subscriber));
+        keyedSubscribers.values().forEach(byKey -> byKey.keySet().forEach(key -> removeKeyed(byKey, key, subscriber)));
+        invalidateDispatchCache();
     }
 
     @Override
@@ -58,21 +87,53 @@ public final class DefaultEventBus implements EventBus {
         Objects.requireNonNull(eventType);
         Objects.requireNonNull(subscriber);
 
-        subscribers.keySet().stream()
-            .filter(eventType::isAssignableFrom)
-            .map(subscribers::get)
-            .forEach(eventSubscribers -> eventSubscribers.remove(subscriber));
+        subscribers.forEach((type, eventSubscribers) -> {
+            if (eventType.isAssignableFrom(type)) {
+                eventSubscribers.remove(subscriber);
+            }
+        });
+        invalidateDispatchCache();
+    }
+
+    @Override
+    public <E extends Event> void unsubscribe(Class<? extends E> eventType, Object key, Consumer<E> subscriber) {
+        Objects.requireNonNull(eventType);
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(subscriber);
+
+        keyedSubscribers.forEach((type, byKey) -> {
+            if (eventType.isAssignableFrom(type)) {
+                removeKeyed(byKey, key, subscriber);
+            }
+        });
+        invalidateDispatchCache();
+    }
+
+    private static void removeKeyed(Map<Object, Set<Consumer>> byKey, Object key, Consumer subscriber) {
+        byKey.computeIfPresent(key, (ignored, keySubscribers) -> {
+            keySubscribers.remove(subscriber);
+            return keySubscribers.isEmpty() ? null : keySubscribers;
+        });
     }
 
     @Override
     public <E extends Event> void publish(E event) {
         Objects.requireNonNull(event);
 
-        Class<?> eventType = event.getClass();
-        subscribers.keySet().stream()
-            .filter(type -> type.isAssignableFrom(eventType))
-            .flatMap(type -> subscribers.get(type).stream())
-            .forEach(subscriber -> publish(event, subscriber));
+        final Dispatch dispatch = resolveDispatch(event.getClass());
+        final long start = System.nanoTime();
+        for (Consumer subscriber : dispatch.subscribers()) {
+            publish(event, subscriber);
+        }
+        if (event instanceof RoutedEvent routedEvent && !dispatch.keyedSubscribers().isEmpty()) {
+            final Consumer[] routedSubscribers = dispatch.keyedSubscribers().get(routedEvent.getRoutingKey());
+            if (routedSubscribers != null) {
+                for (Consumer subscriber : routedSubscribers) {
+                    publish(event, subscriber);
+                }
+            }
+        }
+        dispatch.metrics().record(System.nanoTime() - start);
     }
 
     private <E extends Event> void publish(E event, Consumer<E> subscriber) {
@@ -83,6 +144,72 @@ public final class DefaultEventBus implements EventBus {
         }
     }
 
+    /**
+     * Returns a snapshot of publish counts and dispatch latencies per concrete event type
+     * published on this bus so far.
+     */
+    public Map<Class<?>, EventTypeMetrics.Snapshot> getMetrics() {
+        final Map<Class<?>, EventTypeMetrics.Snapshot> snapshot = new HashMap<>();
+        metrics.forEach((type, typeMetrics) -> snapshot.put(type, typeMetrics.snapshot()));
+        return snapshot;
+    }
+
+    private Dispatch resolveDispatch(Class<?> eventType) {
+        final Dispatch cached = dispatchCache.get(eventType);
+        final long version = subscriptionVersion.get();
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+        final Dispatch resolved = new Dispatch(
+                version,
+                resolveSubscribers(eventType),
+                resolveKeyedSubscribers(eventType),
+                metrics.computeIfAbsent(eventType, ignored -> new EventTypeMetrics())
+        );
+        dispatchCache.put(eventType, resolved);
+        return resolved;
+    }
+
+    private Consumer[] resolveSubscribers(Class<?> eventType) {
+        final List<Consumer> resolved = new ArrayList<>();
+        subscribers.forEach((type, eventSubscribers) -> {
+            if (type.isAssignableFrom(eventType)) {
+                resolved.addAll(eventSubscribers);
+            }
+        });
+        return resolved.isEmpty() ? NO_SUBSCRIBERS : resolved.toArray(Consumer[]::new);
+    }
+
+    private Map<Object, Consumer[]> resolveKeyedSubscribers(Class<?> eventType) {
+        final Map<Object, List<Consumer>> resolved = new HashMap<>();
+        keyedSubscribers.forEach((type, byKey) -> {
+            if (type.isAssignableFrom(eventType)) {
+                byKey.forEach((key, keySubscribers) ->
+                    resolved.computeIfAbsent(key, ignored -> new ArrayList<>()).addAll(keySubscribers));
+            }
+        });
+        if (resolved.isEmpty()) {
+            return Map.of();
+        }
+        final Map<Object, Consumer[]> dispatchByKey = new HashMap<>();
+        resolved.forEach((key, keySubscribers) -> dispatchByKey.put(key, keySubscribers.toArray(Consumer[]::new)));
+        return dispatchByKey;
+    }
+
+    private void invalidateDispatchCache() {
+        subscriptionVersion.incrementAndGet();
+        dispatchCache.clear();
+    }
+
+    /**
+     * Cached subscribers of one concrete event class, valid for a single subscription version.
+     */
+    private record Dispatch(long version,
+                            Consumer[] subscribers,
+                            Map<Object, Consumer[]> keyedSubscribers,
+                            EventTypeMetrics metrics) {
+    }
+
     ///////////////////////////////////////////////////////////////////////////
 
     private static class InstanceHolder {
@@ -18,6 +18,19 @@ public interface EventBus {
      */
     <T extends Event> void subscribe(Class<? extends T> eventType, Consumer<T> subscriber);
 
+    /**
+     * Subscribe to events of a type that are routed to the given key.
+     *
+     * <p>Only events implementing {@link com.patres.alina.common.event.RoutedEvent} whose routing key equals
+     * <code>key</code> are delivered, so publishing costs one lookup regardless of how many keys are subscribed.
+     *
+     * @param eventType  the event type, can be a super class of all events to subscribe.
+     * @param key        the routing key, e.g. a chat thread id.
+     * @param subscriber the subscriber which will consume the events.
+     * @param <T>        the event type class.
+     */
+    <T extends Event> void subscribe(Class<? extends T> eventType, Object key, Consumer<T> subscriber);
+
     /**
      * Unsubscribe from all event types.
      *
@@ -34,11 +47,21 @@ public interface EventBus {
      */
     <T extends Event> void unsubscribe(Class<? extends T> eventType, Consumer<T> subscriber);
 
+    /**
+     * Unsubscribe a keyed subscription.
+     *
+     * @param eventType  the event type, can be a super class of all events to unsubscribe.
+     * @param key        the routing key used to subscribe.
+     * @param subscriber the subscriber to unsubscribe.
+     * @param <T>        the event type class.
+     */
+    <T extends Event> void unsubscribe(Class<? extends T> eventType, Object key, Consumer<T> subscriber);
+
     /**
      * Publish an event to all subscribers.
      *
      * <p>The event type is the class of <code>event</code>. The event is published to all consumers which subscribed to
-     * this event type or any super class.
+     * this event type or any super class, and to keyed subscribers whose key matches the event's routing key.
      *
      * @param event the event.
      */
@@ -0,0 +1,86 @@
+/* SPDX-License-Identifier: MIT */
+
+package com.patres.alina.common.event.bus;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publish counter and dispatch latency histogram of a single event type.
+ *
+ * <p>Latencies are measured around the whole dispatch of one event (all subscribers) and
+ * recorded into power-of-two microsecond buckets: bucket {@code i} counts publishes that took
+ * less than {@code 2^i} µs, the last bucket counts everything slower.
+ */
+public final class EventTypeMetrics {
+
+    static final int BUCKET_COUNT = 22;
+
+    private final LongAdder publishCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+    EventTypeMetrics() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(final long elapsedNanos) {
+        publishCount.increment();
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulate(elapsedNanos);
+        buckets[bucketIndex(elapsedNanos)].increment();
+    }
+
+    static int bucketIndex(final long elapsedNanos) {
+        final long micros = elapsedNanos / 1_000;
+        final int index = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(index, BUCKET_COUNT - 1);
+    }
+
+    public Snapshot snapshot() {
+        final long[] bucketCounts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bucketCounts[i] = buckets[i].sum();
+        }
+        return new Snapshot(publishCount.sum(), totalNanos.sum(), maxNanos.get(), bucketCounts);
+    }
+
+    /**
+     * Point-in-time copy of the metrics.
+     *
+     * @param publishCount  number of published events
+     * @param totalNanos    summed dispatch time
+     * @param maxNanos      slowest dispatch
+     * @param bucketCounts  histogram, see {@link EventTypeMetrics}
+     */
+    public record Snapshot(long publishCount, long totalNanos, long maxNanos, long[] bucketCounts) {
+
+        public double averageMicros() {
+            return publishCount == 0 ? 0.0 : totalNanos / 1_000.0 / publishCount;
+        }
+
+        /**
+         * Upper bound in microseconds of the bucket containing the given percentile,
+         * e.g. {@code percentileUpperBoundMicros(0.99)}.
+         */
+        public long percentileUpperBoundMicros(final double percentile) {
+            final long total = Arrays.stream(bucketCounts).sum();
+            if (total == 0) {
+                return 0;
+            }
+            final long threshold = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= threshold) {
+                    return i == bucketCounts.length - 1 ? Long.MAX_VALUE : 1L << i;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.patres.alina.common.message;
+
+import java.util.List;
+
+/**
+ * One page of a conversation, in conversation order.
+ * <p>
+ * The cursor is the position of the page's first message in the whole history. New messages are
+ * only appended, so a cursor stays valid while the conversation goes on.
+ *
+ * @param messages     messages of the page
+ * @param beforeCursor cursor of the next older page, or {@code null} when the page starts the conversation
+ */
+public record ChatMessagePage(
+        List<ChatMessageResponseModel> messages,
+        String beforeCursor
+) {
+
+    public static final ChatMessagePage EMPTY = new ChatMessagePage(List.of(), null);
+
+    public ChatMessagePage {
+        messages = messages == null ? List.of() : List.copyOf(messages);
+    }
+
+    /**
+     * Cuts the page of at most {@code limit} messages that precede {@code beforeCursor}
+     * ({@code null} for the newest page) out of the whole history.
+     */
+    public static ChatMessagePage of(final List<ChatMessageResponseModel> history,
+                                     final String beforeCursor,
+                                     final int limit) {
+        final int end = Math.min(parseCursor(beforeCursor, history.size()), history.size());
+        final int start = Math.max(0, end - Math.max(limit, 1));
+        return new ChatMessagePage(history.subList(start, end), start > 0 ? String.valueOf(start) : null);
+    }
+
+    public boolean hasOlderMessages() {
+        return beforeCursor != null;
+    }
+
+    private static int parseCursor(final String cursor, final int defaultValue) {
+        if (cursor == null || cursor.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(cursor));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.patres.alina.common.settings;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches the directories of settings files and reloads a {@link FileManager} when one of its
+ * files is changed outside the application, e.g. edited by hand or synced from another machine.
+ * <p>
+ * A single {@link WatchService} blocks on one daemon thread, so an idle watcher costs nothing.
+ * Editors and sync tools touch a file several times per save, so the events of a file are
+ * debounced for {@link #RELOAD_DELAY_MILLIS} before the file is parsed.
+ */
+final class ConfigFileWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigFileWatcher.class);
+
+    static final long RELOAD_DELAY_MILLIS = 200;
+
+    private static final ConfigFileWatcher INSTANCE = new ConfigFileWatcher();
+
+    private final Map<Path, FileManager<?>> managersByFile = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> watchedDirectories = new ConcurrentHashMap<>();
+    private final Map<Path, ScheduledFuture<?>> pendingReloads = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reloadScheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        final Thread thread = new Thread(task, "config-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private WatchService watchService;
+
+    private ConfigFileWatcher() {
+    }
+
+    static ConfigFileWatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Reloads {@code manager} whenever one of {@code files} changes.
+     */
+    synchronized void watch(final FileManager<?> manager, final Path... files) {
+        try {
+            for (final Path file : files) {
+                final Path absolute = file.toAbsolutePath().normalize();
+                managersByFile.put(absolute, manager);
+                watchDirectory(absolute.getParent());
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Cannot watch settings files {} - changes made outside the app need a restart", files, e);
+        }
+    }
+
+    /**
+     * Stops reloading {@code manager}. Its directories stay watched, as other files may live there.
+     */
+    synchronized void unwatch(final FileManager<?> manager) {
+        managersByFile.entrySet().removeIf(entry -> {
+            if (entry.getValue() != manager) {
+                return false;
+            }
+            final ScheduledFuture<?> pending = pendingReloads.remove(entry.getKey());
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            return true;
+        });
+    }
+
+    private void watchDirectory(final Path directory) throws IOException {
+        if (watchedDirectories.containsKey(directory)) {
+            return;
+        }
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+            final Thread thread = new Thread(this::processEvents, "config-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        Files.createDirectories(directory);
+        watchedDirectories.put(directory, directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY));
+    }
+
+    private void processEvents() {
+        try {
+            while (true) {
+                final WatchKey key = watchService.take();
+                final Path directory = (Path) key.watchable();
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() != OVERFLOW && event.context() instanceof Path fileName) {
+                        scheduleReload(directory.resolve(fileName));
+                    }
+                }
+                if (!key.reset()) {
+                    watchedDirectories.remove(directory);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("Settings watch service closed");
+        }
+    }
+
+    private void scheduleReload(final Path file) {
+        final FileManager<?> manager = managersByFile.get(file);
+        if (manager == null) {
+            return;
+        }
+        pendingReloads.compute(file, (ignored, pending) -> {
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            return reloadScheduler.schedule(() -> {
+                pendingReloads.remove(file);
+                manager.reloadFromDisk();
+            }, RELOAD_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        });
+    }
+}
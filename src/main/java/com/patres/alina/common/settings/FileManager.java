@@ -11,15 +11,50 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
-import java.util.Optional;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
+/**
+ * Settings document stored as JSON in the config directory.
+ * <p>
+ * Reads are served from an in-memory snapshot. {@link #saveDocument} replaces the snapshot at once
+ * and writes the file in the background: saves within {@link #WRITE_DELAY_MILLIS} are coalesced into
+ * one write, which goes to a temporary file that is then atomically moved over the document, so a
+ * crash never leaves a half-written file. Pending writes are flushed when the JVM shuts down.
+ * <p>
+ * Changes made to the files outside the application are picked up by the {@link ConfigFileWatcher}
+ * and published with the same event as a save.
+ */
 public class FileManager<T> {
 
     private static final Logger logger = LoggerFactory.getLogger(FileManager.class);
     private static final ObjectMapper mapper = createMapper();
 
+    static final long WRITE_DELAY_MILLIS = 300;
+
+    private static final ScheduledExecutorService WRITER =
+            Executors.newSingleThreadScheduledExecutor(task -> {
+                final Thread thread = new Thread(task, "settings-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final Set<FileManager<?>> INSTANCES = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(FileManager::flushAll, "settings-flush"));
+    }
+
     private final String path;
     private final String localPath;
     private final String name;
@@ -27,15 +62,13 @@ public class FileManager<T> {
     private final Supplier<T> defaultValueSupplier;
     private final Supplier<Event> saveEventSupplier;
 
-    private Optional<T> currentSettings = Optional.empty();
+    private volatile T currentSettings;
+    private volatile String lastKnownContent;
+    private final AtomicReference<T> pendingWrite = new AtomicReference<>();
+    private final Object writeLock = new Object();
 
     public FileManager(String name, Class<T> classToMap, Supplier<T> defaultValueSupplier) {
-        this.path = AppPaths.resolve("config/" + name + ".json").toString();
-        this.localPath = AppPaths.resolve("config/" + name + ".local.json").toString();
-        this.name = name;
-        this.classToMap = classToMap;
-        this.defaultValueSupplier = defaultValueSupplier;
-        this.saveEventSupplier = null;
+        this(name, classToMap, defaultValueSupplier, null);
     }
 
     public FileManager(String name, Class<T> classToMap, Supplier<T> defaultValueSupplier, Supplier<Event> saveEventSupplier) {
@@ -45,13 +78,21 @@ public class FileManager<T> {
         this.classToMap = classToMap;
         this.defaultValueSupplier = defaultValueSupplier;
         this.saveEventSupplier = saveEventSupplier;
+        INSTANCES.add(this);
+        ConfigFileWatcher.getInstance().watch(this, Path.of(path), Path.of(localPath));
     }
 
-    public synchronized T getSettings() {
-        if (currentSettings.isEmpty()) {
-            currentSettings = Optional.of(loadSettings());
+    public T getSettings() {
+        final T settings = currentSettings;
+        if (settings != null) {
+            return settings;
+        }
+        synchronized (this) {
+            if (currentSettings == null) {
+                currentSettings = loadSettings();
+            }
+            return currentSettings;
         }
-        return currentSettings.get();
     }
 
     public T loadSettings() {
@@ -61,6 +102,7 @@ public class FileManager<T> {
             if (file.exists()) {
                 String serializedGlobalSettings = FileUtils.readFileToString(file, Charset.defaultCharset());
                 T settings = mapper.readValue(serializedGlobalSettings, classToMap);
+                lastKnownContent = serializedGlobalSettings;
                 logger.info("{} settings are loaded", name);
                 return settings;
             }
@@ -82,34 +124,124 @@ public class FileManager<T> {
         return new File(path);
     }
 
+    /**
+     * Makes {@code settings} the current document and schedules writing it to disk.
+     */
     public void saveDocument(T settings) {
-        try {
-            logger.info("{} settings are saving...", name);
+        synchronized (this) {
+            currentSettings = settings;
+            if (pendingWrite.getAndSet(settings) == null) {
+                WRITER.schedule(this::flush, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        publishSaveEvent();
+    }
 
-            String serializedRootGroup = mapper.writeValueAsString(settings);
-            File file = getFile();
-            FileUtils.createParentDirectories(file);
-            FileUtils.write(file, serializedRootGroup, Charset.defaultCharset());
-            logger.info("{} settings are saved to {}", name, file.getAbsoluteFile());
-            currentSettings = Optional.of(settings);
-            if (saveEventSupplier != null) {
-                DefaultEventBus.getInstance().publish(saveEventSupplier.get());
+    /**
+     * Picks up a change of the settings file made outside the application. The file is parsed on
+     * the caller's thread and the snapshot is swapped only if the content differs from what was
+     * last loaded or written; a pending save is newer and wins.
+     * <p>
+     * Holding {@code writeLock} keeps a write from running while the file is read, and the swap
+     * happens under the same lock as {@link #saveDocument}, so a save made while the file was being
+     * parsed is never replaced by the older content of the file.
+     */
+    void reloadFromDisk() {
+        synchronized (writeLock) {
+            if (currentSettings == null || pendingWrite.get() != null) {
+                return;
+            }
+            final File file = getFile();
+            try {
+                if (!file.exists()) {
+                    return;
+                }
+                final String content = FileUtils.readFileToString(file, Charset.defaultCharset());
+                if (content.equals(lastKnownContent)) {
+                    return;
+                }
+                final T settings = mapper.readValue(content, classToMap);
+                synchronized (this) {
+                    if (pendingWrite.get() != null) {
+                        return;
+                    }
+                    lastKnownContent = content;
+                    currentSettings = settings;
+                }
+                logger.info("{} settings reloaded from {}", name, file.getAbsoluteFile());
+            } catch (Exception e) {
+                logger.warn("Cannot reload {} settings from {} - keeping the current ones", name, file.getAbsoluteFile(), e);
+                return;
+            }
+        }
+        publishSaveEvent();
+    }
+
+    private void publishSaveEvent() {
+        if (saveEventSupplier != null) {
+            DefaultEventBus.getInstance().publish(saveEventSupplier.get());
+        }
+    }
+
+    /**
+     * Writes the last saved document now if it has not been written yet.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            final T settings = pendingWrite.getAndSet(null);
+            if (settings == null) {
+                return;
+            }
+            try {
+                logger.info("{} settings are saving...", name);
+                File file = getFile();
+                writeAtomically(file, settings);
+                logger.info("{} settings are saved to {}", name, file.getAbsoluteFile());
+            } catch (Exception e) {
+                logger.error("Failed to save {} settings", name, e);
             }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
         }
     }
 
+    static void flushAll() {
+        INSTANCES.forEach(FileManager::flush);
+    }
+
+    /**
+     * Writes a pending save and stops tracking this document: it is no longer flushed on shutdown
+     * nor reloaded when its files change.
+     */
+    void close() {
+        INSTANCES.remove(this);
+        ConfigFileWatcher.getInstance().unwatch(this);
+        flush();
+    }
+
     private void persistToFile(File file, T settings) {
         try {
-            FileUtils.createParentDirectories(file);
-            FileUtils.write(file, mapper.writeValueAsString(settings), Charset.defaultCharset());
+            writeAtomically(file, settings);
             logger.info("{} default settings saved to {}", name, file.getAbsoluteFile());
         } catch (Exception e) {
             logger.warn("Failed to save default {} settings: {}", name, e.getMessage());
         }
     }
 
+    private void writeAtomically(File file, T settings) throws IOException {
+        FileUtils.createParentDirectories(file);
+        final Path target = file.toPath();
+        final Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        final String content = mapper.writeValueAsString(settings);
+        Files.writeString(temporary, content, Charset.defaultCharset());
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        // Only content that reached the file counts as known; after a failed move the file still
+        // holds older settings, which a reload must not mistake for our own write
+        lastKnownContent = content;
+    }
+
     private static ObjectMapper createMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.enable(SerializationFeature.INDENT_OUTPUT);
@@ -51,6 +51,12 @@ public interface AgentRuntime {
 
     List<ChatMessageResponseModel> getMessagesByThreadId(String chatThreadId);
 
+    /**
+     * Like {@link #getMessagesByThreadId(String)}, but a history changed in the backend is fetched
+     * before returning instead of being served from the cache.
+     */
+    List<ChatMessageResponseModel> getLatestMessagesByThreadId(String chatThreadId);
+
     void deleteChatThread(String chatThreadId);
 
     void renameChatThread(String chatThreadId, String newName);
@@ -0,0 +1,244 @@
+package com.patres.alina.server.agent;
+
+import com.patres.alina.common.message.ChatMessageResponseModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-thread cache of conversation history in front of an agent backend.
+ * <p>
+ * The first read of a thread loads its whole history; later reads are served from memory. An entry
+ * invalidated by a backend event, or not validated for {@link #REVALIDATE_AFTER}, is still returned
+ * immediately and revalidated in the background with a delta fetch past its watermark; callers that
+ * act on the history use {@link #getValidatedMessages(String)} instead. Runtimes extend entries from
+ * completed streams with {@link #refresh(String)} or {@link #putMessage}.
+ * Above {@link #MAX_THREADS} the least recently read thread is evicted.
+ */
+public final class ConversationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationCache.class);
+
+    static final int MAX_THREADS = 32;
+    static final Duration REVALIDATE_AFTER = Duration.ofSeconds(30);
+    /** Fetches per revalidation; each further one follows a change that raced with the previous fetch. */
+    static final int MAX_FETCH_ATTEMPTS = 3;
+
+    private static final Executor REFRESH_EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("conversation-cache-", 0).factory());
+
+    @FunctionalInterface
+    public interface HistoryFetcher {
+
+        /**
+         * Fetches the history of a thread. {@code cached} is {@code null} for a full load; otherwise
+         * the fetcher may fetch only what follows its watermark and merge it into {@code cached}.
+         */
+        ConversationHistory fetch(String threadId, ConversationHistory cached) throws Exception;
+    }
+
+    private final String backendName;
+    private final HistoryFetcher fetcher;
+    private final Executor executor;
+    private final LongSupplier nanoTime;
+    private final Map<String, CachedThread> threads = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CachedThread> eldest) {
+            return size() > MAX_THREADS;
+        }
+    };
+
+    public ConversationCache(final String backendName, final HistoryFetcher fetcher) {
+        this(backendName, fetcher, REFRESH_EXECUTOR, System::nanoTime);
+    }
+
+    ConversationCache(final String backendName,
+                      final HistoryFetcher fetcher,
+                      final Executor executor,
+                      final LongSupplier nanoTime) {
+        this.backendName = backendName;
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns the displayable messages of a thread, loading them only if the thread is not cached.
+     */
+    public List<ChatMessageResponseModel> getMessages(final String threadId) {
+        final CachedThread cached = cached(threadId);
+        if (cached == null) {
+            return load(threadId).messages();
+        }
+        if (cached.needsRevalidation(nanoTime.getAsLong())) {
+            revalidateInBackground(threadId, cached);
+        }
+        return cached.history().messages();
+    }
+
+    /**
+     * Returns the messages of a thread as the backend has them now: an invalidated or expired entry
+     * is revalidated on the calling thread first. Used where a stale history would do the wrong
+     * thing, e.g. when the last user message is sent again.
+     */
+    public List<ChatMessageResponseModel> getValidatedMessages(final String threadId) {
+        final CachedThread cached = cached(threadId);
+        if (cached == null) {
+            return load(threadId).messages();
+        }
+        if (cached.needsRevalidation(nanoTime.getAsLong())) {
+            revalidate(threadId, cached);
+        }
+        return cached.history().messages();
+    }
+
+    /**
+     * Brings a thread up to date on the calling thread, e.g. once its stream has completed.
+     * A thread that is not cached yet is loaded.
+     */
+    public void refresh(final String threadId) {
+        final CachedThread cached = cached(threadId);
+        if (cached == null) {
+            load(threadId);
+        } else {
+            revalidate(threadId, cached);
+        }
+    }
+
+    /**
+     * Marks a thread as changed in the backend; the next read revalidates it.
+     */
+    public void invalidate(final String threadId) {
+        final CachedThread cached = cached(threadId);
+        if (cached != null) {
+            cached.invalidate();
+        }
+    }
+
+    /**
+     * Adds or replaces one message of a cached thread without asking the backend.
+     * Threads that are not cached are left alone.
+     */
+    public void putMessage(final String threadId, final String messageId, final ChatMessageResponseModel message) {
+        final CachedThread cached = cached(threadId);
+        if (cached != null) {
+            cached.put(new ConversationHistory.Entry(messageId, message));
+        }
+    }
+
+    public void remove(final String threadId) {
+        synchronized (threads) {
+            threads.remove(threadId);
+        }
+    }
+
+    private CachedThread cached(final String threadId) {
+        if (threadId == null) {
+            return null;
+        }
+        synchronized (threads) {
+            return threads.get(threadId);
+        }
+    }
+
+    private ConversationHistory load(final String threadId) {
+        try {
+            final ConversationHistory history = fetcher.fetch(threadId, null);
+            synchronized (threads) {
+                threads.put(threadId, new CachedThread(history, nanoTime.getAsLong()));
+            }
+            return history;
+        } catch (Exception e) {
+            logger.warn("Failed to fetch {} messages for thread {}", backendName, threadId, e);
+            return ConversationHistory.EMPTY;
+        }
+    }
+
+    private void revalidateInBackground(final String threadId, final CachedThread cached) {
+        if (!cached.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                revalidate(threadId, cached);
+            } finally {
+                cached.refreshing.set(false);
+            }
+        });
+    }
+
+    private void revalidate(final String threadId, final CachedThread cached) {
+        try {
+            for (int attempt = 0; attempt < MAX_FETCH_ATTEMPTS; attempt++) {
+                final long version = cached.version();
+                final ConversationHistory history = fetcher.fetch(threadId, cached.history());
+                if (cached.validated(history, version, nanoTime.getAsLong())) {
+                    return;
+                }
+            }
+            logger.debug("{} thread {} kept changing while it was fetched, the next read revalidates it", backendName, threadId);
+        } catch (Exception e) {
+            logger.warn("Failed to refresh {} messages for thread {}", backendName, threadId, e);
+        }
+    }
+
+    private static final class CachedThread {
+
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+        private ConversationHistory history;
+        private long validatedAt;
+        private long version;
+        private boolean stale;
+
+        private CachedThread(final ConversationHistory history, final long validatedAt) {
+            this.history = history;
+            this.validatedAt = validatedAt;
+        }
+
+        private synchronized ConversationHistory history() {
+            return history;
+        }
+
+        private synchronized long version() {
+            return version;
+        }
+
+        private synchronized boolean needsRevalidation(final long now) {
+            return stale || now - validatedAt >= REVALIDATE_AFTER.toNanos();
+        }
+
+        private synchronized void invalidate() {
+            version++;
+            stale = true;
+        }
+
+        private synchronized void put(final ConversationHistory.Entry entry) {
+            version++;
+            history = history.put(entry);
+        }
+
+        /**
+         * Applies a fetch started at {@code fetchedVersion}. If the entry changed meanwhile, the
+         * fetched history may miss that change, so it is not applied and {@code false} tells the
+         * caller to fetch again.
+         */
+        private synchronized boolean validated(final ConversationHistory fetched, final long fetchedVersion, final long now) {
+            if (version != fetchedVersion) {
+                stale = true;
+                return false;
+            }
+            history = fetched;
+            validatedAt = now;
+            stale = false;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.patres.alina.server.agent;
+
+import com.patres.alina.common.message.ChatMessageResponseModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable history of one conversation as cached by {@link ConversationCache}.
+ * <p>
+ * Every backend message is kept as an entry with its ID, also the ones without displayable content,
+ * so that a delta fetch can find where the fetched window starts. The last entry is the watermark.
+ *
+ * @param entries  all backend messages in conversation order
+ * @param messages the displayable messages of {@code entries}
+ */
+public record ConversationHistory(List<Entry> entries, List<ChatMessageResponseModel> messages) {
+
+    public static final ConversationHistory EMPTY = of(List.of());
+
+    /**
+     * @param id      backend message ID
+     * @param message displayable message, or {@code null} when the backend message has nothing to show
+     */
+    public record Entry(String id, ChatMessageResponseModel message) {
+    }
+
+    public static ConversationHistory of(final List<Entry> entries) {
+        final List<ChatMessageResponseModel> messages = new ArrayList<>(entries.size());
+        for (final Entry entry : entries) {
+            if (entry.message() != null) {
+                messages.add(entry.message());
+            }
+        }
+        return new ConversationHistory(List.copyOf(entries), List.copyOf(messages));
+    }
+
+    /**
+     * Index of the entry with the given ID, searching from the newest one; {@code -1} if absent.
+     */
+    public int indexOf(final String id) {
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            if (Objects.equals(entries.get(i).id(), id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Keeps the entries before {@code index} and appends {@code tail}, which replaces the rest.
+     */
+    public ConversationHistory replaceFrom(final int index, final List<Entry> tail) {
+        final List<Entry> merged = new ArrayList<>(index + tail.size());
+        merged.addAll(entries.subList(0, index));
+        merged.addAll(tail);
+        return of(merged);
+    }
+
+    /**
+     * Replaces the entry with the same ID, or appends it as the newest one.
+     */
+    public ConversationHistory put(final Entry entry) {
+        final int index = indexOf(entry.id());
+        if (index < 0) {
+            return replaceFrom(entries.size(), List.of(entry));
+        }
+        final List<Entry> updated = new ArrayList<>(entries);
+        updated.set(index, entry);
+        return of(updated);
+    }
+}
@@ -161,6 +161,15 @@ public class OpenCodeAgentRuntime implements AgentRuntime {
         return sessionService.getMessages(sessionId);
     }
 
+    @Override
+    public List<ChatMessageResponseModel> getLatestMessagesByThreadId(final String chatThreadId) {
+        String sessionId = sessionService.resolveSessionId(chatThreadId);
+        if (sessionId == null) {
+            sessionId = chatThreadId;
+        }
+        return sessionService.getLatestMessages(sessionId);
+    }
+
     @Override
     public void deleteChatThread(final String chatThreadId) {
         final String sessionId = sessionService.resolveSessionId(chatThreadId);
@@ -0,0 +1,84 @@
+package com.patres.alina.server.codex;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Text streamed into an agent message by an {@code item/agentMessage/delta} notification.
+ * <p>
+ * These notifications arrive once per token, so {@link #parse} reads them straight from the raw
+ * line with a streaming parser instead of building a tree for every token.
+ */
+record AgentMessageDelta(String threadId, String itemId, String delta) {
+
+    static final String METHOD = "item/agentMessage/delta";
+
+    /**
+     * Reads a delta notification from a JSON line.
+     *
+     * @return the delta, or {@code null} when the line is another message or a delta whose shape
+     * needs the general tree-based handling
+     */
+    static AgentMessageDelta parse(final JsonFactory factory,
+                                   final byte[] buffer,
+                                   final int offset,
+                                   final int length) throws IOException {
+        try (JsonParser parser = factory.createParser(buffer, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            boolean deltaNotification = false;
+            String threadId = null;
+            String itemId = null;
+            String delta = null;
+            String text = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                final JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "method" -> {
+                        if (value != JsonToken.VALUE_STRING || !METHOD.equals(parser.getText())) {
+                            return null;
+                        }
+                        deltaNotification = true;
+                    }
+                    case "id" -> {
+                        return null;
+                    }
+                    case "params" -> {
+                        if (value != JsonToken.START_OBJECT) {
+                            return null;
+                        }
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            final String param = parser.currentName();
+                            if (parser.nextToken() != JsonToken.VALUE_STRING) {
+                                parser.skipChildren();
+                                continue;
+                            }
+                            switch (param) {
+                                case "threadId" -> threadId = parser.getText();
+                                case "itemId" -> itemId = parser.getText();
+                                case "delta" -> delta = parser.getText();
+                                case "text" -> text = parser.getText();
+                                default -> {
+                                }
+                            }
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            if (!deltaNotification || isBlank(threadId) || isBlank(itemId)) {
+                return null;
+            }
+            return new AgentMessageDelta(threadId, itemId, delta != null ? delta : text != null ? text : "");
+        }
+    }
+
+    private static boolean isBlank(final String value) {
+        return value == null || value.isBlank();
+    }
+}
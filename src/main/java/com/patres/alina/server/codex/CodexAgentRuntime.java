@@ -26,6 +26,8 @@ import com.patres.alina.common.settings.WorkspaceSettings;
 import com.patres.alina.common.thread.ChatThread;
 import com.patres.alina.server.agent.AgentMessageRequest;
 import com.patres.alina.server.agent.AgentRuntime;
+import com.patres.alina.server.agent.ConversationCache;
+import com.patres.alina.server.agent.ConversationHistory;
 import com.patres.alina.uidesktop.ui.language.LanguageManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,21 +43,23 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiPredicate;
 
 @Component
 public class CodexAgentRuntime implements AgentRuntime {
 
     private static final Logger logger = LoggerFactory.getLogger(CodexAgentRuntime.class);
-    private static final long STREAM_AWAIT_TIMEOUT_HOURS = 12;
+    private static final int MAX_KNOWN_THREADS = 1024;
     private static final int PREVIEW_TITLE_MAX_CODE_POINTS = 80;
     private static final long MODEL_CATALOG_CACHE_SECONDS = 60;
 
@@ -66,11 +70,22 @@ public class CodexAgentRuntime implements AgentRuntime {
     private final CodexInteractionMapper interactionMapper;
 
     private final Map<String, ActiveStream> activeStreams = new ConcurrentHashMap<>();
-    private final Map<String, String> chatThreadToCodexThread = new ConcurrentHashMap<>();
-    private final Map<String, String> codexThreadToChatThread = new ConcurrentHashMap<>();
+    /**
+     * Links between chat threads and the Codex threads started for them. An evicted link would
+     * fork the conversation into a new Codex thread, so links of running turns are never evicted,
+     * and threads merely seen in listings are kept apart in {@link #knownCodexThreads}.
+     */
+    private final Map<String, String> chatThreadToCodexThread =
+            boundedMap(MAX_KNOWN_THREADS, (chatThreadId, codexThreadId) -> activeStreams.containsKey(chatThreadId));
+    private final Map<String, String> codexThreadToChatThread =
+            boundedMap(MAX_KNOWN_THREADS, (codexThreadId, chatThreadId) -> activeStreams.containsKey(chatThreadId));
+    /** Codex threads observed in listings or notifications; their chat thread ID is their own ID. */
+    private final Set<String> knownCodexThreads =
+            Collections.newSetFromMap(boundedMap(MAX_KNOWN_THREADS, (codexThreadId, present) -> false));
     private final Map<String, PendingInteraction> pendingInteractions = new ConcurrentHashMap<>();
     private final Set<String> resolvingInteractionIds = ConcurrentHashMap.newKeySet();
     private final Map<String, String> itemToChatThread = new ConcurrentHashMap<>();
+    private final ConversationCache messageCache = new ConversationCache("Codex", this::readThreadHistory);
     private volatile List<String> cachedModels = List.of();
     private volatile JsonNode cachedModelCatalog;
     private volatile Instant cachedModelCatalogAt = Instant.EPOCH;
@@ -85,6 +100,7 @@ public class CodexAgentRuntime implements AgentRuntime {
         this.objectMapper = objectMapper;
         this.interactionMapper = new CodexInteractionMapper(objectMapper);
         this.client.addMessageListener(this::handleServerMessage);
+        this.client.addAgentMessageDeltaListener(this::handleAgentMessageDelta);
     }
 
     @Override
@@ -97,6 +113,11 @@ public class CodexAgentRuntime implements AgentRuntime {
         return true;
     }
 
+    /**
+     * Starts a turn and returns its stream. Only starting the turn takes a (virtual) thread; the
+     * turn itself is driven by app-server notifications and ends in {@link #handleTurnCompleted}
+     * or {@link #handleError}, which complete the sink and drop the turn's bookkeeping.
+     */
     @Override
     public Flux<String> sendMessageStream(final AgentMessageRequest request) {
         return Flux.create(sink -> {
@@ -104,38 +125,55 @@ public class CodexAgentRuntime implements AgentRuntime {
             activeStreams.put(request.chatThreadId(), stream);
             sink.onDispose(() -> {
                 stream.cancelled.set(true);
-                stream.completed.countDown();
-            });
-
-            Thread.startVirtualThread(() -> {
-                try {
-                    client.ensureRunning();
-                    final String codexThreadId = getOrCreateThread(request);
-                    stream.codexThreadId = codexThreadId;
-                    stream.modelUsed = resolveCodexModel(request.modelOverride());
-                    chatThreadToCodexThread.put(request.chatThreadId(), codexThreadId);
-                    codexThreadToChatThread.put(codexThreadId, request.chatThreadId());
-
-                    final JsonNode turnResponse = startTurn(codexThreadId, request, stream.modelUsed);
-                    final JsonNode turn = turnResponse.path("turn");
-                    stream.turnId = turn.path("id").asText(null);
-                    indexItems(request.chatThreadId(), turn.path("items"));
-
-                    stream.completed.await(STREAM_AWAIT_TIMEOUT_HOURS, TimeUnit.HOURS);
-                } catch (Exception e) {
-                    if (!stream.cancelled.get()) {
-                        sink.error(e);
-                    }
-                } finally {
-                    activeStreams.remove(request.chatThreadId(), stream);
-                    if (stream.codexThreadId != null) {
-                        codexThreadToChatThread.put(stream.codexThreadId, request.chatThreadId());
-                    }
-                }
+                finishTurn(stream);
             });
+            Thread.startVirtualThread(() -> beginTurn(stream, request));
         }, FluxSink.OverflowStrategy.BUFFER);
     }
 
+    private void beginTurn(final ActiveStream stream, final AgentMessageRequest request) {
+        try {
+            client.ensureRunning();
+            final String codexThreadId = getOrCreateThread(request);
+            stream.codexThreadId = codexThreadId;
+            stream.modelUsed = resolveCodexModel(request.modelOverride());
+            chatThreadToCodexThread.put(request.chatThreadId(), codexThreadId);
+            codexThreadToChatThread.put(codexThreadId, request.chatThreadId());
+
+            final JsonNode turnResponse = startTurn(codexThreadId, request, stream.modelUsed);
+            final JsonNode turn = turnResponse.path("turn");
+            final String turnId = turn.path("id").asText(null);
+            if (stream.turnId == null && turnId != null) {
+                stream.turnId = turnId;
+            }
+            indexItems(stream, turn.path("items"));
+        } catch (Exception e) {
+            if (!stream.cancelled.get()) {
+                stream.sink.error(e);
+            }
+            finishTurn(stream);
+        }
+    }
+
+    /**
+     * Drops the bookkeeping of a turn that has completed, failed or been cancelled. Safe to call
+     * more than once.
+     */
+    private void finishTurn(final ActiveStream stream) {
+        if (!stream.finished.compareAndSet(false, true)) {
+            return;
+        }
+        activeStreams.remove(stream.chatThreadId, stream);
+        clearPendingInteractions(stream);
+        for (final String itemId : stream.itemIds) {
+            itemToChatThread.remove(itemId, stream.chatThreadId);
+        }
+        stream.itemIds.clear();
+        if (stream.codexThreadId != null) {
+            codexThreadToChatThread.put(stream.codexThreadId, stream.chatThreadId);
+        }
+    }
+
     @Override
     public void cancelStreaming(final String chatThreadId) {
         final ActiveStream stream = activeStreams.remove(chatThreadId);
@@ -143,19 +181,16 @@ public class CodexAgentRuntime implements AgentRuntime {
             return;
         }
         stream.cancelled.set(true);
-        try {
-            if (stream.codexThreadId != null && stream.turnId != null) {
-                final ObjectNode params = objectMapper.createObjectNode();
-                params.put("threadId", stream.codexThreadId);
-                params.put("turnId", stream.turnId);
-                client.request("turn/interrupt", params);
-            }
-        } catch (Exception e) {
-            logger.debug("Cannot interrupt Codex turn for thread {}", chatThreadId, e);
-        } finally {
-            clearPendingInteractions(stream);
-            stream.completed.countDown();
+        if (stream.codexThreadId != null && stream.turnId != null) {
+            final ObjectNode params = objectMapper.createObjectNode();
+            params.put("threadId", stream.codexThreadId);
+            params.put("turnId", stream.turnId);
+            client.requestAsync("turn/interrupt", params).exceptionally(error -> {
+                logger.debug("Cannot interrupt Codex turn for thread {}", chatThreadId, error);
+                return null;
+            });
         }
+        finishTurn(stream);
     }
 
     @Override
@@ -338,9 +373,9 @@ public class CodexAgentRuntime implements AgentRuntime {
 
     @Override
     public void prepareForFreshChat() {
-        activeStreams.values().forEach(stream -> {
+        List.copyOf(activeStreams.values()).forEach(stream -> {
             stream.cancelled.set(true);
-            stream.completed.countDown();
+            finishTurn(stream);
         });
         activeStreams.clear();
         pendingInteractions.clear();
@@ -353,7 +388,7 @@ public class CodexAgentRuntime implements AgentRuntime {
             return null;
         }
         final String codexThreadId = resolveCodexThreadId(chatThreadId);
-        if (!codexThreadToChatThread.containsKey(codexThreadId)) {
+        if (!isKnownCodexThread(codexThreadId)) {
             return null;
         }
         final String encodedThreadId = URLEncoder.encode(codexThreadId, StandardCharsets.UTF_8)
@@ -400,27 +435,36 @@ public class CodexAgentRuntime implements AgentRuntime {
 
     @Override
     public List<ChatMessageResponseModel> getMessagesByThreadId(final String chatThreadId) {
-        try {
-            final String codexThreadId = resolveCodexThreadId(chatThreadId);
-            final ObjectNode params = objectMapper.createObjectNode();
-            params.put("threadId", codexThreadId);
-            params.put("includeTurns", true);
-            final JsonNode response = client.request("thread/read", params);
-            final List<ChatMessageResponseModel> messages = new ArrayList<>();
-            collectMessages(response.path("thread").path("turns"), codexThreadId, messages);
-            collectMessages(response.path("turns"), codexThreadId, messages);
-            return messages;
-        } catch (Exception e) {
-            logger.warn("Failed to fetch Codex messages for thread {}", chatThreadId, e);
-            return List.of();
-        }
+        return messageCache.getMessages(resolveCodexThreadId(chatThreadId));
+    }
+
+    @Override
+    public List<ChatMessageResponseModel> getLatestMessagesByThreadId(final String chatThreadId) {
+        return messageCache.getValidatedMessages(resolveCodexThreadId(chatThreadId));
+    }
+
+    /**
+     * Codex cannot read a part of a thread, so every fetch is a full {@code thread/read}; between
+     * fetches the cached history is extended with the items completed by our own turns.
+     */
+    private ConversationHistory readThreadHistory(final String codexThreadId, final ConversationHistory cached) throws Exception {
+        final ObjectNode params = objectMapper.createObjectNode();
+        params.put("threadId", codexThreadId);
+        params.put("includeTurns", true);
+        final JsonNode response = client.request("thread/read", params);
+        final List<ConversationHistory.Entry> entries = new ArrayList<>();
+        collectMessages(response.path("thread").path("turns"), codexThreadId, entries);
+        collectMessages(response.path("turns"), codexThreadId, entries);
+        return ConversationHistory.of(entries);
     }
 
     @Override
     public void deleteChatThread(final String chatThreadId) {
         try {
             final ObjectNode params = objectMapper.createObjectNode();
-            params.put("threadId", resolveCodexThreadId(chatThreadId));
+            final String codexThreadId = resolveCodexThreadId(chatThreadId);
+            messageCache.remove(codexThreadId);
+            params.put("threadId", codexThreadId);
             client.request("thread/archive", params);
         } catch (Exception e) {
             logger.warn("Failed to archive Codex thread {}", chatThreadId, e);
@@ -615,7 +659,8 @@ public class CodexAgentRuntime implements AgentRuntime {
             case "thread/tokenUsage/updated" -> handleTokenUsageUpdated(params);
             case "item/started" -> handleItemStarted(params);
             case "item/completed" -> handleItemCompleted(params);
-            case "item/agentMessage/delta" -> handleAgentMessageDelta(params);
+            case AgentMessageDelta.METHOD -> handleAgentMessageDelta(new AgentMessageDelta(
+                    eventThreadId(params), itemId(params), params.path("delta").asText(params.path("text").asText(""))));
             case "item/plan/delta" -> handlePlanDelta(params);
             case "item/reasoning/summaryTextDelta", "item/reasoning/textDelta" -> handleReasoningDelta(params);
             case "item/reasoning/summaryPartAdded" -> handleReasoningSummaryPartAdded(params);
@@ -711,12 +756,12 @@ public class CodexAgentRuntime implements AgentRuntime {
         if (codexThreadId == null || codexThreadId.isBlank()) {
             return;
         }
-        codexThreadToChatThread.putIfAbsent(codexThreadId, codexThreadId);
+        knownCodexThreads.add(codexThreadId);
     }
 
     private void handleThreadNameUpdated(final JsonNode params) {
         final String codexThreadId = eventThreadId(params);
-        final String chatThreadId = codexThreadId == null ? null : codexThreadToChatThread.get(codexThreadId);
+        final String chatThreadId = isKnownCodexThread(codexThreadId) ? chatThreadIdForCodexThread(codexThreadId) : null;
         final String name = firstNonBlankText(
                 params.path("threadName"),
                 params.path("name"),
@@ -754,8 +799,7 @@ public class CodexAgentRuntime implements AgentRuntime {
         } else {
             stream.sink.complete();
         }
-        clearPendingInteractions(stream);
-        stream.completed.countDown();
+        finishTurn(stream);
     }
 
     private void handlePlanUpdated(final JsonNode params) {
@@ -814,9 +858,10 @@ public class CodexAgentRuntime implements AgentRuntime {
             return;
         }
         final String itemId = item.path("id").asText(params.path("itemId").asText(""));
-        if (!itemId.isBlank()) {
-            itemToChatThread.put(itemId, stream.chatThreadId);
+        if (completed && stream.codexThreadId != null && isMessageItem(item)) {
+            messageCache.putMessage(stream.codexThreadId, itemId, toMessage(item, stream.codexThreadId).orElse(null));
         }
+        trackItem(stream, itemId);
         final String type = item.path("type").asText("");
         if ("agentMessage".equals(type)) {
             final String phase = item.path("phase").asText("");
@@ -837,21 +882,20 @@ public class CodexAgentRuntime implements AgentRuntime {
         publishActivityForItem(stream, item, completed);
     }
 
-    private void handleAgentMessageDelta(final JsonNode params) {
-        final ActiveStream stream = streamForDelta(params);
+    private void handleAgentMessageDelta(final AgentMessageDelta message) {
+        final ActiveStream stream = streamForDelta(message.threadId(), message.itemId());
         if (stream == null || stream.cancelled.get()) {
             return;
         }
-        final String itemId = itemId(params);
-        final String delta = params.path("delta").asText(params.path("text").asText(""));
+        final String itemId = message.itemId();
+        final String delta = message.delta();
         if (delta.isEmpty()) {
             return;
         }
         final String phase = stream.itemPhases.getOrDefault(itemId, "");
         if ("commentary".equalsIgnoreCase(phase)) {
-            final String updated = stream.commentaryParts.getOrDefault(itemId, "") + delta;
-            stream.commentaryParts.put(itemId, updated);
-            Event.publish(ChatMessageStreamEvent.commentary(stream.chatThreadId, updated));
+            stream.commentaryParts.computeIfAbsent(itemId, ignored -> new StringBuilder()).append(delta);
+            Event.publish(ChatMessageStreamEvent.commentaryDelta(stream.chatThreadId, itemId, delta));
             return;
         }
         stream.messageParts.merge(itemId, delta, String::concat);
@@ -868,9 +912,8 @@ public class CodexAgentRuntime implements AgentRuntime {
         if (delta.isBlank()) {
             return;
         }
-        final String updated = stream.commentaryParts.getOrDefault(itemId, "") + delta;
-        stream.commentaryParts.put(itemId, updated);
-        Event.publish(ChatMessageStreamEvent.commentary(stream.chatThreadId, updated));
+        stream.commentaryParts.computeIfAbsent(itemId, ignored -> new StringBuilder()).append(delta);
+        Event.publish(ChatMessageStreamEvent.commentaryDelta(stream.chatThreadId, itemId, delta));
     }
 
     private void handleReasoningDelta(final JsonNode params) {
@@ -883,9 +926,8 @@ public class CodexAgentRuntime implements AgentRuntime {
         if (delta.isBlank()) {
             return;
         }
-        final String updated = stream.reasoningParts.getOrDefault(itemId, "") + delta;
-        stream.reasoningParts.put(itemId, updated);
-        Event.publish(new ChatMessageStreamEvent(stream.chatThreadId, updated, true));
+        stream.reasoningParts.computeIfAbsent(itemId, ignored -> new StringBuilder()).append(delta);
+        Event.publish(ChatMessageStreamEvent.reasoningDelta(stream.chatThreadId, itemId, delta));
     }
 
     private void handleReasoningSummaryPartAdded(final JsonNode params) {
@@ -906,9 +948,8 @@ public class CodexAgentRuntime implements AgentRuntime {
             return;
         }
         if ("commentary".equalsIgnoreCase(phase)) {
-            final String previous = stream.commentaryParts.getOrDefault(itemId, "");
-            stream.commentaryParts.put(itemId, currentText);
-            if (!currentText.equals(previous)) {
+            final StringBuilder previous = stream.commentaryParts.put(itemId, new StringBuilder(currentText));
+            if (previous == null || !currentText.contentEquals(previous)) {
                 Event.publish(ChatMessageStreamEvent.commentary(stream.chatThreadId, currentText));
             }
             return;
@@ -965,7 +1006,7 @@ public class CodexAgentRuntime implements AgentRuntime {
         }
         final String message = params.path("error").path("message").asText("Codex app-server error");
         stream.sink.error(new IllegalStateException(message));
-        stream.completed.countDown();
+        finishTurn(stream);
     }
 
     private void publishActivityForItem(final ActiveStream stream, final JsonNode item, final boolean completed) {
@@ -1005,7 +1046,7 @@ public class CodexAgentRuntime implements AgentRuntime {
         if (summary == null || summary.isBlank()) {
             return;
         }
-        stream.reasoningParts.put(itemId, summary);
+        stream.reasoningParts.put(itemId, new StringBuilder(summary));
         Event.publish(new ChatMessageStreamEvent(stream.chatThreadId, summary, true));
     }
 
@@ -1032,15 +1073,26 @@ public class CodexAgentRuntime implements AgentRuntime {
         return builder.toString();
     }
 
-    private void indexItems(final String chatThreadId, final JsonNode items) {
+    private void indexItems(final ActiveStream stream, final JsonNode items) {
         if (!items.isArray()) {
             return;
         }
         for (final JsonNode item : items) {
-            final String id = item.path("id").asText(null);
-            if (id != null && !id.isBlank()) {
-                itemToChatThread.put(id, chatThreadId);
-            }
+            trackItem(stream, item.path("id").asText(null));
+        }
+    }
+
+    /**
+     * Routes events of an item to the stream of its turn until the turn is finished.
+     */
+    private void trackItem(final ActiveStream stream, final String itemId) {
+        if (itemId == null || itemId.isBlank() || stream.finished.get()) {
+            return;
+        }
+        itemToChatThread.put(itemId, stream.chatThreadId);
+        stream.itemIds.add(itemId);
+        if (stream.finished.get()) {
+            itemToChatThread.remove(itemId, stream.chatThreadId);
         }
     }
 
@@ -1056,12 +1108,15 @@ public class CodexAgentRuntime implements AgentRuntime {
     }
 
     private ActiveStream streamForDelta(final JsonNode params) {
-        final String codexThreadId = eventThreadId(params);
-        ActiveStream stream = streamForCodexThread(codexThreadId);
+        return streamForDelta(eventThreadId(params), itemId(params));
+    }
+
+    private ActiveStream streamForDelta(final String codexThreadId, final String itemId) {
+        final ActiveStream stream = streamForCodexThread(codexThreadId);
         if (stream != null) {
             return stream;
         }
-        final String chatThreadId = itemToChatThread.get(itemId(params));
+        final String chatThreadId = itemToChatThread.get(itemId);
         return chatThreadId == null ? null : activeStreams.get(chatThreadId);
     }
 
@@ -1078,6 +1133,11 @@ public class CodexAgentRuntime implements AgentRuntime {
         return mapped != null ? mapped : codexThreadId;
     }
 
+    private boolean isKnownCodexThread(final String codexThreadId) {
+        return codexThreadId != null
+                && (codexThreadToChatThread.containsKey(codexThreadId) || knownCodexThreads.contains(codexThreadId));
+    }
+
     private String resolveCodexThreadId(final String chatThreadId) {
         return chatThreadToCodexThread.getOrDefault(chatThreadId, chatThreadId);
     }
@@ -1125,7 +1185,7 @@ public class CodexAgentRuntime implements AgentRuntime {
         return command.asText("");
     }
 
-    private void collectMessages(final JsonNode turns, final String codexThreadId, final List<ChatMessageResponseModel> messages) {
+    private void collectMessages(final JsonNode turns, final String codexThreadId, final List<ConversationHistory.Entry> entries) {
         if (!turns.isArray()) {
             return;
         }
@@ -1135,11 +1195,18 @@ public class CodexAgentRuntime implements AgentRuntime {
                 continue;
             }
             for (final JsonNode item : items) {
-                toMessage(item, codexThreadId).ifPresent(messages::add);
+                if (isMessageItem(item)) {
+                    entries.add(new ConversationHistory.Entry(item.path("id").asText(""), toMessage(item, codexThreadId).orElse(null)));
+                }
             }
         }
     }
 
+    private static boolean isMessageItem(final JsonNode item) {
+        final String type = item.path("type").asText("");
+        return "userMessage".equals(type) || "agentMessage".equals(type);
+    }
+
     private Optional<ChatMessageResponseModel> toMessage(final JsonNode item, final String codexThreadId) {
         final String type = item.path("type").asText("");
         final ChatMessageRole role = switch (type) {
@@ -1188,7 +1255,7 @@ public class CodexAgentRuntime implements AgentRuntime {
         final String name = threadDisplayName(node, id);
         final LocalDateTime createdAt = parseTime(node.path("createdAt"), node.path("created_at"), node.path("created"));
         final LocalDateTime updatedAt = parseTime(node.path("updatedAt"), node.path("updated_at"), node.path("updated"));
-        codexThreadToChatThread.putIfAbsent(id, id);
+        knownCodexThreads.add(id);
         return Optional.of(new ChatThread(id, name, createdAt, updatedAt));
     }
 
@@ -1311,6 +1378,30 @@ public class CodexAgentRuntime implements AgentRuntime {
         return "pending";
     }
 
+    /**
+     * LRU map of at most {@code maxSize} entries, apart from {@code pinned} ones, which are skipped
+     * when the least recently used entry is evicted.
+     */
+    private static <K, V> Map<K, V> boundedMap(final int maxSize, final BiPredicate<K, V> pinned) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                final Iterator<Map.Entry<K, V>> entries = entrySet().iterator();
+                while (entries.hasNext()) {
+                    final Map.Entry<K, V> entry = entries.next();
+                    if (!pinned.test(entry.getKey(), entry.getValue())) {
+                        entries.remove();
+                        break;
+                    }
+                }
+                return false;
+            }
+        });
+    }
+
     private record Activity(ChatMessageStreamEvent.ActivityType type, String name, String detail) {
     }
 
@@ -1326,13 +1417,14 @@ public class CodexAgentRuntime implements AgentRuntime {
         private final String chatThreadId;
         private final FluxSink<String> sink;
         private final AtomicBoolean cancelled = new AtomicBoolean(false);
-        private final CountDownLatch completed = new CountDownLatch(1);
+        private final AtomicBoolean finished = new AtomicBoolean(false);
+        private final Set<String> itemIds = ConcurrentHashMap.newKeySet();
         private final Set<String> seenActivity = ConcurrentHashMap.newKeySet();
         private final Set<String> pendingPermissionRequestIds = ConcurrentHashMap.newKeySet();
         private final Map<String, String> itemPhases = new ConcurrentHashMap<>();
         private final Map<String, String> messageParts = new ConcurrentHashMap<>();
-        private final Map<String, String> reasoningParts = new ConcurrentHashMap<>();
-        private final Map<String, String> commentaryParts = new ConcurrentHashMap<>();
+        private final Map<String, StringBuilder> reasoningParts = new ConcurrentHashMap<>();
+        private final Map<String, StringBuilder> commentaryParts = new ConcurrentHashMap<>();
         private volatile String codexThreadId;
         private volatile String turnId;
         private volatile String modelUsed;
@@ -10,11 +10,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -24,11 +22,19 @@ import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+/**
+ * JSON-RPC client of the {@code codex app-server} process, spoken over the process's stdio.
+ * <p>
+ * Requests are pipelined: {@link #requestAsync} queues the message on the {@link JsonRpcWriter}
+ * and returns at once, and the reader thread completes the returned future when the response
+ * arrives, so concurrent requests from several tabs do not wait for each other.
+ */
 @Component
 public class CodexAppServerClient {
 
@@ -41,10 +47,12 @@ public class CodexAppServerClient {
     private final AtomicLong nextRequestId = new AtomicLong(1);
     private final ConcurrentHashMap<Long, CompletableFuture<JsonNode>> pendingRequests = new ConcurrentHashMap<>();
     private final CopyOnWriteArrayList<Consumer<JsonNode>> messageListeners = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<Consumer<AgentMessageDelta>> agentMessageDeltaListeners = new CopyOnWriteArrayList<>();
 
     private volatile Process process;
-    private volatile BufferedWriter stdin;
+    private volatile JsonRpcWriter stdin;
     private volatile String processSignature;
+    private volatile WorkspaceSettings processSettings;
     private volatile boolean initialized;
 
     public CodexAppServerClient(final FileManager<WorkspaceSettings> workspaceSettingsManager,
@@ -57,24 +65,59 @@ public class CodexAppServerClient {
         messageListeners.add(listener);
     }
 
+    /**
+     * Receives {@code item/agentMessage/delta} notifications, which then skip the message listeners.
+     */
+    void addAgentMessageDeltaListener(final Consumer<AgentMessageDelta> listener) {
+        agentMessageDeltaListeners.add(listener);
+    }
+
     public JsonNode request(final String method, final JsonNode params) throws Exception {
-        ensureRunning();
+        try {
+            return requestAsync(method, params).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException timeout) {
+                throw new IllegalStateException("Codex app-server request timed out: " + method, timeout);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a request without waiting for its response. The future fails when the app-server
+     * rejects the request, the process stops or no response comes within the request timeout.
+     */
+    public CompletableFuture<JsonNode> requestAsync(final String method, final JsonNode params) {
+        try {
+            ensureRunning();
+            return sendRequest(method, params);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<JsonNode> sendRequest(final String method, final JsonNode params) throws IOException {
         final long id = nextRequestId.getAndIncrement();
         final CompletableFuture<JsonNode> future = new CompletableFuture<>();
         pendingRequests.put(id, future);
+        future.orTimeout(REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((_, error) -> {
+                    if (error != null) {
+                        pendingRequests.remove(id, future);
+                    }
+                });
 
         final ObjectNode message = objectMapper.createObjectNode();
         message.put("method", method);
         message.set("params", params == null ? objectMapper.createObjectNode() : params);
         message.put("id", id);
-        send(message);
-
         try {
-            return future.get(REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
-        } catch (TimeoutException e) {
-            pendingRequests.remove(id);
-            throw new IllegalStateException("Codex app-server request timed out: " + method, e);
+            send(message);
+        } catch (IOException e) {
+            pendingRequests.remove(id, future);
+            throw e;
         }
+        return future;
     }
 
     public void notify(final String method, final JsonNode params) throws Exception {
@@ -103,10 +146,22 @@ public class CodexAppServerClient {
         send(message);
     }
 
-    public synchronized void ensureRunning() throws Exception {
+    /**
+     * Starts the app-server, or restarts it when the Codex command or working directory changed.
+     * While the process runs with the current settings document this is a couple of volatile reads.
+     */
+    public void ensureRunning() throws Exception {
+        if (workspaceSettingsManager.getSettings() == processSettings && isRunning()) {
+            return;
+        }
+        startIfNeeded();
+    }
+
+    private synchronized void startIfNeeded() throws Exception {
         final WorkspaceSettings settings = workspaceSettingsManager.getSettings();
         final String desiredSignature = signature(settings);
-        if (process != null && process.isAlive() && initialized && Objects.equals(desiredSignature, processSignature)) {
+        if (isRunning() && Objects.equals(desiredSignature, processSignature)) {
+            processSettings = settings;
             return;
         }
         stop();
@@ -114,13 +169,12 @@ public class CodexAppServerClient {
     }
 
     public synchronized void stop() {
-        initialized = false;
-        pendingRequests.forEach((_, future) -> future.completeExceptionally(
-                new IllegalStateException("Codex app-server process stopped")
-        ));
-        pendingRequests.clear();
-        closeQuietly(stdin);
-        stdin = null;
+        processSettings = null;
+        failPendingRequests("Codex app-server process stopped", null);
+        if (stdin != null) {
+            stdin.close();
+            stdin = null;
+        }
         if (process != null) {
             process.destroyForcibly();
             process = null;
@@ -128,7 +182,8 @@ public class CodexAppServerClient {
     }
 
     public boolean isRunning() {
-        return process != null && process.isAlive() && initialized;
+        final Process current = process;
+        return initialized && current != null && current.isAlive();
     }
 
     public String readVersion() {
@@ -162,18 +217,16 @@ public class CodexAppServerClient {
 
         process = processBuilder.start();
         processSignature = desiredSignature;
-        stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        stdin = new JsonRpcWriter(objectMapper, process.getOutputStream(),
+                e -> failPendingRequests("Cannot write to Codex app-server stdin", e));
         pumpServerMessages(process.getInputStream());
         pumpServerLogs(process.getErrorStream());
         initialize();
+        processSettings = settings;
         logger.info("Codex app-server is ready via stdio in {}", workingDirectory);
     }
 
     private void initialize() throws Exception {
-        final long id = nextRequestId.getAndIncrement();
-        final CompletableFuture<JsonNode> future = new CompletableFuture<>();
-        pendingRequests.put(id, future);
-
         final ObjectNode params = objectMapper.createObjectNode();
         final ObjectNode clientInfo = params.putObject("clientInfo");
         clientInfo.put("name", "alina_desktop");
@@ -181,12 +234,7 @@ public class CodexAppServerClient {
         clientInfo.put("version", "1.0.2");
         params.putObject("capabilities").put("experimentalApi", true);
 
-        final ObjectNode message = objectMapper.createObjectNode();
-        message.put("method", "initialize");
-        message.put("id", id);
-        message.set("params", params);
-        send(message);
-        future.get(REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        sendRequest("initialize", params).get();
 
         final ObjectNode initializedMessage = objectMapper.createObjectNode();
         initializedMessage.put("method", "initialized");
@@ -195,37 +243,48 @@ public class CodexAppServerClient {
         initialized = true;
     }
 
-    private synchronized void send(final ObjectNode message) throws IOException {
-        if (stdin == null) {
+    private void send(final ObjectNode message) throws IOException {
+        final JsonRpcWriter writer = stdin;
+        if (writer == null) {
             throw new IOException("Codex app-server stdin is closed.");
         }
-        stdin.write(objectMapper.writeValueAsString(message));
-        stdin.newLine();
-        stdin.flush();
+        writer.send(message);
     }
 
     private void pumpServerMessages(final InputStream inputStream) {
         Thread.startVirtualThread(() -> {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    handleIncomingLine(line);
-                }
+            try (inputStream) {
+                new JsonLineReader(inputStream).readLines(this::handleIncomingLine);
             } catch (IOException e) {
                 logger.debug("Codex app-server message stream closed", e);
             } finally {
-                initialized = false;
-                pendingRequests.forEach((_, future) -> future.completeExceptionally(
-                        new IllegalStateException("Codex app-server message stream closed")
-                ));
-                pendingRequests.clear();
+                failPendingRequests("Codex app-server message stream closed", null);
             }
         });
     }
 
-    private void handleIncomingLine(final String line) {
+    /**
+     * Fails every request waiting for a response and marks the client as not running, so that the
+     * next request restarts the app-server instead of waiting for the request timeout.
+     */
+    private void failPendingRequests(final String message, final Throwable cause) {
+        initialized = false;
+        pendingRequests.forEach((_, future) -> future.completeExceptionally(new IllegalStateException(message, cause)));
+        pendingRequests.clear();
+    }
+
+    private void handleIncomingLine(final byte[] buffer, final int offset, final int length) {
         try {
-            final JsonNode message = objectMapper.readTree(line);
+            if (!agentMessageDeltaListeners.isEmpty()) {
+                final AgentMessageDelta delta = AgentMessageDelta.parse(objectMapper.getFactory(), buffer, offset, length);
+                if (delta != null) {
+                    for (final Consumer<AgentMessageDelta> listener : agentMessageDeltaListeners) {
+                        listener.accept(delta);
+                    }
+                    return;
+                }
+            }
+            final JsonNode message = objectMapper.readTree(buffer, offset, length);
             if (message.has("id") && !message.has("method")) {
                 completeResponse(message);
                 return;
@@ -234,7 +293,8 @@ public class CodexAppServerClient {
                 listener.accept(message);
             }
         } catch (Exception e) {
-            logger.debug("Cannot process Codex app-server message: {}", line, e);
+            logger.debug("Cannot process Codex app-server message: {}",
+                    new String(buffer, offset, length, StandardCharsets.UTF_8), e);
         }
     }
 
@@ -273,14 +333,4 @@ public class CodexAppServerClient {
     private Path resolveWorkingDirectory(final WorkspaceSettings settings) {
         return Path.of(settings.codexWorkingDirectory()).toAbsolutePath().normalize();
     }
-
-    private void closeQuietly(final BufferedWriter writer) {
-        if (writer == null) {
-            return;
-        }
-        try {
-            writer.close();
-        } catch (IOException ignored) {
-        }
-    }
 }
@@ -0,0 +1,83 @@
+package com.patres.alina.server.codex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits the app-server's stdout into newline-delimited JSON messages without decoding them.
+ * <p>
+ * Each message is handed to the handler as a slice of a reused byte buffer, so a line costs no
+ * {@code String} and no copy; the slice is only valid during the call.
+ */
+final class JsonLineReader {
+
+    static final int INITIAL_CAPACITY = 8 * 1024;
+
+    @FunctionalInterface
+    interface LineHandler {
+        void onLine(byte[] buffer, int offset, int length);
+    }
+
+    private final InputStream inputStream;
+    private byte[] buffer;
+    private int start;
+    private int end;
+
+    JsonLineReader(final InputStream inputStream) {
+        this(inputStream, INITIAL_CAPACITY);
+    }
+
+    JsonLineReader(final InputStream inputStream, final int initialCapacity) {
+        this.inputStream = inputStream;
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Reads until the end of the stream, calling {@code handler} for every non-empty line.
+     */
+    void readLines(final LineHandler handler) throws IOException {
+        int scanned = 0;
+        while (true) {
+            for (int i = scanned; i < end; i++) {
+                if (buffer[i] == '\n') {
+                    emit(handler, start, i);
+                    start = i + 1;
+                }
+            }
+            if (start == end) {
+                start = 0;
+                end = 0;
+            } else if (end == buffer.length) {
+                makeRoom();
+            }
+            scanned = end;
+            final int read = inputStream.read(buffer, end, buffer.length - end);
+            if (read < 0) {
+                emit(handler, start, end);
+                return;
+            }
+            end += read;
+        }
+    }
+
+    private void makeRoom() {
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        } else {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+    }
+
+    private void emit(final LineHandler handler, final int from, final int to) {
+        int lineEnd = to;
+        if (lineEnd > from && buffer[lineEnd - 1] == '\r') {
+            lineEnd--;
+        }
+        if (lineEnd > from) {
+            handler.onLine(buffer, from, lineEnd - from);
+        }
+    }
+}
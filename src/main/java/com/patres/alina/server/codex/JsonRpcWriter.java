@@ -0,0 +1,121 @@
+package com.patres.alina.server.codex;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Writes JSON-RPC messages to the app-server's stdin, one JSON document per line.
+ * <p>
+ * Senders only queue a message. One thread serialises the queued messages straight into the stream
+ * and flushes once per batch, so messages sent from several tabs at the same time share a flush
+ * and no sender waits for another one's write. If a write fails, the writer closes and reports the
+ * failure, since the messages it was writing are lost.
+ */
+final class JsonRpcWriter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonRpcWriter.class);
+    private static final JsonNode CLOSE = JsonNodeFactory.instance.objectNode();
+
+    private final BlockingQueue<JsonNode> queue = new LinkedBlockingQueue<>();
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+    private final Consumer<IOException> failureHandler;
+    // Makes the closed check and the enqueueing atomic, so that nothing is queued behind CLOSE
+    // or after the writer thread has stopped
+    private final Object queueLock = new Object();
+    private volatile boolean closed;
+
+    /**
+     * @param failureHandler called on the writer thread once a write has failed
+     */
+    JsonRpcWriter(final ObjectMapper objectMapper,
+                  final OutputStream outputStream,
+                  final Consumer<IOException> failureHandler) throws IOException {
+        this.failureHandler = failureHandler;
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory()
+                .createGenerator(new BufferedOutputStream(outputStream), JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+        Thread.ofVirtual().name("codex-stdin-writer").start(this::writeQueuedMessages);
+    }
+
+    void send(final JsonNode message) throws IOException {
+        synchronized (queueLock) {
+            if (closed) {
+                throw new IOException("Codex app-server stdin is closed.");
+            }
+            queue.add(message);
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Writes the messages queued so far and closes the stream.
+     */
+    @Override
+    public void close() {
+        synchronized (queueLock) {
+            if (!closed) {
+                closed = true;
+                queue.add(CLOSE);
+            }
+        }
+    }
+
+    private void writeQueuedMessages() {
+        final List<JsonNode> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                for (final JsonNode message : batch) {
+                    if (message == CLOSE) {
+                        return;
+                    }
+                    writer.writeValue(generator, message);
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Closed before reporting, so that no sender queues a message nobody will write
+            markClosed();
+            logger.debug("Cannot write to Codex app-server stdin", e);
+            failureHandler.accept(e);
+        } finally {
+            markClosed();
+            try {
+                generator.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void markClosed() {
+        synchronized (queueLock) {
+            closed = true;
+        }
+    }
+}
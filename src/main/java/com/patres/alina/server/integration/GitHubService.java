@@ -6,6 +6,7 @@ import com.patres.alina.server.integration.http.HttpClientFactory;
 import com.patres.alina.server.integration.http.HttpResponseHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
@@ -16,25 +17,55 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Finds the pull requests waiting for the user's review.
+ * <p>
+ * A refresh costs one search plus up to two calls per pull request, so the service keeps the
+ * request count and the rate limit in check: the login of a token is resolved once, the per-PR
+ * calls run concurrently (at most {@link #MAX_CONCURRENT_REQUESTS} at a time), and every response
+ * is cached with its ETag, so a resource that has not changed comes back as a body-less
+ * {@code 304 Not Modified}, which GitHub does not count against the rate limit.
+ */
 @Service
 public class GitHubService {
 
     private static final Logger logger = LoggerFactory.getLogger(GitHubService.class);
 
-    private static final String USER_URL = "https://api.github.com/user";
-    private static final String SEARCH_URL_TEMPLATE =
-            "https://api.github.com/search/issues?q=type:pr+state:open+involves:%s+-author:%s&sort=updated&order=desc&per_page=50";
-    private static final String PR_DETAILS_URL_TEMPLATE = "https://api.github.com/repos/%s/pulls/%s";
-    private static final String PR_REVIEWS_URL_TEMPLATE = "https://api.github.com/repos/%s/pulls/%s/reviews";
+    private static final String API_BASE_URL = "https://api.github.com";
+    private static final String USER_PATH = "/user";
+    private static final String SEARCH_PATH_TEMPLATE =
+            "/search/issues?q=type:pr+state:open+involves:%s+-author:%s&sort=updated&order=desc&per_page=50";
+    private static final String PR_DETAILS_PATH_TEMPLATE = "/repos/%s/pulls/%s";
+    private static final String PR_REVIEWS_PATH_TEMPLATE = "/repos/%s/pulls/%s/reviews";
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    static final int MAX_CONCURRENT_REQUESTS = 8;
 
     private final HttpClient httpClient;
+    private final String apiBaseUrl;
+    private final Semaphore requestPermits = new Semaphore(MAX_CONCURRENT_REQUESTS);
+    private final Map<String, CachedResponse> responseCache = new ConcurrentHashMap<>();
+    private volatile String cachedToken;
+    private volatile CachedLogin cachedLogin;
 
+    @Autowired
     public GitHubService(final HttpClientFactory httpClientFactory) {
-        this.httpClient = httpClientFactory.getClient();
+        this(httpClientFactory.getClient(), API_BASE_URL);
+    }
+
+    GitHubService(final HttpClient httpClient, final String apiBaseUrl) {
+        this.httpClient = httpClient;
+        this.apiBaseUrl = apiBaseUrl;
     }
 
     public GitHubPullRequestResult fetchPendingReviews(final String githubToken, final int maxResults) {
@@ -44,36 +75,32 @@ public class GitHubService {
 
         final String tokenPrefix = githubToken.length() > 4 ? githubToken.substring(0, 4) + "..." : "***";
         logger.info("GitHub: starting fetch with token: {}, maxResults: {}", tokenPrefix, maxResults);
+        forgetCachesOfOtherToken(githubToken);
+        // Per call, so that an overlapping refresh cannot evict the responses this one revalidates
+        final Set<String> usedUrls = ConcurrentHashMap.newKeySet();
 
-            try {
-                final String username = fetchAuthenticatedUsername(githubToken);
-                if (username == null) {
-                    logger.warn("Could not resolve GitHub username — check if the token is valid");
-                    return GitHubPullRequestResult.error();
-                }
+        try {
+            final String username = resolveUsername(githubToken, usedUrls);
+            if (username == null) {
+                logger.warn("Could not resolve GitHub username — check if the token is valid");
+                return GitHubPullRequestResult.error();
+            }
             logger.info("GitHub: resolved username = {}", username);
 
-            final String searchUrl = String.format(SEARCH_URL_TEMPLATE, username, username);
+            final String searchUrl = apiBaseUrl + String.format(SEARCH_PATH_TEMPLATE, username, username);
             logger.info("GitHub: search URL = {}", searchUrl);
 
-            final HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(searchUrl))
-                    .header("Authorization", "Bearer " + githubToken)
-                    .header("Accept", "application/vnd.github+json")
-                    .header("X-GitHub-Api-Version", "2022-11-28")
-                    .timeout(TIMEOUT)
-                    .GET()
-                    .build();
-
-            final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            logger.info("GitHub: search response status = {}, body length = {}", response.statusCode(), response.body().length());
-
-            if (!HttpResponseHandler.isSuccess(response)) {
-                HttpResponseHandler.describeError("GitHub", response);
-                logger.warn("GitHub API returned status {}: {}. Token used: {}. " +
+            final JsonResponse response = getJson(githubToken, searchUrl, usedUrls);
+            logger.info("GitHub: search response status = {}", response.statusCode());
+
+            if (response.body() == null) {
+                logger.warn("GitHub API returned status {}. Token used: {}. " +
                         "If 401, verify: 1) Token is valid and not expired, 2) Token has 'repo' or 'public_repo' scope, " +
-                        "3) You've restarted the app after updating the token in settings",
-                        response.statusCode(), response.body(), tokenPrefix);
+                        "3) The settings file with the new token has been saved (changes are picked up automatically)",
+                        response.statusCode(), tokenPrefix);
+                if (response.statusCode() == 401) {
+                    cachedLogin = null;
+                }
                 return GitHubPullRequestResult.error();
             }
 
@@ -81,7 +108,8 @@ public class GitHubService {
             logger.info("GitHub: found {} pull requests from search", allPRs.size());
             
             // Filter to only PRs that need review from user
-            final GitHubPullRequestResult result = filterPRsNeedingReview(githubToken, username, allPRs, maxResults);
+            final GitHubPullRequestResult result =
+                    filterPRsNeedingReview(githubToken, username, allPRs, maxResults, usedUrls);
             logger.info("GitHub: filtered to {} pull requests needing review (total: {})", 
                     result.pullRequests().size(), result.totalCount());
             
@@ -93,27 +121,39 @@ public class GitHubService {
         } catch (final Exception e) {
             logger.warn("Failed to fetch GitHub pull requests", e);
             return GitHubPullRequestResult.error();
+        } finally {
+            responseCache.keySet().retainAll(usedUrls);
         }
     }
 
-    private String fetchAuthenticatedUsername(final String githubToken) throws Exception {
-        final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(USER_URL))
-                .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github+json")
-                .header("X-GitHub-Api-Version", "2022-11-28")
-                .timeout(TIMEOUT)
-                .GET()
-                .build();
+    /**
+     * Drops the cached responses when the token changes, since they belong to the account the
+     * token was issued for. The cached login carries its own token.
+     */
+    private synchronized void forgetCachesOfOtherToken(final String githubToken) {
+        if (!githubToken.equals(cachedToken)) {
+            cachedToken = githubToken;
+            responseCache.clear();
+        }
+    }
 
-        final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    private String resolveUsername(final String githubToken, final Set<String> usedUrls) throws Exception {
+        final CachedLogin cached = cachedLogin;
+        if (cached != null && cached.token().equals(githubToken)) {
+            return cached.username();
+        }
+        final String username = fetchAuthenticatedUsername(githubToken, usedUrls);
+        if (username != null) {
+            cachedLogin = new CachedLogin(githubToken, username);
+        }
+        return username;
+    }
 
-        if (!HttpResponseHandler.isSuccess(response)) {
-            HttpResponseHandler.describeError("GitHub", response);
+    private String fetchAuthenticatedUsername(final String githubToken, final Set<String> usedUrls) throws Exception {
+        final JsonNode root = getJson(githubToken, apiBaseUrl + USER_PATH, usedUrls).body();
+        if (root == null) {
             return null;
         }
-
-        final JsonNode root = OBJECT_MAPPER.readTree(response.body());
         final JsonNode login = root.get("login");
         if (login == null || !login.isTextual() || login.asText().isBlank()) {
             return null;
@@ -126,31 +166,39 @@ public class GitHubService {
      * - User is directly requested as reviewer (not via team), OR
      * - User has reviewed but last review is not APPROVED (COMMENTED, CHANGES_REQUESTED, DISMISSED)
      * Returns result with limited number of PRs and total count of all matching PRs.
+     * The PRs are checked concurrently; the result keeps the search order.
      */
     private GitHubPullRequestResult filterPRsNeedingReview(
             final String githubToken,
             final String username,
             final List<GitHubPullRequest> allPRs,
-            final int maxResults) {
+            final int maxResults,
+            final Set<String> usedUrls) throws InterruptedException {
         
         final List<GitHubPullRequest> allMatching = new ArrayList<>();
         final List<GitHubPullRequest> limited = new ArrayList<>();
-        
-        for (final GitHubPullRequest pr : allPRs) {
-            try {
-                if (needsReviewFromUser(githubToken, username, pr)) {
+        final List<Future<Boolean>> checks = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final GitHubPullRequest pr : allPRs) {
+                checks.add(executor.submit(() -> needsReviewFromUser(githubToken, username, pr, usedUrls)));
+            }
+            for (int i = 0; i < allPRs.size(); i++) {
+                final GitHubPullRequest pr = allPRs.get(i);
+                boolean needsReview;
+                try {
+                    needsReview = checks.get(i).get();
+                } catch (ExecutionException e) {
+                    logger.warn("Failed to check review status for PR: {}", pr.url(), e.getCause());
+                    // Include PR in case of error to be safe
+                    needsReview = true;
+                }
+                if (needsReview) {
                     allMatching.add(pr);
                     if (limited.size() < maxResults) {
                         limited.add(pr);
                     }
                 }
-            } catch (Exception e) {
-                logger.warn("Failed to check review status for PR: {}", pr.url(), e);
-                // Include PR in case of error to be safe
-                allMatching.add(pr);
-                if (limited.size() < maxResults) {
-                    limited.add(pr);
-                }
             }
         }
         
@@ -169,7 +217,8 @@ public class GitHubService {
     private boolean needsReviewFromUser(
             final String githubToken,
             final String username,
-            final GitHubPullRequest pr) throws Exception {
+            final GitHubPullRequest pr,
+            final Set<String> usedUrls) throws Exception {
         
         // Extract repo and PR number from repository and URL
         final String repo = pr.repository();
@@ -180,26 +229,12 @@ public class GitHubService {
             return true; // Include by default if we can't check
         }
         
-        final String detailsUrl = String.format(PR_DETAILS_URL_TEMPLATE, repo, prNumber);
-        
-        final HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(detailsUrl))
-                .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github+json")
-                .header("X-GitHub-Api-Version", "2022-11-28")
-                .timeout(TIMEOUT)
-                .GET()
-                .build();
-        
-        final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        
-        if (!HttpResponseHandler.isSuccess(response)) {
-            HttpResponseHandler.describeError("GitHub", response);
+        final String detailsUrl = apiBaseUrl + String.format(PR_DETAILS_PATH_TEMPLATE, repo, prNumber);
+        final JsonNode prDetails = getJson(githubToken, detailsUrl, usedUrls).body();
+        if (prDetails == null) {
             return true; // Include by default if we can't check
         }
         
-        final JsonNode prDetails = OBJECT_MAPPER.readTree(response.body());
-        
         // Check 1: Is user directly requested as reviewer?
         final JsonNode requestedReviewers = prDetails.get("requested_reviewers");
         if (requestedReviewers != null && requestedReviewers.isArray()) {
@@ -213,23 +248,11 @@ public class GitHubService {
         }
         
         // Check 2: Has user reviewed but last review is not APPROVED?
-        final String reviewsUrl = String.format(PR_REVIEWS_URL_TEMPLATE, repo, prNumber);
-        final HttpRequest reviewsRequest = HttpRequest.newBuilder()
-                .uri(URI.create(reviewsUrl))
-                .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github+json")
-                .header("X-GitHub-Api-Version", "2022-11-28")
-                .timeout(TIMEOUT)
-                .GET()
-                .build();
-        
-        final HttpResponse<String> reviewsResponse = httpClient.send(reviewsRequest, HttpResponse.BodyHandlers.ofString());
-        if (!HttpResponseHandler.isSuccess(reviewsResponse)) {
-            HttpResponseHandler.describeError("GitHub", reviewsResponse);
+        final String reviewsUrl = apiBaseUrl + String.format(PR_REVIEWS_PATH_TEMPLATE, repo, prNumber);
+        final JsonNode reviews = getJson(githubToken, reviewsUrl, usedUrls).body();
+        if (reviews == null) {
             return false; // If we can't check reviews, assume not needed
         }
-        
-        final JsonNode reviews = OBJECT_MAPPER.readTree(reviewsResponse.body());
         if (!reviews.isArray() || reviews.size() == 0) {
             return false; // No reviews from anyone
         }
@@ -258,6 +281,51 @@ public class GitHubService {
         return false;
     }
 
+    /**
+     * GETs a JSON resource, revalidating a cached copy with {@code If-None-Match}. The body is
+     * {@code null} when the request failed; the error is logged here.
+     *
+     * @param usedUrls the URLs requested by the current refresh, whose responses stay cached
+     */
+    private JsonResponse getJson(final String githubToken, final String url, final Set<String> usedUrls)
+            throws Exception {
+        usedUrls.add(url);
+        final CachedResponse cached = responseCache.get(url);
+        final HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Authorization", "Bearer " + githubToken)
+                .header("Accept", "application/vnd.github+json")
+                .header("X-GitHub-Api-Version", "2022-11-28")
+                .timeout(TIMEOUT)
+                .GET();
+        if (cached != null) {
+            builder.header("If-None-Match", cached.etag());
+        }
+
+        final HttpResponse<String> response;
+        requestPermits.acquire();
+        try {
+            response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } finally {
+            requestPermits.release();
+        }
+
+        if (response.statusCode() == 304 && cached != null) {
+            return new JsonResponse(response.statusCode(), cached.body());
+        }
+        if (!HttpResponseHandler.isSuccess(response)) {
+            HttpResponseHandler.describeError("GitHub", response);
+            responseCache.remove(url);
+            return new JsonResponse(response.statusCode(), null);
+        }
+        final JsonNode body = OBJECT_MAPPER.readTree(response.body());
+        response.headers().firstValue("ETag").ifPresentOrElse(
+                etag -> responseCache.put(url, new CachedResponse(etag, body)),
+                () -> responseCache.remove(url)
+        );
+        return new JsonResponse(response.statusCode(), body);
+    }
+
     /**
      * Extracts PR number from GitHub PR URL.
      * Example: "https://github.com/owner/repo/pull/123" -> "123"
@@ -273,8 +341,7 @@ public class GitHubService {
         return null;
     }
 
-    private List<GitHubPullRequest> parseResponse(final String json) throws Exception {
-        final JsonNode root = OBJECT_MAPPER.readTree(json);
+    private List<GitHubPullRequest> parseResponse(final JsonNode root) {
         final JsonNode totalCount = root.get("total_count");
         logger.info("GitHub: total_count = {}", totalCount);
         final JsonNode items = root.get("items");
@@ -322,4 +389,13 @@ public class GitHubService {
         }
         return repositoryUrl;
     }
+
+    private record JsonResponse(int statusCode, JsonNode body) {
+    }
+
+    private record CachedResponse(String etag, JsonNode body) {
+    }
+
+    private record CachedLogin(String token, String username) {
+    }
 }
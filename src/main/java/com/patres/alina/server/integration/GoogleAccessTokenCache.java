@@ -0,0 +1,78 @@
+package com.patres.alina.server.integration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Keeps a Google OAuth access token until shortly before it expires.
+ * <p>
+ * The token is replaced once it is within {@link #REFRESH_MARGIN} of its expiry, so a request never
+ * goes out with a token that runs out in flight. If that early refresh fails, the token is used
+ * until it actually expires. Concurrent callers wait for a single refresh.
+ */
+final class GoogleAccessTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoogleAccessTokenCache.class);
+
+    static final Duration REFRESH_MARGIN = Duration.ofMinutes(5);
+
+    /**
+     * Obtains a new token; returns {@code null} when the user is not authenticated.
+     */
+    @FunctionalInterface
+    interface TokenSource {
+        AccessToken fetch() throws Exception;
+    }
+
+    record AccessToken(String value, Instant expiresAt) {
+    }
+
+    private final TokenSource tokenSource;
+    private final Clock clock;
+    private AccessToken cached;
+
+    GoogleAccessTokenCache(final TokenSource tokenSource, final Clock clock) {
+        this.tokenSource = tokenSource;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the access token, or {@code null} when none can be obtained
+     */
+    synchronized String get() throws Exception {
+        final Instant now = clock.instant();
+        if (cached != null && now.isBefore(cached.expiresAt().minus(REFRESH_MARGIN))) {
+            return cached.value();
+        }
+        final AccessToken fresh;
+        try {
+            fresh = tokenSource.fetch();
+        } catch (final Exception e) {
+            if (isValidAt(now)) {
+                logger.warn("GoogleCalendar: cannot refresh access token early, using the current one", e);
+                return cached.value();
+            }
+            throw e;
+        }
+        if (fresh == null || fresh.value() == null || fresh.value().isBlank()) {
+            return isValidAt(now) ? cached.value() : null;
+        }
+        cached = fresh;
+        return fresh.value();
+    }
+
+    /**
+     * Drops the token, e.g. after the API rejected it.
+     */
+    synchronized void invalidate() {
+        cached = null;
+    }
+
+    private boolean isValidAt(final Instant now) {
+        return cached != null && now.isBefore(cached.expiresAt());
+    }
+}
@@ -0,0 +1,228 @@
+package com.patres.alina.server.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.patres.alina.server.integration.http.HttpResponseHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Google Calendar REST client running inside the JVM.
+ * <p>
+ * Access tokens are minted from the Application Default Credentials file: for user credentials the
+ * refresh token is exchanged directly at the OAuth endpoint, other credential types fall back to
+ * {@code gcloud}. Tokens are cached until shortly before they expire, so a refresh normally costs
+ * one HTTPS request and no process launch.
+ */
+final class GoogleCalendarApi {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoogleCalendarApi.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String TOKEN_URL = "https://oauth2.googleapis.com/token";
+    private static final String CALENDAR_EVENTS_URL = "https://www.googleapis.com/calendar/v3/calendars/primary/events";
+    private static final String EVENT_FIELDS = "items(summary,description,start,end,location,hangoutLink,conferenceData,"
+            + "attendees(displayName,email,resource),attachments(fileUrl,title,mimeType))";
+    private static final String EMPTY_RESPONSE_MESSAGE = "Empty response from Google Calendar API";
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(15);
+    /** {@code gcloud} does not print the token lifetime; Google issues these tokens for an hour. */
+    private static final Duration GCLOUD_TOKEN_LIFETIME = Duration.ofHours(1);
+    private static final String GOOGLE_APPLICATION_CREDENTIALS_ENV = "GOOGLE_APPLICATION_CREDENTIALS";
+    private static final String ADC_TYPE_NODE = "type";
+    private static final String ADC_AUTHORIZED_USER_TYPE = "authorized_user";
+    private static final String ADC_CLIENT_ID_NODE = "client_id";
+    private static final String ADC_CLIENT_SECRET_NODE = "client_secret";
+    private static final String ADC_REFRESH_TOKEN_NODE = "refresh_token";
+    private static final String ADC_QUOTA_PROJECT_NODE = "quota_project_id";
+    private static final String ACCESS_TOKEN_NODE = "access_token";
+    private static final String EXPIRES_IN_NODE = "expires_in";
+
+    private final HttpClient httpClient;
+    private final String tokenUrl;
+    private final String eventsUrl;
+    private final Supplier<Optional<Path>> credentialsLocator;
+    private final Clock clock;
+    private final GoogleAccessTokenCache tokenCache;
+
+    GoogleCalendarApi() {
+        this(
+                HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build(),
+                TOKEN_URL,
+                CALENDAR_EVENTS_URL,
+                GoogleCalendarApi::adcCredentialsPath,
+                Clock.systemUTC()
+        );
+    }
+
+    GoogleCalendarApi(final HttpClient httpClient,
+                      final String tokenUrl,
+                      final String eventsUrl,
+                      final Supplier<Optional<Path>> credentialsLocator,
+                      final Clock clock) {
+        this.httpClient = httpClient;
+        this.tokenUrl = tokenUrl;
+        this.eventsUrl = eventsUrl;
+        this.credentialsLocator = credentialsLocator;
+        this.clock = clock;
+        this.tokenCache = new GoogleAccessTokenCache(this::fetchAccessToken, clock);
+    }
+
+    GoogleCalendarResult fetchTodayEvents() throws Exception {
+        final Optional<JsonNode> credentials = readCredentials();
+        String accessToken = tokenCache.get();
+        if (accessToken == null) {
+            return GoogleCalendarResult.authError(GoogleCalendarCli.accessTokenMissingMessage());
+        }
+        HttpResponse<String> response = requestTodayEvents(accessToken, credentials);
+        if (response.statusCode() == 401) {
+            // The token was revoked or replaced by a new login; mint a new one once before giving up
+            tokenCache.invalidate();
+            accessToken = tokenCache.get();
+            if (accessToken == null) {
+                return GoogleCalendarResult.authError(GoogleCalendarCli.accessTokenMissingMessage());
+            }
+            response = requestTodayEvents(accessToken, credentials);
+        }
+        final String json = response.body();
+        if (json == null || json.isBlank()) {
+            return GoogleCalendarResult.error(EMPTY_RESPONSE_MESSAGE);
+        }
+        return GoogleCalendarResponseParser.parse(json);
+    }
+
+    /**
+     * Forgets the cached token, e.g. when the user signs in again.
+     */
+    void invalidateAccessToken() {
+        tokenCache.invalidate();
+    }
+
+    private HttpResponse<String> requestTodayEvents(final String accessToken, final Optional<JsonNode> credentials)
+            throws Exception {
+        final String today = LocalDate.now(clock.withZone(ZoneId.systemDefault())).toString();
+        final String offset = OffsetDateTime.now(clock.withZone(ZoneId.systemDefault())).getOffset().toString();
+        final Map<String, String> query = new LinkedHashMap<>();
+        query.put("timeMin", today + "T00:00:00" + offset);
+        query.put("timeMax", today + "T23:59:59" + offset);
+        query.put("singleEvents", "true");
+        query.put("orderBy", "startTime");
+        query.put("fields", EVENT_FIELDS);
+
+        final HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(eventsUrl + "?" + formEncode(query)))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + accessToken)
+                .header("Accept", "application/json")
+                .GET();
+        credentials.map(node -> node.path(ADC_QUOTA_PROJECT_NODE).asText(""))
+                .filter(projectId -> !projectId.isBlank())
+                .ifPresent(projectId -> request.header("x-goog-user-project", projectId));
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private GoogleAccessTokenCache.AccessToken fetchAccessToken() throws Exception {
+        final Optional<JsonNode> credentials = readCredentials();
+        if (credentials.isPresent() && isAuthorizedUser(credentials.get())) {
+            try {
+                return exchangeRefreshToken(credentials.get());
+            } catch (final Exception e) {
+                logger.warn("GoogleCalendar: cannot refresh access token in-process, falling back to gcloud", e);
+            }
+        }
+        final String token = GoogleCalendarCli.getAccessToken();
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        return new GoogleAccessTokenCache.AccessToken(token, clock.instant().plus(GCLOUD_TOKEN_LIFETIME));
+    }
+
+    private GoogleAccessTokenCache.AccessToken exchangeRefreshToken(final JsonNode credentials) throws Exception {
+        final Map<String, String> form = new LinkedHashMap<>();
+        form.put("grant_type", "refresh_token");
+        form.put("client_id", credentials.path(ADC_CLIENT_ID_NODE).asText());
+        form.put("client_secret", credentials.path(ADC_CLIENT_SECRET_NODE).asText());
+        form.put("refresh_token", credentials.path(ADC_REFRESH_TOKEN_NODE).asText());
+
+        final HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(tokenUrl))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formEncode(form)))
+                .build();
+        final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (!HttpResponseHandler.isSuccess(response)) {
+            // A rejected refresh token needs a new login; gcloud would fail the same way
+            HttpResponseHandler.describeError("Google OAuth", response);
+            return null;
+        }
+        final JsonNode body = OBJECT_MAPPER.readTree(response.body());
+        final String accessToken = body.path(ACCESS_TOKEN_NODE).asText("");
+        final long expiresIn = body.path(EXPIRES_IN_NODE).asLong(0);
+        if (accessToken.isBlank() || expiresIn <= 0) {
+            throw new IllegalStateException("Google OAuth response has no access token");
+        }
+        return new GoogleAccessTokenCache.AccessToken(accessToken, clock.instant().plusSeconds(expiresIn));
+    }
+
+    private static boolean isAuthorizedUser(final JsonNode credentials) {
+        return ADC_AUTHORIZED_USER_TYPE.equals(credentials.path(ADC_TYPE_NODE).asText())
+                && !credentials.path(ADC_CLIENT_ID_NODE).asText("").isBlank()
+                && !credentials.path(ADC_REFRESH_TOKEN_NODE).asText("").isBlank();
+    }
+
+    private Optional<JsonNode> readCredentials() {
+        final Optional<Path> credentialsPath = credentialsLocator.get();
+        if (credentialsPath.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(OBJECT_MAPPER.readTree(credentialsPath.get().toFile()));
+        } catch (final Exception e) {
+            logger.debug("GoogleCalendar: cannot read ADC credentials", e);
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Path> adcCredentialsPath() {
+        final String explicitPath = System.getenv(GOOGLE_APPLICATION_CREDENTIALS_ENV);
+        if (explicitPath != null && !explicitPath.isBlank()) {
+            final Path path = Path.of(explicitPath);
+            if (Files.isRegularFile(path)) {
+                return Optional.of(path);
+            }
+        }
+
+        final String home = System.getProperty("user.home");
+        if (home == null || home.isBlank()) {
+            return Optional.empty();
+        }
+        final Path defaultPath = Path.of(home, ".config", "gcloud", "application_default_credentials.json");
+        return Files.isRegularFile(defaultPath) ? Optional.of(defaultPath) : Optional.empty();
+    }
+
+    private static String formEncode(final Map<String, String> parameters) {
+        return parameters.entrySet().stream()
+                .map(entry -> URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8)
+                        + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+}
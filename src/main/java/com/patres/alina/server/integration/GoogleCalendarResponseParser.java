@@ -112,7 +112,7 @@ final class GoogleCalendarResponseParser {
 
     private static String buildNonJsonErrorMessage(final String output) {
         final String trimmedOutput = output.trim();
-        return "curl returned non-JSON output from Google Calendar API:\n" + trimmedOutput;
+        return "Google Calendar API returned non-JSON output:\n" + trimmedOutput;
     }
 
     private static GoogleCalendarResult mapApiError(final JsonNode root) {
@@ -9,7 +9,7 @@ import org.slf4j.LoggerFactory;
 public final class GoogleCalendarService {
 
     private static final Logger logger = LoggerFactory.getLogger(GoogleCalendarService.class);
-    private static final String EMPTY_RESPONSE_MESSAGE = "Empty response from Google Calendar API";
+    private static final GoogleCalendarApi API = new GoogleCalendarApi();
 
     private GoogleCalendarService() {
         // utility class
@@ -17,17 +17,7 @@ public final class GoogleCalendarService {
 
     public static GoogleCalendarResult fetchTodayEvents() {
         try {
-            final String accessToken = GoogleCalendarCli.getAccessToken();
-            if (accessToken == null || accessToken.isBlank()) {
-                return GoogleCalendarResult.authError(GoogleCalendarCli.accessTokenMissingMessage());
-            }
-
-            final String json = GoogleCalendarCli.fetchTodayEventsJson(accessToken);
-            if (json == null || json.isBlank()) {
-                return GoogleCalendarResult.error(EMPTY_RESPONSE_MESSAGE);
-            }
-
-            return GoogleCalendarResponseParser.parse(json);
+            return API.fetchTodayEvents();
         } catch (final Exception e) {
             logger.warn("Failed to fetch Google Calendar events", e);
             return GoogleCalendarCli.mapExceptionToResult(e);
@@ -35,6 +25,7 @@ public final class GoogleCalendarService {
     }
 
     public static void refreshAuth() {
+        API.invalidateAccessToken();
         GoogleCalendarCli.refreshAuth();
     }
 }
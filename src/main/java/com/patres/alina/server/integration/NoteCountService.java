@@ -5,12 +5,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
+import java.util.OptionalLong;
 
 /**
  * Counts {@code .md} notes in the configured working directory.
  * <p>
- * The count is intentionally lightweight — it only counts files without
- * reading contents, so even large directories complete in milliseconds.
+ * The count is served from the vault index, so only the first call walks the directory;
+ * later calls return a cached count that follows file changes.
  */
 public final class NoteCountService {
 
@@ -20,13 +21,21 @@ public final class NoteCountService {
     }
 
     /**
-     * Returns the total number of {@code .md} notes in the working directory.
+     * Returns the total number of {@code .md} notes in the working directory, or empty when the
+     * directory could not be scanned.
      */
-    public static long countAllNotes(final WorkspaceSettings settings) {
+    public static OptionalLong countAllNotes(final WorkspaceSettings settings) {
         final Path notesDirectory = Path.of(settings.openCodeWorkingDirectory()).toAbsolutePath().normalize();
         return ObsidianCliService.countNotes(
                 notesDirectory,
                 settings.obsidianExcludePatterns()
         );
     }
+
+    /**
+     * Calls {@code listener}, on a background thread, whenever notes change on disk.
+     */
+    public static void addNotesChangedListener(final Runnable listener) {
+        ObsidianCliService.addNotesChangedListener(listener);
+    }
 }
@@ -3,25 +3,19 @@ package com.patres.alina.server.integration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
-import java.util.stream.Stream;
 
 /**
  * Service that fetches recently modified markdown notes from a directory.
  * <p>
- * Strategy:
- * <ol>
- *   <li>Walk the given root directory and find {@code .md} files sorted by last-modified time (newest first).</li>
- *   <li>Return the top N results as root-relative paths.</li>
- * </ol>
+ * Notes are served from an {@link ObsidianVaultIndex}, which walks the directory once and then
+ * follows file changes, so repeated fetches and counts do not touch the disk.
  * Optionally integrates with {@code obsidian-cli} for opening notes in the Obsidian app.
  */
 public final class ObsidianCliService {
@@ -48,7 +42,7 @@ public final class ObsidianCliService {
                 return ObsidianNotesResult.error("Notes directory does not exist: " + notesDirectory);
             }
 
-            final List<ObsidianNote> notes = findRecentlyModifiedNotes(notesDirectory, limit, compiled);
+            final List<ObsidianNote> notes = ObsidianVaultIndex.forVault(notesDirectory).recentNotes(limit, compiled);
             return ObsidianNotesResult.success(notes);
         } catch (final Exception e) {
             logger.warn("Notes: failed to fetch recent notes from {}", notesDirectory, e);
@@ -80,78 +74,26 @@ public final class ObsidianCliService {
      *
      * @param notesDirectory   root directory to scan
      * @param excludePatterns  comma-separated list of glob patterns to exclude
-     * @return the number of markdown files, or 0 if the directory is unreachable
+     * @return the number of markdown files, 0 if the directory does not exist, or empty when the
+     *         directory could not be indexed, e.g. because the scan was cancelled or took too long
      */
-    public static long countNotes(final Path notesDirectory, final String excludePatterns) {
-        final List<Pattern> compiled = compileExcludePatterns(excludePatterns);
+    public static OptionalLong countNotes(final Path notesDirectory, final String excludePatterns) {
         try {
             if (notesDirectory == null || !Files.isDirectory(notesDirectory)) {
-                return 0;
+                return OptionalLong.of(0);
             }
-            return countMarkdownFiles(notesDirectory, compiled);
+            return OptionalLong.of(ObsidianVaultIndex.forVault(notesDirectory).countNotes(excludePatterns));
         } catch (final Exception e) {
             logger.warn("Notes: failed to count notes in {}", notesDirectory, e);
-            return 0;
-        }
-    }
-
-    private static long countMarkdownFiles(final Path vaultPath, final List<Pattern> excludePatterns) throws IOException {
-        try (final Stream<Path> stream = Files.walk(vaultPath)) {
-            return stream
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.toString().endsWith(".md"))
-//                    .filter(p -> !isHiddenPath(vaultPath, p))
-                    .filter(p -> !isExcluded(vaultPath, p, excludePatterns))
-                    .count();
-        }
-    }
-
-    // ── Filesystem scan ──────────────────────────────────────────
-
-    private static List<ObsidianNote> findRecentlyModifiedNotes(final Path vaultPath, final int limit,
-                                                                   final List<Pattern> excludePatterns) throws IOException {
-        try (final Stream<Path> stream = Files.walk(vaultPath)) {
-            return stream
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.toString().endsWith(".md"))
-                    .filter(p -> !isHiddenPath(vaultPath, p))
-                    .filter(p -> !isExcluded(vaultPath, p, excludePatterns))
-                    .sorted(Comparator.comparing(ObsidianCliService::getLastModified).reversed())
-                    .limit(limit)
-                    .map(p -> toObsidianNote(vaultPath, p))
-                    .toList();
+            return OptionalLong.empty();
         }
     }
 
     /**
-     * Checks if the file is inside a hidden directory (starting with "."),
-     * e.g. ".obsidian", ".trash", ".git".
+     * Registers a listener called, on a background thread, whenever indexed notes change on disk.
      */
-    private static boolean isHiddenPath(final Path vaultRoot, final Path file) {
-        final Path relative = vaultRoot.relativize(file);
-        for (final Path segment : relative) {
-            if (segment.toString().startsWith(".")) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Checks if the vault-relative path matches any of the exclude patterns.
-     * Patterns are matched against the vault-relative path using forward slashes.
-     */
-    private static boolean isExcluded(final Path vaultRoot, final Path file, final List<Pattern> excludePatterns) {
-        if (excludePatterns.isEmpty()) {
-            return false;
-        }
-        final String relativePath = vaultRoot.relativize(file).toString().replace('\\', '/');
-        for (final Pattern pattern : excludePatterns) {
-            if (pattern.matcher(relativePath).matches()) {
-                return true;
-            }
-        }
-        return false;
+    public static void addNotesChangedListener(final Runnable listener) {
+        ObsidianVaultIndex.addChangeListener(listener);
     }
 
     /**
@@ -227,22 +169,6 @@ public final class ObsidianCliService {
         return regex.toString();
     }
 
-    private static Instant getLastModified(final Path path) {
-        try {
-            return Files.getLastModifiedTime(path).toInstant();
-        } catch (final IOException e) {
-            return Instant.EPOCH;
-        }
-    }
-
-    private static ObsidianNote toObsidianNote(final Path vaultRoot, final Path absolutePath) {
-        final String relativePath = vaultRoot.relativize(absolutePath).toString();
-        final String name = extractNoteName(relativePath);
-        final String folder = extractFolder(relativePath);
-        final Instant lastModified = getLastModified(absolutePath);
-        return new ObsidianNote(relativePath, name, folder, lastModified);
-    }
-
     // ── Command building ─────────────────────────────────────────
 
     private static List<String> buildOpenCommand(final String executable, final String notePath) {
@@ -0,0 +1,349 @@
+package com.patres.alina.server.integration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * In-memory index of the {@code .md} notes of a vault and their modification times.
+ * <p>
+ * The vault is walked once; hidden directories such as {@code .obsidian}, {@code .git} and
+ * {@code .trash} are skipped without descending into them. A {@link WatchService} then keeps the
+ * index up to date file by file. Notes are kept ordered by modification time, so the most recent
+ * notes are read in O(limit), and note counts are cached until the vault changes.
+ * <p>
+ * A walk gives up after {@link #MAX_WALK_TIME} or when its thread is interrupted, so pointing the
+ * app at a huge directory cannot keep a thread busy indefinitely.
+ */
+final class ObsidianVaultIndex implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObsidianVaultIndex.class);
+    private static final String NOTE_EXTENSION = ".md";
+    private static final Comparator<Note> NEWEST_FIRST = Comparator.comparing(Note::lastModified).reversed()
+            .thenComparing(note -> note.relativePath().toString());
+
+    static final Duration MAX_WALK_TIME = Duration.ofSeconds(30);
+
+    private static final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    private static ObsidianVaultIndex current;
+
+    private final Path root;
+    private final Map<Path, Note> notesByPath = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Note> notesByRecency = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+    private final WatchService watchService;
+    private volatile long version;
+    private volatile NoteCount cachedCount;
+    private volatile boolean closed;
+
+    private ObsidianVaultIndex(final Path root) throws IOException {
+        this.root = root;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            index(root);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        final Thread thread = new Thread(this::processEvents, "obsidian-vault-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the index of {@code root}, building it on first use. Only one vault is indexed at a
+     * time; asking for another one closes the previous index.
+     */
+    static synchronized ObsidianVaultIndex forVault(final Path root) throws IOException {
+        final Path normalized = root.toAbsolutePath().normalize();
+        if (current != null && !current.closed && current.root.equals(normalized)) {
+            return current;
+        }
+        if (current != null) {
+            current.close();
+        }
+        current = new ObsidianVaultIndex(normalized);
+        return current;
+    }
+
+    /**
+     * Registers a listener called on the watcher thread after notes were added, changed or removed.
+     */
+    static void addChangeListener(final Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * @return up to {@code limit} notes, newest first, skipping notes matched by {@code excludePatterns}
+     */
+    List<ObsidianNote> recentNotes(final int limit, final List<Pattern> excludePatterns) {
+        final List<ObsidianNote> notes = new ArrayList<>(Math.max(0, limit));
+        for (final Note note : notesByRecency) {
+            if (notes.size() >= limit) {
+                break;
+            }
+            if (!isExcluded(note.relativePath(), excludePatterns)) {
+                notes.add(toObsidianNote(note));
+            }
+        }
+        return notes;
+    }
+
+    /**
+     * @param excludePatterns the raw comma-separated patterns, used as the cache key
+     */
+    long countNotes(final String excludePatterns) {
+        final String key = excludePatterns == null ? "" : excludePatterns;
+        final long countedVersion = version;
+        final NoteCount cached = cachedCount;
+        if (cached != null && cached.version() == countedVersion && cached.excludePatterns().equals(key)) {
+            return cached.count();
+        }
+        final List<Pattern> compiled = ObsidianCliService.compileExcludePatterns(key);
+        final long count = compiled.isEmpty()
+                ? notesByPath.size()
+                : notesByPath.keySet().stream().filter(path -> !isExcluded(path, compiled)).count();
+        cachedCount = new NoteCount(countedVersion, key, count);
+        return count;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.debug("Cannot close vault watch service", e);
+        }
+    }
+
+    // ── Indexing ─────────────────────────────────────────────────
+
+    private void index(final Path start) throws IOException {
+        final long deadline = System.nanoTime() + MAX_WALK_TIME.toNanos();
+        final Thread walker = Thread.currentThread();
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path directory, final BasicFileAttributes attributes) {
+                if (shouldStop()) {
+                    return FileVisitResult.TERMINATE;
+                }
+                if (!directory.equals(root) && isHidden(directory)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                watch(directory);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                if (shouldStop()) {
+                    return FileVisitResult.TERMINATE;
+                }
+                if (attributes.isRegularFile() && isNoteFile(file)) {
+                    put(file, attributes.lastModifiedTime().toInstant());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(final Path file, final IOException e) {
+                logger.debug("Notes: cannot read {}", file, e);
+                return FileVisitResult.CONTINUE;
+            }
+
+            private boolean shouldStop() {
+                return walker.isInterrupted() || System.nanoTime() > deadline;
+            }
+        });
+        if (walker.isInterrupted()) {
+            throw new InterruptedIOException("Indexing " + start + " was cancelled");
+        }
+        if (System.nanoTime() > deadline) {
+            throw new IOException("Indexing " + start + " took longer than " + MAX_WALK_TIME.toSeconds() + " s");
+        }
+    }
+
+    private void watch(final Path directory) {
+        try {
+            directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Notes: cannot watch {} - changes inside it show up after a restart", directory, e);
+        }
+    }
+
+    private synchronized void put(final Path file, final Instant lastModified) {
+        final Note note = new Note(root.relativize(file), lastModified);
+        final Note previous = notesByPath.put(note.relativePath(), note);
+        if (previous != null) {
+            notesByRecency.remove(previous);
+        }
+        notesByRecency.add(note);
+        version++;
+    }
+
+    private synchronized void removeNote(final Path relativePath) {
+        final Note note = notesByPath.remove(relativePath);
+        if (note != null) {
+            notesByRecency.remove(note);
+            version++;
+        }
+    }
+
+    private synchronized void removeDirectory(final Path relativePath) {
+        final List<Path> removed = notesByPath.keySet().stream()
+                .filter(path -> path.startsWith(relativePath))
+                .toList();
+        for (final Path path : removed) {
+            notesByRecency.remove(notesByPath.remove(path));
+        }
+        if (!removed.isEmpty()) {
+            version++;
+        }
+    }
+
+    private synchronized void reindex() throws IOException {
+        notesByPath.clear();
+        notesByRecency.clear();
+        version++;
+        index(root);
+    }
+
+    // ── Watching ─────────────────────────────────────────────────
+
+    private void processEvents() {
+        try {
+            while (!closed) {
+                final WatchKey key = watchService.take();
+                final Path directory = (Path) key.watchable();
+                final long versionBefore = version;
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        reindex();
+                    } else if (event.context() instanceof Path fileName) {
+                        handle(event.kind(), directory.resolve(fileName));
+                    }
+                }
+                if (!key.reset()) {
+                    if (directory.equals(root)) {
+                        close();
+                    } else {
+                        removeDirectory(root.relativize(directory));
+                    }
+                }
+                if (version != versionBefore) {
+                    notifyChanged();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("Vault watch service closed");
+        } catch (IOException e) {
+            logger.warn("Notes: cannot re-index {} - the index is rebuilt on next use", root, e);
+            close();
+        }
+    }
+
+    private static void notifyChanged() {
+        for (final Runnable listener : changeListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.warn("Notes: change listener failed", e);
+            }
+        }
+    }
+
+    private void handle(final WatchEvent.Kind<?> kind, final Path path) throws IOException {
+        if (kind == ENTRY_DELETE) {
+            if (isNoteFile(path)) {
+                removeNote(root.relativize(path));
+            } else {
+                removeDirectory(root.relativize(path));
+            }
+        } else if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            if (kind == ENTRY_CREATE) {
+                index(path);
+            }
+        } else if (isNoteFile(path)) {
+            try {
+                put(path, Files.getLastModifiedTime(path).toInstant());
+            } catch (NoSuchFileException e) {
+                removeNote(root.relativize(path));
+            }
+        }
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────
+
+    private static boolean isHidden(final Path path) {
+        return path.getFileName().toString().startsWith(".");
+    }
+
+    private static boolean isNoteFile(final Path file) {
+        final String fileName = file.getFileName().toString();
+        return fileName.endsWith(NOTE_EXTENSION) && !fileName.startsWith(".");
+    }
+
+    /**
+     * Checks if the vault-relative path matches any of the exclude patterns.
+     * Patterns are matched against the vault-relative path using forward slashes.
+     */
+    private static boolean isExcluded(final Path relativePath, final List<Pattern> excludePatterns) {
+        if (excludePatterns.isEmpty()) {
+            return false;
+        }
+        final String path = relativePath.toString().replace('\\', '/');
+        for (final Pattern pattern : excludePatterns) {
+            if (pattern.matcher(path).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ObsidianNote toObsidianNote(final Note note) {
+        final String relativePath = note.relativePath().toString();
+        return new ObsidianNote(
+                relativePath,
+                ObsidianCliService.extractNoteName(relativePath),
+                ObsidianCliService.extractFolder(relativePath),
+                note.lastModified()
+        );
+    }
+
+    private record Note(Path relativePath, Instant lastModified) {
+    }
+
+    private record NoteCount(long version, String excludePatterns, long count) {
+    }
+}
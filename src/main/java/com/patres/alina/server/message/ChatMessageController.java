@@ -1,5 +1,6 @@
 package com.patres.alina.server.message;
 
+import com.patres.alina.common.message.ChatMessagePage;
 import com.patres.alina.common.message.ChatMessageResponseModel;
 import com.patres.alina.common.message.ChatMessageSendModel;
 import org.springframework.stereotype.Component;
@@ -19,6 +20,10 @@ public class ChatMessageController {
         return chatMessageService.getMessagesByThreadId(chatThreadId);
     }
 
+    public ChatMessagePage getMessagesByThreadId(final String chatThreadId, final String beforeCursor, final int limit) {
+        return chatMessageService.getMessagesByThreadId(chatThreadId, beforeCursor, limit);
+    }
+
     public void sendChatMessagesStream(final ChatMessageSendModel chatMessageSendModel) {
         chatMessageService.sendMessageStream(chatMessageSendModel);
     }
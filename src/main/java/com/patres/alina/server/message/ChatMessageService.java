@@ -2,6 +2,7 @@ package com.patres.alina.server.message;
 
 import com.patres.alina.common.event.ChatMessageStreamEvent;
 import com.patres.alina.common.event.bus.DefaultEventBus;
+import com.patres.alina.common.message.ChatMessagePage;
 import com.patres.alina.common.message.ChatMessageResponseModel;
 import com.patres.alina.common.message.ChatMessageRole;
 import com.patres.alina.common.message.ChatMessageSendModel;
@@ -235,7 +236,8 @@ public class ChatMessageService {
     }
 
     private String findLastUserMessage(final String chatThreadId) {
-        final List<ChatMessageResponseModel> messages = getMessagesByThreadId(chatThreadId);
+        // Read through the cache: a message added since it was filled must not be skipped
+        final List<ChatMessageResponseModel> messages = agentRuntimeSelector.active().getLatestMessagesByThreadId(chatThreadId);
         for (int i = messages.size() - 1; i >= 0; i--) {
             final ChatMessageResponseModel msg = messages.get(i);
             if (msg.sender() == ChatMessageRole.USER) {
@@ -249,6 +251,10 @@ public class ChatMessageService {
         return agentRuntimeSelector.active().getMessagesByThreadId(chatThreadId);
     }
 
+    public ChatMessagePage getMessagesByThreadId(final String chatThreadId, final String beforeCursor, final int limit) {
+        return ChatMessagePage.of(getMessagesByThreadId(chatThreadId), beforeCursor, limit);
+    }
+
     private String calculateContentWithCommandPrompt(final String content, final Command command) {
         final String commandContent = command == null || command.systemPrompt() == null
                 ? ""
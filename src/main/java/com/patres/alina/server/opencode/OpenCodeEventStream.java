@@ -0,0 +1,347 @@
+package com.patres.alina.server.opencode;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single shared subscription to the OpenCode {@code /event} SSE endpoint.
+ * <p>
+ * OpenCode publishes the events of all sessions on one global stream, so one connection is enough
+ * for any number of concurrent chats. Every event is parsed once and handed to the {@link Listener},
+ * which routes it to the owning stream. {@code message.part.delta} events, which make up most of the
+ * traffic while a response streams, are read field by field into a {@link PartDelta} without building
+ * a {@link JsonNode} tree. The connection is re-opened with exponential backoff when
+ * it drops (e.g. when the server is restarted) and is given up once nobody is listening anymore;
+ * the next {@link #ensureConnected()} starts it again.
+ */
+final class OpenCodeEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenCodeEventStream.class);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration INITIAL_RECONNECT_DELAY = Duration.ofMillis(250);
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(5);
+    private static final byte[] DATA_PREFIX = "data:".getBytes(StandardCharsets.US_ASCII);
+    private static final String PART_DELTA_TYPE = "message.part.delta";
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    /** Buffers grown beyond this by a single huge event are released again afterwards. */
+    private static final int RETAINED_BUFFER_SIZE = 256 * 1024;
+
+    private final EventSource eventSource;
+    private final ObjectMapper objectMapper;
+    private final Listener listener;
+
+    private Thread reader;
+    private CompletableFuture<Void> connected = new CompletableFuture<>();
+    private volatile InputStream connection;
+    private volatile boolean closed;
+
+    // Owned by the reader thread; reused for every line and event.
+    private final byte[] chunk = new byte[INITIAL_BUFFER_SIZE];
+    private byte[] line = new byte[INITIAL_BUFFER_SIZE];
+    private int lineLength;
+    private byte[] payload = new byte[INITIAL_BUFFER_SIZE];
+    private int payloadLength;
+
+    OpenCodeEventStream(final EventSource eventSource,
+                        final ObjectMapper objectMapper,
+                        final Listener listener) {
+        this.eventSource = eventSource;
+        this.objectMapper = objectMapper;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts the subscription if it is not running and waits until the connection is open,
+     * so that no event of a prompt sent afterwards can be missed.
+     */
+    void ensureConnected() throws Exception {
+        final CompletableFuture<Void> ready;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("OpenCode event stream is closed.");
+            }
+            if (reader == null) {
+                connected = new CompletableFuture<>();
+                reader = Thread.ofVirtual().name("opencode-events").start(this::readUntilIdle);
+            }
+            ready = connected;
+        }
+        try {
+            ready.get(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Cannot subscribe to OpenCode events: no connection after " + CONNECT_TIMEOUT.toSeconds() + "s", e);
+        }
+    }
+
+    void close() {
+        final Thread currentReader;
+        synchronized (this) {
+            closed = true;
+            currentReader = reader;
+            reader = null;
+            connected.completeExceptionally(new IllegalStateException("OpenCode event stream is closed."));
+        }
+        closeConnection();
+        if (currentReader != null) {
+            currentReader.interrupt();
+        }
+    }
+
+    private void readUntilIdle() {
+        Duration reconnectDelay = INITIAL_RECONNECT_DELAY;
+        boolean reconnecting = false;
+        while (!closed) {
+            try {
+                final InputStream inputStream = eventSource.open();
+                connection = inputStream;
+                synchronized (this) {
+                    connected.complete(null);
+                }
+                reconnectDelay = INITIAL_RECONNECT_DELAY;
+                if (reconnecting) {
+                    logger.info("Reconnected to OpenCode event stream");
+                    listener.onReconnected();
+                }
+                readEvents(inputStream);
+                logger.debug("OpenCode event stream ended");
+            } catch (Exception e) {
+                if (!closed) {
+                    logger.debug("OpenCode event stream failed", e);
+                    synchronized (this) {
+                        if (!connected.isDone()) {
+                            connected.completeExceptionally(e);
+                        }
+                    }
+                }
+            } finally {
+                closeConnection();
+            }
+
+            synchronized (this) {
+                if (closed || !listener.hasSubscribers()) {
+                    if (reader == Thread.currentThread()) {
+                        reader = null;
+                    }
+                    return;
+                }
+                if (connected.isDone()) {
+                    connected = new CompletableFuture<>();
+                }
+            }
+            reconnecting = true;
+            try {
+                Thread.sleep(reconnectDelay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            reconnectDelay = reconnectDelay.multipliedBy(2).compareTo(MAX_RECONNECT_DELAY) > 0
+                    ? MAX_RECONNECT_DELAY
+                    : reconnectDelay.multipliedBy(2);
+        }
+    }
+
+    private void readEvents(final InputStream inputStream) throws IOException {
+        lineLength = 0;
+        payloadLength = 0;
+        try (inputStream) {
+            int read;
+            while (!closed && (read = inputStream.read(chunk)) != -1) {
+                int lineStart = 0;
+                for (int i = 0; i < read; i++) {
+                    if (chunk[i] == '\n') {
+                        appendToLine(lineStart, i - lineStart);
+                        completeLine();
+                        lineStart = i + 1;
+                    }
+                }
+                appendToLine(lineStart, read - lineStart);
+            }
+        }
+    }
+
+    private void appendToLine(final int offset, final int length) {
+        if (length == 0) {
+            return;
+        }
+        line = ensureCapacity(line, lineLength + length);
+        System.arraycopy(chunk, offset, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private void completeLine() {
+        int length = lineLength;
+        lineLength = 0;
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        if (length == 0) {
+            if (payloadLength > 0) {
+                dispatch(payload, payloadLength);
+                payloadLength = 0;
+                if (payload.length > RETAINED_BUFFER_SIZE) {
+                    payload = new byte[INITIAL_BUFFER_SIZE];
+                }
+            }
+            if (line.length > RETAINED_BUFFER_SIZE) {
+                line = new byte[INITIAL_BUFFER_SIZE];
+            }
+            return;
+        }
+        if (!startsWithDataPrefix(length)) {
+            return;
+        }
+        int dataStart = DATA_PREFIX.length;
+        if (dataStart < length && line[dataStart] == ' ') {
+            dataStart++;
+        }
+        final int dataLength = length - dataStart;
+        payload = ensureCapacity(payload, payloadLength + dataLength);
+        System.arraycopy(line, dataStart, payload, payloadLength, dataLength);
+        payloadLength += dataLength;
+    }
+
+    private boolean startsWithDataPrefix(final int length) {
+        return length >= DATA_PREFIX.length
+                && Arrays.equals(line, 0, DATA_PREFIX.length, DATA_PREFIX, 0, DATA_PREFIX.length);
+    }
+
+    private static byte[] ensureCapacity(final byte[] buffer, final int required) {
+        if (required <= buffer.length) {
+            return buffer;
+        }
+        return Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+    }
+
+    private void dispatch(final byte[] json, final int length) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            String type = null;
+            JsonNode properties = MissingNode.getInstance();
+            PartDelta partDelta = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                parser.nextToken();
+                if ("type".equals(field)) {
+                    type = parser.getValueAsString();
+                } else if ("properties".equals(field) && PART_DELTA_TYPE.equals(type) && parser.currentToken() == JsonToken.START_OBJECT) {
+                    partDelta = readPartDelta(parser);
+                } else if ("properties".equals(field)) {
+                    properties = parser.readValueAsTree();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (partDelta != null) {
+                listener.onPartDelta(partDelta);
+                return;
+            }
+            // Rare event types (and deltas whose properties precede the type) keep the tree model.
+            final ObjectNode event = objectMapper.createObjectNode();
+            event.put("type", type);
+            event.set("properties", properties);
+            listener.onEvent(event);
+        } catch (Exception e) {
+            logger.debug("Cannot process OpenCode event {}", new String(json, 0, length, StandardCharsets.UTF_8), e);
+        }
+    }
+
+    private static PartDelta readPartDelta(final JsonParser parser) throws IOException {
+        String sessionId = null;
+        String messageId = null;
+        String partId = null;
+        String field = null;
+        String delta = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.currentName();
+            final JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (name) {
+                case "sessionID" -> sessionId = parser.getValueAsString();
+                case "messageID" -> messageId = parser.getValueAsString();
+                case "partID" -> partId = parser.getValueAsString();
+                case "field" -> field = parser.getValueAsString();
+                case "delta" -> delta = parser.getValueAsString();
+                default -> {
+                }
+            }
+        }
+        return new PartDelta(sessionId, messageId, partId, field, delta);
+    }
+
+    private void closeConnection() {
+        final InputStream inputStream = connection;
+        connection = null;
+        if (inputStream == null) {
+            return;
+        }
+        try {
+            inputStream.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Properties of a {@code message.part.delta} event; any of them may be {@code null}.
+     */
+    record PartDelta(String sessionId, String messageId, String partId, String field, String delta) {
+
+        static PartDelta fromProperties(final JsonNode properties) {
+            return new PartDelta(
+                    properties.path("sessionID").asText(null),
+                    properties.path("messageID").asText(null),
+                    properties.path("partID").asText(null),
+                    properties.path("field").asText(null),
+                    properties.path("delta").asText(null)
+            );
+        }
+    }
+
+    @FunctionalInterface
+    interface EventSource {
+        InputStream open() throws Exception;
+    }
+
+    interface Listener {
+
+        void onEvent(JsonNode event);
+
+        void onPartDelta(PartDelta partDelta);
+
+        /**
+         * Called after the connection was re-established; events published in between are lost.
+         */
+        void onReconnected();
+
+        /**
+         * Whether anybody still waits for events; the subscription stops reconnecting otherwise.
+         */
+        boolean hasSubscribers();
+    }
+}
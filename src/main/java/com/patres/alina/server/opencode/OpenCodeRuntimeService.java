@@ -14,17 +14,13 @@ import com.patres.alina.common.message.TodoItem;
 import com.patres.alina.common.opencode.OpenCodeRuntimeStatus;
 import com.patres.alina.common.settings.AssistantSettings;
 import com.patres.alina.common.settings.WorkspaceSettings;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 
-import java.io.BufferedReader;
-import java.io.Closeable;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -33,7 +29,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 @Service
 public class OpenCodeRuntimeService {
@@ -46,9 +45,13 @@ public class OpenCodeRuntimeService {
     private final OpenCodePermissionBridge permissionBridge;
     private final OpenCodeServerManager serverManager;
     private final OpenCodeModelService modelService;
+    private final OpenCodeSessionService sessionService;
     private final ObjectMapper objectMapper;
+    private final OpenCodeEventStream eventStream;
 
     private final Map<String, ActiveStream> activeStreams = new ConcurrentHashMap<>();
+    /** Active streams by their OpenCode session ID, used to route events of the shared SSE subscription. */
+    private final Map<String, ActiveStream> streamsBySession = new ConcurrentHashMap<>();
     /** Maps subagent session IDs to the parent chat thread ID, so that permission
      *  requests from subagents (e.g. explorer, general) can be routed to the correct UI thread. */
     private final Map<String, String> subagentSessionMap = new ConcurrentHashMap<>();
@@ -61,6 +64,7 @@ public class OpenCodeRuntimeService {
                                   final OpenCodePermissionBridge permissionBridge,
                                   final OpenCodeServerManager serverManager,
                                   final OpenCodeModelService modelService,
+                                  final OpenCodeSessionService sessionService,
                                   final ObjectMapper objectMapper) {
         this.configurationService = configurationService;
         this.sessionRegistry = sessionRegistry;
@@ -68,7 +72,14 @@ public class OpenCodeRuntimeService {
         this.permissionBridge = permissionBridge;
         this.serverManager = serverManager;
         this.modelService = modelService;
+        this.sessionService = sessionService;
         this.objectMapper = objectMapper;
+        this.eventStream = new OpenCodeEventStream(httpClient::openEventStream, objectMapper, new EventRouter());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        eventStream.close();
     }
 
     public boolean isEnabled() {
@@ -91,32 +102,40 @@ public class OpenCodeRuntimeService {
         return Flux.create(sink -> {
             final ActiveStream stream = new ActiveStream(chatThreadId, sink);
             activeStreams.put(chatThreadId, stream);
-            sink.onDispose(() -> closeQuietly(stream));
+            sink.onDispose(stream::release);
 
             Thread.startVirtualThread(() -> {
                 try {
                     ensureServerRunning();
                     final SessionBootstrap session = getOrCreateSession(chatThreadId, chatThreadTitle, forceNewSession);
                     stream.sessionId = session.sessionId();
+                    streamsBySession.put(session.sessionId(), stream);
 
-                    final InputStream eventStream = openEventStream();
-                    stream.eventStream = eventStream;
+                    eventStream.ensureConnected();
 
                     final String composedSystemPrompt = composeSystemPrompt(systemPrompt, historySummary, session.newlyCreated());
                     sendPromptAsync(session.sessionId(), userMessage, composedSystemPrompt, modelOverride, effortOverride, imageAttachments);
-                    consumeEvents(stream, eventStream, sink);
-                    // The title agent may finish after the response stream ends;
-                    // poll the REST API to pick up the generated title.
-                    fetchAndPublishSessionTitle(stream.threadId, stream.sessionId);
+                    stream.released.await();
+                    sessionService.refreshMessages(stream.sessionId);
+                    if (stream.completed.get() && !stream.cancelled.get()) {
+                        // The title agent may finish after the response stream ends;
+                        // poll the REST API to pick up the generated title.
+                        fetchAndPublishSessionTitle(stream.threadId, stream.sessionId);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 } catch (Exception e) {
                     if (!stream.cancelled.get()) {
                         sink.error(e);
                     }
                 } finally {
                     activeStreams.remove(chatThreadId, stream);
+                    if (stream.sessionId != null) {
+                        streamsBySession.remove(stream.sessionId, stream);
+                    }
                     permissionBridge.clearForThread(chatThreadId);
                     subagentSessionMap.values().removeIf(chatThreadId::equals);
-                    closeQuietly(stream);
+                    stream.release();
                 }
             });
         }, FluxSink.OverflowStrategy.BUFFER);
@@ -136,7 +155,7 @@ public class OpenCodeRuntimeService {
                 logger.debug("Cannot abort OpenCode session {}", stream.sessionId, e);
             }
         }
-        closeQuietly(stream);
+        stream.release();
     }
 
     public AgentInteractionResolutionModel resolveAgentInteraction(final String requestId,
@@ -240,7 +259,7 @@ public class OpenCodeRuntimeService {
         try {
             activeStreams.values().forEach(stream -> {
                 stream.cancelled.set(true);
-                closeQuietly(stream);
+                stream.release();
             });
             activeStreams.clear();
             permissionBridge.clear();
@@ -345,93 +364,131 @@ public class OpenCodeRuntimeService {
         httpClient.postNoContent("/session/%s/prompt_async".formatted(sessionId), body);
     }
 
-    private InputStream openEventStream() throws Exception {
-        return httpClient.openEventStream();
-    }
+    /**
+     * Routes one event of the shared SSE subscription. Permission and title events are handled
+     * once globally; all other events go only to the stream owning their session.
+     */
+    private void routeEvent(final JsonNode event) {
+        final String type = event.path("type").asText();
+        final JsonNode properties = event.path("properties");
+        final String sessionId = eventSessionId(properties);
+        final ActiveStream stream = sessionId == null ? null : streamsBySession.get(sessionId);
+        if (sessionId != null && stream == null) {
+            registerSubagentSessionIfNeeded(sessionId, properties);
+        }
+        if (type.startsWith("session.")) {
+            // session.created carries the new session under "info"
+            final String infoSessionId = properties.path("info").path("id").asText("");
+            if (!infoSessionId.isBlank() && !streamsBySession.containsKey(infoSessionId)) {
+                registerSubagentSessionIfNeeded(infoSessionId, properties);
+            }
+        }
+        if (sessionId != null && type.startsWith("message.")) {
+            sessionService.invalidateMessages(sessionId);
+        }
 
-    private void consumeEvents(final ActiveStream stream,
-                               final InputStream eventStream,
-                               final FluxSink<String> sink) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(eventStream, StandardCharsets.UTF_8))) {
-            String line;
-            StringBuilder payload = new StringBuilder();
-            while (!stream.cancelled.get() && (line = reader.readLine()) != null) {
-                if (line.startsWith("data: ")) {
-                    payload.append(line.substring(6));
-                    continue;
-                }
-                if (!line.isEmpty()) {
-                    continue;
-                }
-                if (!payload.isEmpty()) {
-                    processEvent(stream, payload.toString(), sink);
-                    payload.setLength(0);
-                    if (stream.completed.get()) {
-                        sink.complete();
-                        return;
-                    }
-                }
+        switch (type) {
+            case "permission.asked" -> handlePermissionAsked(properties);
+            case "session.updated" -> handleSessionUpdated(properties);
+            default -> {
             }
         }
+
+        if (stream == null || stream.isReleased()) {
+            return;
+        }
+        processEvent(stream, type, properties, stream.sink);
+        completeIfFinished(stream);
+    }
+
+    /**
+     * Fast path for {@code message.part.delta}, which the event stream parses without a JSON tree.
+     */
+    private void routePartDelta(final OpenCodeEventStream.PartDelta partDelta) {
+        final String sessionId = partDelta.sessionId();
+        if (sessionId == null || sessionId.isBlank()) {
+            return;
+        }
+        final ActiveStream stream = streamsBySession.get(sessionId);
+        if (stream == null || stream.isReleased()) {
+            return;
+        }
+        handleMessagePartDelta(stream, partDelta, stream.sink);
+        completeIfFinished(stream);
+    }
+
+    private void completeIfFinished(final ActiveStream stream) {
+        if (stream.completed.get()) {
+            stream.sink.complete();
+            stream.release();
+        }
     }
 
     private void processEvent(final ActiveStream stream,
-                               final String json,
-                               final FluxSink<String> sink) {
-        try {
-            final JsonNode event = objectMapper.readTree(json);
-            final String type = event.path("type").asText();
-            final JsonNode properties = event.path("properties");
-
-            registerSubagentSessionIfNeeded(stream, properties);
-
-            switch (type) {
-                case "message.updated" -> handleMessageUpdated(stream, properties);
-                case "message.part.delta" -> handleMessagePartDelta(stream, properties, sink);
-                case "message.part.updated" -> handleMessagePartUpdated(stream, properties, sink);
-                case "permission.asked" -> handlePermissionAsked(properties);
-                case "session.error" -> handleSessionError(stream, properties, sink);
-                case "session.idle" -> handleSessionIdle(stream, properties);
-                case "session.status" -> handleSessionStatus(stream, properties);
-                case "session.updated" -> handleSessionUpdated(properties);
-                default -> {
-                }
+                              final String type,
+                              final JsonNode properties,
+                              final FluxSink<String> sink) {
+        switch (type) {
+            case "message.updated" -> handleMessageUpdated(stream, properties);
+            case "message.part.delta" -> handleMessagePartDelta(stream, OpenCodeEventStream.PartDelta.fromProperties(properties), sink);
+            case "message.part.updated" -> handleMessagePartUpdated(stream, properties, sink);
+            case "session.error" -> handleSessionError(stream, properties, sink);
+            case "session.idle" -> handleSessionIdle(stream, properties);
+            case "session.status" -> handleSessionStatus(stream, properties);
+            default -> {
             }
-        } catch (Exception e) {
-            logger.debug("Cannot process OpenCode event {}", json, e);
         }
     }
 
+    private String eventSessionId(final JsonNode properties) {
+        String sessionId = properties.path("sessionID").asText(null);
+        if (sessionId == null || sessionId.isBlank()) {
+            sessionId = properties.path("session").path("id").asText(null);
+        }
+        return sessionId == null || sessionId.isBlank() ? null : sessionId;
+    }
+
     /**
      * Detects subagent session IDs and maps them to the parent chat thread.
      * When OpenCode spawns a subagent (e.g. explorer, general), the subagent's SSE events
      * carry its own session ID — different from the parent. By registering these unknown
      * session IDs, we can later route permission requests from subagents to the correct UI thread.
+     * The parent is taken from the session's {@code parentID}, which OpenCode sends with the
+     * {@code session.created}/{@code session.updated} events of the subagent; a parent that is itself
+     * a subagent resolves to the same thread. Sessions without a known parent are not registered,
+     * because with several streams running there is no way to tell which one they belong to.
      */
-    private void registerSubagentSessionIfNeeded(final ActiveStream stream, final JsonNode properties) {
-        if (stream.sessionId == null) {
+    private void registerSubagentSessionIfNeeded(final String eventSessionId, final JsonNode properties) {
+        if (subagentSessionMap.containsKey(eventSessionId)) {
             return;
         }
-        String eventSessionId = properties.path("sessionID").asText(null);
-        if (eventSessionId == null || eventSessionId.isBlank()) {
-            eventSessionId = properties.path("session").path("id").asText(null);
-        }
-        if (eventSessionId == null || eventSessionId.isBlank() || eventSessionId.equals(stream.sessionId)) {
+        final String parentSessionId = properties.path("session").path("parentID").asText(
+                properties.path("info").path("parentID").asText(""));
+        if (parentSessionId.isBlank()) {
             return;
         }
-        // Check if this session belongs to another known parent stream
-        final String knownSessionId = eventSessionId;
-        final boolean isKnownParent = activeStreams.values().stream()
-                .anyMatch(s -> knownSessionId.equals(s.sessionId));
-        if (!isKnownParent) {
-            subagentSessionMap.putIfAbsent(eventSessionId, stream.threadId);
+        final ActiveStream owner = streamsBySession.get(parentSessionId);
+        final String threadId = owner != null ? owner.threadId : subagentSessionMap.get(parentSessionId);
+        if (threadId != null) {
+            subagentSessionMap.putIfAbsent(eventSessionId, threadId);
         }
     }
 
+    /**
+     * Events published while the shared subscription was reconnecting are lost; tool calls
+     * are recovered from the REST API so the activity list of running streams stays complete.
+     */
+    private void resyncAfterReconnect() {
+        activeStreams.values().stream()
+                .filter(stream -> stream.sessionId != null && !stream.isReleased())
+                .forEach(stream -> Thread.startVirtualThread(() -> fetchToolActivity(stream)));
+    }
+
     private void handleMessageUpdated(final ActiveStream stream, final JsonNode properties) {
         if (!matchesSession(stream, properties.path("sessionID").asText())) {
             return;
         }
+        signalToolActivity(stream);
         final JsonNode info = properties.path("info");
         if (!"assistant".equals(info.path("role").asText())) {
             return;
@@ -485,40 +542,41 @@ public class OpenCodeRuntimeService {
     }
 
     private void handleMessagePartDelta(final ActiveStream stream,
-                                        final JsonNode properties,
+                                        final OpenCodeEventStream.PartDelta partDelta,
                                         final FluxSink<String> sink) {
-        if (!matchesSession(stream, properties.path("sessionID").asText())) {
+        if (!matchesSession(stream, partDelta.sessionId())) {
             return;
         }
-        final String incomingMessageId = properties.path("messageID").asText(null);
+        final String incomingMessageId = partDelta.messageId();
         if (incomingMessageId != null && !incomingMessageId.isBlank()) {
             // In OpenCode 1.15+, there are no message.updated events to track
             // the current assistant message. When a new messageID appears in a
             // delta, it means a new assistant turn started (e.g. after tool
             // execution). We must always update the tracked ID so that subsequent
             // deltas from this message are not dropped.
+            if (!incomingMessageId.equals(stream.assistantMessageId)) {
+                signalToolActivity(stream);
+            }
             stream.assistantMessageId = incomingMessageId;
         }
-        if (!"text".equals(properties.path("field").asText())) {
+        if (!"text".equals(partDelta.field())) {
             return;
         }
-        final String partId = properties.path("partID").asText("");
+        final String partId = partDelta.partId() == null ? "" : partDelta.partId();
         final String partType = stream.partTypes.getOrDefault(partId, "");
         final String phase = stream.textPartPhases.getOrDefault(partId, "");
-        final String delta = properties.path("delta").asText("");
+        final String delta = partDelta.delta() == null ? "" : partDelta.delta();
 
         if ("reasoning".equalsIgnoreCase(partType)) {
-            final String updated = stream.reasoningParts.getOrDefault(partId, "") + delta;
-            stream.reasoningParts.put(partId, updated);
-            publishReasoning(stream.threadId, updated);
+            stream.reasoningParts.computeIfAbsent(partId, ignored -> new StringBuilder()).append(delta);
+            publishReasoningDelta(stream.threadId, partId, delta);
             return;
         }
 
         if ("commentary".equalsIgnoreCase(phase)) {
             stream.deltaCommentaryParts.add(partId);
-            final String updated = stream.commentaryParts.getOrDefault(partId, "") + delta;
-            stream.commentaryParts.put(partId, updated);
-            publishCommentary(stream.threadId, updated);
+            stream.commentaryParts.computeIfAbsent(partId, ignored -> new StringBuilder()).append(delta);
+            publishCommentaryDelta(stream.threadId, partId, delta);
             return;
         }
 
@@ -534,6 +592,9 @@ public class OpenCodeRuntimeService {
         }
         final JsonNode part = properties.path("part");
         final String type = part.path("type").asText();
+        if (!"text".equals(type) && !"reasoning".equals(type)) {
+            signalToolActivity(stream);
+        }
         final String messageId = part.path("messageID").asText();
         final String partId = part.path("id").asText();
         if (partId != null && !partId.isBlank() && type != null && !type.isBlank()) {
@@ -542,11 +603,11 @@ public class OpenCodeRuntimeService {
 
         if ("reasoning".equals(type) && matchesAssistantMessage(stream, messageId)) {
             final String currentText = part.path("text").asText("");
-            final String previousText = stream.reasoningParts.getOrDefault(partId, "");
-            if (!currentText.isBlank() && !currentText.equals(previousText)) {
+            final StringBuilder previousText = stream.reasoningParts.get(partId);
+            if (!currentText.isBlank() && (previousText == null || !currentText.contentEquals(previousText))) {
                 publishReasoning(stream.threadId, currentText);
             }
-            stream.reasoningParts.put(partId, currentText);
+            stream.reasoningParts.put(partId, new StringBuilder(currentText));
             return;
         }
 
@@ -559,9 +620,9 @@ public class OpenCodeRuntimeService {
 
             final String effectivePhase = stream.textPartPhases.getOrDefault(partId, "");
             if ("commentary".equalsIgnoreCase(effectivePhase)) {
-                final String previousText = stream.commentaryParts.getOrDefault(partId, "");
-                stream.commentaryParts.put(partId, currentText);
-                if (!stream.deltaCommentaryParts.contains(partId) && !currentText.equals(previousText) && !currentText.isBlank()) {
+                final StringBuilder previousText = stream.commentaryParts.put(partId, new StringBuilder(currentText));
+                final boolean changed = previousText == null || !currentText.contentEquals(previousText);
+                if (!stream.deltaCommentaryParts.contains(partId) && changed && !currentText.isBlank()) {
                     publishCommentary(stream.threadId, currentText);
                 }
                 return;
@@ -633,12 +694,16 @@ public class OpenCodeRuntimeService {
         stream.pollingTools.set(false);
         // In OpenCode 1.15+, session.idle signals that the assistant response is complete.
         // Token counts and model info are no longer sent via SSE events, so we fetch them
-        // from the session REST API before marking the stream as completed.
-        if (stream.assistantMessageId != null) {
-            fetchSessionMetadata(stream);
-            // Final tool activity fetch to catch any tools missed by polling
-            fetchToolActivity(stream);
-            stream.completed.set(true);
+        // from the session REST API before completing the stream. The requests run on the
+        // stream's own thread so that the shared event reader keeps dispatching other sessions.
+        if (stream.assistantMessageId != null && stream.finishing.compareAndSet(false, true)) {
+            Thread.startVirtualThread(() -> {
+                fetchSessionMetadata(stream);
+                // Final tool activity fetch to catch any tools missed by polling
+                fetchToolActivity(stream);
+                stream.completed.set(true);
+                completeIfFinished(stream);
+            });
         }
     }
 
@@ -647,9 +712,10 @@ public class OpenCodeRuntimeService {
             return;
         }
         final String status = properties.path("status").path("type").asText("");
-        if ("busy".equals(status) && !stream.pollingTools.get()) {
-            stream.pollingTools.set(true);
+        if ("busy".equals(status) && stream.pollingTools.compareAndSet(false, true)) {
             Thread.startVirtualThread(() -> pollToolActivity(stream));
+        } else if ("busy".equals(status)) {
+            signalToolActivity(stream);
         } else if ("idle".equals(status)) {
             stream.pollingTools.set(false);
         }
@@ -658,63 +724,67 @@ public class OpenCodeRuntimeService {
     /**
      * Polls the messages REST API to detect tool call parts during the busy phase.
      * OpenCode 1.15+ does not emit SSE events for tool calls, so we must poll.
+     * The interval backs off while nothing changes; SSE activity wakes the poller up.
      */
     private void pollToolActivity(final ActiveStream stream) {
-        while (stream.pollingTools.get() && !stream.cancelled.get() && !stream.completed.get()) {
-            try {
-                Thread.sleep(500);
-                if (!stream.pollingTools.get()) {
+        stream.toolPoller = Thread.currentThread();
+        try {
+            while (stream.pollingTools.get() && !stream.cancelled.get() && !stream.completed.get()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(stream.toolActivity.intervalMillis()));
+                if (Thread.currentThread().isInterrupted() || !stream.pollingTools.get()) {
                     break;
                 }
-                fetchToolActivity(stream);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch (Exception e) {
-                logger.debug("Tool polling error for session {}", stream.sessionId, e);
+                final boolean changed = fetchToolActivity(stream);
+                synchronized (stream.toolActivity) {
+                    stream.toolActivity.onPolled(changed);
+                }
+            }
+        } finally {
+            stream.toolPoller = null;
+        }
+    }
+
+    private void signalToolActivity(final ActiveStream stream) {
+        if (stream.toolActivity.signalActivity()) {
+            final Thread poller = stream.toolPoller;
+            if (poller != null) {
+                LockSupport.unpark(poller);
             }
         }
     }
 
     /**
-     * Fetches messages from the REST API and publishes tool activity events
-     * for any tool parts not yet seen.
+     * Fetches the latest messages from the REST API and publishes tool activity events
+     * for tool parts not yet seen; returns whether anything was published.
      */
-    private void fetchToolActivity(final ActiveStream stream) {
+    private boolean fetchToolActivity(final ActiveStream stream) {
+        boolean changed = false;
         try {
-            final JsonNode messages = httpClient.get("/session/%s/message".formatted(stream.sessionId));
-            if (!messages.isArray()) {
-                return;
-            }
-            for (final JsonNode msg : messages) {
-                final JsonNode info = msg.path("info");
-                if (!"assistant".equals(info.path("role").asText())) {
-                    continue;
-                }
-                final JsonNode parts = msg.path("parts");
-                if (!parts.isArray()) {
-                    continue;
+            synchronized (stream.toolActivity) {
+                List<JsonNode> toolParts = null;
+                while (toolParts == null) {
+                    final JsonNode messages = httpClient.get(stream.toolActivity.messagesPath(stream.sessionId));
+                    toolParts = stream.toolActivity.newToolParts(messages);
                 }
-                for (final JsonNode part : parts) {
-                    if (!"tool".equals(part.path("type").asText())) {
-                        continue;
-                    }
+                for (final JsonNode part : toolParts) {
                     final String callId = part.path("callID").asText("");
                     final JsonNode state = part.path("state");
                     final String stateStatus = state.path("status").asText("");
                     final String dedupeKey = callId + ":" + stateStatus;
                     if (stream.seenActivity.add(dedupeKey)) {
+                        changed = true;
                         publishActivity(stream.threadId, part.path("tool").asText(), state);
-                    }
-                    final String toolName = part.path("tool").asText("");
-                    if ("todowrite".equalsIgnoreCase(toolName) && "completed".equals(stateStatus)) {
-                        publishTodoUpdate(stream.threadId, part);
+                        final String toolName = part.path("tool").asText("");
+                        if ("todowrite".equalsIgnoreCase(toolName) && "completed".equals(stateStatus)) {
+                            publishTodoUpdate(stream.threadId, part);
+                        }
                     }
                 }
             }
         } catch (Exception e) {
             logger.debug("Failed to fetch tool activity for session {}", stream.sessionId, e);
         }
+        return changed;
     }
 
     /**
@@ -812,6 +882,14 @@ public class OpenCodeRuntimeService {
         Event.publish(ChatMessageStreamEvent.commentary(threadId, content));
     }
 
+    private void publishReasoningDelta(final String threadId, final String partId, final String delta) {
+        Event.publish(ChatMessageStreamEvent.reasoningDelta(threadId, partId, delta));
+    }
+
+    private void publishCommentaryDelta(final String threadId, final String partId, final String delta) {
+        Event.publish(ChatMessageStreamEvent.commentaryDelta(threadId, partId, delta));
+    }
+
     private void publishTodoUpdate(final String threadId, final JsonNode part) {
         try {
             final JsonNode todosNode = extractTodosFromPart(part);
@@ -927,13 +1005,9 @@ public class OpenCodeRuntimeService {
 
     private String threadIdForSession(final String sessionId) {
         // First check active streams (fast path during streaming)
-        final String fromStream = activeStreams.values().stream()
-                .filter(stream -> sessionId.equals(stream.sessionId))
-                .map(stream -> stream.threadId)
-                .findFirst()
-                .orElse(null);
+        final ActiveStream fromStream = streamsBySession.get(sessionId);
         if (fromStream != null) {
-            return fromStream;
+            return fromStream.threadId;
         }
         // Check subagent session map (subagents spawned by a parent session)
         final String fromSubagent = subagentSessionMap.get(sessionId);
@@ -993,17 +1067,6 @@ public class OpenCodeRuntimeService {
         return "reasoning".equalsIgnoreCase(partTypes.getOrDefault(partId, ""));
     }
 
-    private void closeQuietly(final ActiveStream stream) {
-        final Closeable closeable = stream.eventStream;
-        if (closeable == null) {
-            return;
-        }
-        try {
-            closeable.close();
-        } catch (IOException ignored) {
-        }
-    }
-
     private record SessionBootstrap(String sessionId, boolean newlyCreated) {
     }
 
@@ -1013,26 +1076,63 @@ public class OpenCodeRuntimeService {
         private final AtomicBoolean cancelled = new AtomicBoolean(false);
         private final AtomicBoolean completed = new AtomicBoolean(false);
         private final AtomicBoolean pollingTools = new AtomicBoolean(false);
+        /** Set once the idle-time fetches were started, so a repeated {@code session.idle} is ignored. */
+        private final AtomicBoolean finishing = new AtomicBoolean(false);
         private final Map<String, String> textParts = new ConcurrentHashMap<>();
         private final Map<String, String> partTypes = new ConcurrentHashMap<>();
-        private final Map<String, String> reasoningParts = new ConcurrentHashMap<>();
-        private final Map<String, String> commentaryParts = new ConcurrentHashMap<>();
+        /** Growable per-part buffers, so that appending a delta does not copy the whole text. */
+        private final Map<String, StringBuilder> reasoningParts = new ConcurrentHashMap<>();
+        private final Map<String, StringBuilder> commentaryParts = new ConcurrentHashMap<>();
         private final Map<String, String> textPartPhases = new ConcurrentHashMap<>();
         private final Set<String> deltaTextParts = ConcurrentHashMap.newKeySet();
         private final Set<String> deltaCommentaryParts = ConcurrentHashMap.newKeySet();
         private final Set<String> seenActivity = ConcurrentHashMap.newKeySet();
         private final Set<String> pendingPermissionRequestIds = ConcurrentHashMap.newKeySet();
+        private final OpenCodeToolActivityTracker toolActivity = new OpenCodeToolActivityTracker();
+        private volatile Thread toolPoller;
         private volatile String sessionId;
         private volatile String assistantMessageId;
         private volatile String modelUsed;
         private volatile String agentUsed;
         private volatile long tokensTotal;
         private volatile double cost;
-        private volatile Closeable eventStream;
+        /** Released when the response completed, failed or was cancelled; wakes up the stream's thread. */
+        private final CountDownLatch released = new CountDownLatch(1);
 
         private ActiveStream(final String threadId, final FluxSink<String> sink) {
             this.threadId = threadId;
             this.sink = sink;
         }
+
+        private void release() {
+            released.countDown();
+        }
+
+        private boolean isReleased() {
+            return released.getCount() == 0;
+        }
+    }
+
+    private final class EventRouter implements OpenCodeEventStream.Listener {
+
+        @Override
+        public void onEvent(final JsonNode event) {
+            routeEvent(event);
+        }
+
+        @Override
+        public void onPartDelta(final OpenCodeEventStream.PartDelta partDelta) {
+            routePartDelta(partDelta);
+        }
+
+        @Override
+        public void onReconnected() {
+            resyncAfterReconnect();
+        }
+
+        @Override
+        public boolean hasSubscribers() {
+            return !activeStreams.isEmpty();
+        }
     }
 }
@@ -6,6 +6,8 @@ import com.patres.alina.common.message.ChatMessageResponseModel;
 import com.patres.alina.common.message.ChatMessageRole;
 import com.patres.alina.common.message.ChatMessageStyleType;
 import com.patres.alina.common.thread.ChatThread;
+import com.patres.alina.server.agent.ConversationCache;
+import com.patres.alina.server.agent.ConversationHistory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -27,10 +29,14 @@ import java.util.Optional;
 public class OpenCodeSessionService {
 
     private static final Logger logger = LoggerFactory.getLogger(OpenCodeSessionService.class);
+    private static final int MESSAGE_DELTA_LIMIT = 8;
+    /** Above this the history is fetched without a limit. */
+    private static final int MESSAGE_DELTA_MAX_LIMIT = 128;
 
     private final OpenCodeHttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final OpenCodeSessionRegistry sessionRegistry;
+    private final ConversationCache messageCache = new ConversationCache("OpenCode", this::fetchMessageHistory);
 
     public OpenCodeSessionService(final OpenCodeHttpClient httpClient,
                                   final ObjectMapper objectMapper,
@@ -96,6 +102,7 @@ public class OpenCodeSessionService {
      * Deletes a session from the OpenCode server.
      */
     public void deleteSession(final String sessionId) {
+        messageCache.remove(sessionId);
         try {
             httpClient.delete("/session/" + sessionId);
         } catch (Exception e) {
@@ -117,27 +124,78 @@ public class OpenCodeSessionService {
 
     /**
      * Returns the displayable messages (user + assistant text) for a session,
-     * in conversation order.
+     * in conversation order. Served from the message cache once the session was loaded.
      */
     public List<ChatMessageResponseModel> getMessages(final String sessionId) {
-        try {
-            final JsonNode response = httpClient.get("/session/" + sessionId + "/message");
-            final List<ChatMessageResponseModel> result = new ArrayList<>();
-            if (!response.isArray()) {
-                return result;
-            }
-            for (final JsonNode messageNode : response) {
-                toMessageModel(messageNode, sessionId).ifPresent(result::add);
+        return messageCache.getMessages(sessionId);
+    }
+
+    /**
+     * Returns the messages of a session, fetching them first if they changed since they were cached.
+     */
+    public List<ChatMessageResponseModel> getLatestMessages(final String sessionId) {
+        return messageCache.getValidatedMessages(sessionId);
+    }
+
+    /**
+     * Marks the cached messages of a session as changed, e.g. on a message event.
+     */
+    public void invalidateMessages(final String sessionId) {
+        messageCache.invalidate(sessionId);
+    }
+
+    /**
+     * Fetches the messages added since the cached ones, e.g. once a response has completed.
+     */
+    public void refreshMessages(final String sessionId) {
+        messageCache.refresh(sessionId);
+    }
+
+    /**
+     * Fetches the latest messages and merges them from the first one that is already cached,
+     * widening the window until it reaches back into the cache.
+     */
+    private ConversationHistory fetchMessageHistory(final String sessionId, final ConversationHistory cached) throws Exception {
+        final String path = "/session/" + sessionId + "/message";
+        if (cached != null && !cached.entries().isEmpty()) {
+            for (int limit = MESSAGE_DELTA_LIMIT; limit <= MESSAGE_DELTA_MAX_LIMIT; limit *= 4) {
+                final JsonNode response = httpClient.get(path + "?limit=" + limit);
+                if (!response.isArray()) {
+                    break;
+                }
+                if (response.size() < limit) {
+                    // The window holds the whole session
+                    return ConversationHistory.of(toHistoryEntries(response, sessionId));
+                }
+                final int watermark = cached.indexOf(messageId(response.get(0)));
+                if (watermark >= 0) {
+                    return cached.replaceFrom(watermark, toHistoryEntries(response, sessionId));
+                }
             }
-            return result;
-        } catch (Exception e) {
-            logger.warn("Failed to fetch messages for session {} from OpenCode", sessionId, e);
-            return Collections.emptyList();
         }
+        return ConversationHistory.of(toHistoryEntries(httpClient.get(path), sessionId));
     }
 
     // ── Mapping helpers ───────────────────────────────────────────────────────
 
+    private List<ConversationHistory.Entry> toHistoryEntries(final JsonNode response, final String sessionId) {
+        final List<ConversationHistory.Entry> entries = new ArrayList<>();
+        if (!response.isArray()) {
+            return entries;
+        }
+        for (final JsonNode messageNode : response) {
+            entries.add(new ConversationHistory.Entry(
+                    messageId(messageNode),
+                    toMessageModel(messageNode, sessionId).orElse(null)
+            ));
+        }
+        return entries;
+    }
+
+    private static String messageId(final JsonNode messageNode) {
+        return messageNode.path("info").path("id").asText("");
+    }
+
     private Optional<ChatThread> toChatThread(final JsonNode node) {
         final String id = node.path("id").asText(null);
         if (id == null || id.isBlank()) {
@@ -0,0 +1,144 @@
+package com.patres.alina.server.opencode;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental view of the tool calls of one streaming session.
+ * <p>
+ * OpenCode 1.15+ reports tool calls only through {@code /session/{id}/message}. Instead of rescanning
+ * the whole history on every poll, the tracker requests just the latest messages and remembers a
+ * cursor: the last assistant message seen and how many of its leading parts are already settled.
+ * If the cursor fell out of the requested window, the window is widened. The polling interval grows
+ * exponentially while nothing changes and is reset by {@link #signalActivity()}.
+ * <p>
+ * The cursor methods are not thread-safe; callers synchronize on the tracker. The interval may be
+ * reset from any thread.
+ */
+final class OpenCodeToolActivityTracker {
+
+    static final long MIN_INTERVAL_MILLIS = 250;
+    static final long MAX_INTERVAL_MILLIS = 4_000;
+    static final int INITIAL_FETCH_LIMIT = 8;
+    /** Above this the history is fetched without a limit. */
+    static final int MAX_FETCH_LIMIT = 256;
+
+    private String cursorMessageId;
+    private int settledParts;
+    private int fetchLimit = INITIAL_FETCH_LIMIT;
+    private volatile long intervalMillis = MIN_INTERVAL_MILLIS;
+
+    String messagesPath(final String sessionId) {
+        final String path = "/session/%s/message".formatted(sessionId);
+        return fetchLimit > 0 ? path + "?limit=" + fetchLimit : path;
+    }
+
+    /**
+     * Returns the tool parts that are new or may have changed since the previous call, or
+     * {@code null} when the response does not reach back to the cursor and has to be fetched again
+     * with the wider window of {@link #messagesPath(String)}.
+     */
+    List<JsonNode> newToolParts(final JsonNode messages) {
+        if (!messages.isArray()) {
+            return List.of();
+        }
+        final boolean truncated = fetchLimit > 0 && messages.size() >= fetchLimit;
+        final int start = resolveStart(messages);
+        if (start < 0) {
+            if (truncated) {
+                widen();
+                return null;
+            }
+            return collect(messages, 0);
+        }
+        return collect(messages, start);
+    }
+
+    /**
+     * Index of the first message to scan: the cursor message or, before the first assistant message
+     * was seen, the message following the latest user prompt. {@code -1} when neither is present.
+     */
+    private int resolveStart(final JsonNode messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            final JsonNode info = messages.get(i).path("info");
+            if (cursorMessageId != null) {
+                if (cursorMessageId.equals(info.path("id").asText())) {
+                    return i;
+                }
+            } else if ("user".equals(info.path("role").asText())) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private List<JsonNode> collect(final JsonNode messages, final int start) {
+        final List<JsonNode> toolParts = new ArrayList<>();
+        for (int i = start; i < messages.size(); i++) {
+            final JsonNode message = messages.get(i);
+            final JsonNode info = message.path("info");
+            if (!"assistant".equals(info.path("role").asText())) {
+                continue;
+            }
+            final String messageId = info.path("id").asText();
+            final JsonNode parts = message.path("parts");
+            if (!messageId.equals(cursorMessageId)) {
+                cursorMessageId = messageId;
+                settledParts = 0;
+            }
+            if (!parts.isArray()) {
+                continue;
+            }
+            boolean settled = true;
+            for (int p = settledParts; p < parts.size(); p++) {
+                final JsonNode part = parts.get(p);
+                final boolean tool = "tool".equals(part.path("type").asText());
+                if (tool) {
+                    toolParts.add(part);
+                }
+                settled = settled && (!tool || isSettled(part));
+                if (settled) {
+                    settledParts = p + 1;
+                }
+            }
+        }
+        return toolParts;
+    }
+
+    private static boolean isSettled(final JsonNode toolPart) {
+        final String status = toolPart.path("state").path("status").asText("");
+        return "completed".equals(status) || "error".equals(status);
+    }
+
+    private void widen() {
+        fetchLimit = fetchLimit * 2 > MAX_FETCH_LIMIT ? 0 : fetchLimit * 2;
+    }
+
+    /**
+     * Records the outcome of one poll: resets the interval when something changed, doubles it otherwise.
+     * The fetch window shrinks back once the cursor is known.
+     */
+    void onPolled(final boolean changed) {
+        if (cursorMessageId != null) {
+            fetchLimit = INITIAL_FETCH_LIMIT;
+        }
+        intervalMillis = changed ? MIN_INTERVAL_MILLIS : Math.min(intervalMillis * 2, MAX_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Returns to fast polling; {@code true} when the poller was backing off and should be woken up.
+     */
+    boolean signalActivity() {
+        if (intervalMillis == MIN_INTERVAL_MILLIS) {
+            return false;
+        }
+        intervalMillis = MIN_INTERVAL_MILLIS;
+        return true;
+    }
+
+    long intervalMillis() {
+        return intervalMillis;
+    }
+}
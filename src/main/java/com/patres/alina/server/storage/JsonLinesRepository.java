@@ -1,228 +1,326 @@
 package com.patres.alina.server.storage;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * JSONL (JSON Lines) repository implementation.
  * Each entity is stored as one line of JSON in a file.
- * Perfect for append operations - new records are simply added to the end of file.
- * 
+ * <p>
+ * The file is an append-only log: saving writes the new version of an entity as a new line and
+ * deleting appends a tombstone line ({@code {"@deleted": <id>}}). An in-memory index maps every
+ * live ID to the offset and length of its latest line; it is built once when the repository is
+ * opened, so {@link #findById} is a single positioned read and {@link #count()} is the index size.
+ * Superseded lines and tombstones are garbage; once they make up more than
+ * {@value #COMPACTION_GARBAGE_RATIO} of the file, the file is rewritten in the background.
+ *
  * @param <T> Entity type
  * @param <ID> ID type
  */
 public class JsonLinesRepository<T extends Entity<ID>, ID> implements LocalRepository<T, ID> {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(JsonLinesRepository.class);
-    
+    private static final String TOMBSTONE_FIELD = "@deleted";
+    private static final double COMPACTION_GARBAGE_RATIO = 0.5;
+    private static final long COMPACTION_MIN_FILE_SIZE = 64 * 1024;
+    private static final byte NEWLINE = '\n';
+
+    private static final ExecutorService COMPACTION_EXECUTOR = Executors.newSingleThreadExecutor(task -> {
+        final Thread thread = new Thread(task, "jsonl-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final Path jsonlFile;
     private final Class<T> entityClass;
     private final ObjectMapper objectMapper;
-    
+
+    /** Live entities by the text of their serialized ID, in the order they were first saved. */
+    private final Map<String, Line> index = new LinkedHashMap<>();
+    private long fileSize;
+    private long garbageBytes;
+    private boolean compactionScheduled;
+
     public JsonLinesRepository(Path jsonlFile, Class<T> entityClass, ObjectMapper objectMapper) {
         this.jsonlFile = jsonlFile;
         this.entityClass = entityClass;
         this.objectMapper = objectMapper;
-        
+
         try {
             // Create parent directories if needed
             Files.createDirectories(jsonlFile.getParent());
+            loadIndex();
         } catch (IOException e) {
-            throw new LocalStorageException("Failed to create directory for: " + jsonlFile, e);
+            throw new LocalStorageException("Failed to open JSONL repository: " + jsonlFile, e);
         }
-        
-        logger.debug("Initialized JSONL repository for {} at {}", entityClass.getSimpleName(), jsonlFile);
+
+        logger.debug("Initialized JSONL repository for {} at {} with {} entities",
+                entityClass.getSimpleName(), jsonlFile, index.size());
     }
-    
+
     @Override
-    public void save(T entity) {
+    public synchronized void save(T entity) {
         if (entity == null || entity.getId() == null) {
             throw new IllegalArgumentException("Entity and ID cannot be null");
         }
-        
+
         try {
-            // Check if entity already exists - if so, we need to rewrite the file
-            if (existsById(entity.getId())) {
-                replaceEntity(entity);
-            } else {
-                appendEntity(entity);
+            final String key = key(entity.getId());
+            final Line line = append(objectMapper.writeValueAsBytes(entity));
+            final Line previous = index.put(key, line);
+            if (previous != null) {
+                garbageBytes += previous.length();
             }
-            
             logger.debug("Saved {} with ID {} to {}", entityClass.getSimpleName(), entity.getId(), jsonlFile);
-            
         } catch (IOException e) {
             throw new LocalStorageException("Failed to save entity with ID: " + entity.getId(), e);
         }
+        compactIfNeeded();
     }
-    
+
     @Override
-    public Optional<T> findById(ID id) {
+    public synchronized Optional<T> findById(ID id) {
         if (id == null) {
             return Optional.empty();
         }
-        
-        if (!Files.exists(jsonlFile)) {
+        final Line line = index.get(key(id));
+        if (line == null) {
             return Optional.empty();
         }
-        
-        try (BufferedReader reader = Files.newBufferedReader(jsonlFile)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                
-                try {
-                    T entity = objectMapper.readValue(line, entityClass);
-                    if (id.equals(entity.getId())) {
-                        logger.debug("Found {} with ID {} in {}", entityClass.getSimpleName(), id, jsonlFile);
-                        return Optional.of(entity);
-                    }
-                } catch (IOException e) {
-                    logger.warn("Failed to parse line in {}: {}", jsonlFile, line, e);
-                }
+
+        try (FileChannel channel = FileChannel.open(jsonlFile, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(line.length());
+            while (buffer.hasRemaining() && channel.read(buffer, line.offset() + buffer.position()) >= 0) {
+                // read until the whole line is in the buffer
             }
-            
+            return Optional.of(objectMapper.readValue(buffer.array(), 0, buffer.position(), entityClass));
         } catch (IOException e) {
-            logger.error("Failed to read from {}", jsonlFile, e);
+            logger.error("Failed to read {} with ID {} from {}", entityClass.getSimpleName(), id, jsonlFile, e);
+            return Optional.empty();
         }
-        
-        return Optional.empty();
     }
-    
+
     @Override
-    public List<T> findAll() {
-        List<T> entities = new ArrayList<>();
-        
-        if (!Files.exists(jsonlFile)) {
+    public synchronized List<T> findAll() {
+        List<T> entities = new ArrayList<>(index.size());
+        if (index.isEmpty()) {
             return entities;
         }
-        
-        try (BufferedReader reader = Files.newBufferedReader(jsonlFile)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                
-                try {
-                    T entity = objectMapper.readValue(line, entityClass);
-                    entities.add(entity);
-                } catch (IOException e) {
-                    logger.warn("Failed to parse line in {}: {}", jsonlFile, line, e);
-                }
-            }
-            
+
+        final byte[] content;
+        try {
+            content = Files.readAllBytes(jsonlFile);
         } catch (IOException e) {
             throw new LocalStorageException("Failed to read from: " + jsonlFile, e);
         }
-        
+        for (Line line : index.values()) {
+            try {
+                entities.add(objectMapper.readValue(content, (int) line.offset(), line.length(), entityClass));
+            } catch (IOException e) {
+                logger.warn("Failed to parse line at offset {} in {}", line.offset(), jsonlFile, e);
+            }
+        }
+
         logger.debug("Found {} entities of type {} in {}", entities.size(), entityClass.getSimpleName(), jsonlFile);
         return entities;
     }
-    
+
     @Override
-    public void deleteById(ID id) {
-        if (id == null || !Files.exists(jsonlFile)) {
+    public synchronized void deleteById(ID id) {
+        if (id == null) {
+            return;
+        }
+        final String key = key(id);
+        if (!index.containsKey(key)) {
             return;
         }
-        
+
         try {
-            List<T> allEntities = findAll();
-            allEntities.removeIf(entity -> id.equals(entity.getId()));
-            
-            // Rewrite file without the deleted entity
-            rewriteFile(allEntities);
-            
+            final ObjectNode tombstone = objectMapper.createObjectNode();
+            tombstone.set(TOMBSTONE_FIELD, objectMapper.valueToTree(id));
+            final Line tombstoneLine = append(objectMapper.writeValueAsBytes(tombstone));
+            final Line previous = index.remove(key);
+            garbageBytes += previous.length() + tombstoneLine.length();
             logger.debug("Deleted {} with ID {} from {}", entityClass.getSimpleName(), id, jsonlFile);
-            
         } catch (IOException e) {
             throw new LocalStorageException("Failed to delete entity with ID: " + id, e);
         }
+        compactIfNeeded();
     }
-    
+
     @Override
-    public boolean existsById(ID id) {
-        return findById(id).isPresent();
+    public synchronized boolean existsById(ID id) {
+        return id != null && index.containsKey(key(id));
     }
-    
+
     @Override
-    public void deleteAll() {
+    public synchronized void deleteAll() {
         try {
             Files.deleteIfExists(jsonlFile);
+            index.clear();
+            fileSize = 0;
+            garbageBytes = 0;
             logger.info("Deleted all {} entities from {}", entityClass.getSimpleName(), jsonlFile);
         } catch (IOException e) {
             throw new LocalStorageException("Failed to delete all entities from: " + jsonlFile, e);
         }
     }
-    
+
     @Override
-    public long count() {
-        if (!Files.exists(jsonlFile)) {
-            return 0;
-        }
-        
-        try (BufferedReader reader = Files.newBufferedReader(jsonlFile)) {
-            return reader.lines()
-                    .map(String::trim)
-                    .filter(line -> !line.isEmpty())
-                    .count();
-        } catch (IOException e) {
-            throw new LocalStorageException("Failed to count entities in: " + jsonlFile, e);
-        }
+    public synchronized long count() {
+        return index.size();
     }
-    
+
     /**
-     * Append new entity to the end of file - this is the fast path for new entities
+     * Rewrites the file with the live lines only. Runs on the compaction thread, but can be called
+     * directly as well.
      */
-    private void appendEntity(T entity) throws IOException {
-        String jsonLine = objectMapper.writeValueAsString(entity);
-        
-        try (BufferedWriter writer = Files.newBufferedWriter(jsonlFile, 
-                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
-            writer.write(jsonLine);
-            writer.newLine();
+    public synchronized void compact() {
+        compactionScheduled = false;
+        if (garbageBytes == 0) {
+            return;
         }
+        try {
+            final byte[] content = Files.readAllBytes(jsonlFile);
+            final Map<String, Line> compactedIndex = new LinkedHashMap<>();
+            // Write to temp file first for atomicity
+            final Path tempFile = Files.createTempFile(jsonlFile.getParent(), "tmp_", ".jsonl");
+            long offset = 0;
+            try (OutputStream output = Files.newOutputStream(tempFile)) {
+                for (Map.Entry<String, Line> entry : index.entrySet()) {
+                    final Line line = entry.getValue();
+                    output.write(content, (int) line.offset(), line.length());
+                    output.write(NEWLINE);
+                    compactedIndex.put(entry.getKey(), new Line(offset, line.length()));
+                    offset += line.length() + 1;
+                }
+            }
+            // Atomic move
+            Files.move(tempFile, jsonlFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Compacted {} from {} to {} bytes", jsonlFile, fileSize, offset);
+            index.clear();
+            index.putAll(compactedIndex);
+            fileSize = offset;
+            garbageBytes = 0;
+        } catch (IOException e) {
+            logger.warn("Failed to compact {}", jsonlFile, e);
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (compactionScheduled
+                || fileSize < COMPACTION_MIN_FILE_SIZE
+                || garbageBytes < fileSize * COMPACTION_GARBAGE_RATIO) {
+            return;
+        }
+        compactionScheduled = true;
+        COMPACTION_EXECUTOR.execute(this::compact);
     }
-    
+
     /**
-     * Replace existing entity - requires rewriting the file
+     * Appends one line and returns its position (without the trailing newline).
      */
-    private void replaceEntity(T entity) throws IOException {
-        List<T> allEntities = findAll();
-        
-        // Replace the entity with the same ID
-        for (int i = 0; i < allEntities.size(); i++) {
-            if (entity.getId().equals(allEntities.get(i).getId())) {
-                allEntities.set(i, entity);
-                break;
+    private Line append(byte[] json) throws IOException {
+        try (OutputStream output = Files.newOutputStream(jsonlFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            output.write(json);
+            output.write(NEWLINE);
+        }
+        final Line line = new Line(fileSize, json.length);
+        fileSize += json.length + 1;
+        return line;
+    }
+
+    private void loadIndex() throws IOException {
+        if (!Files.exists(jsonlFile)) {
+            return;
+        }
+        final ByteArrayOutputStream currentLine = new ByteArrayOutputStream();
+        long lineStart = 0;
+        long position = 0;
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(jsonlFile))) {
+            int next;
+            while ((next = input.read()) != -1) {
+                position++;
+                if (next == NEWLINE) {
+                    indexLine(currentLine, lineStart);
+                    currentLine.reset();
+                    lineStart = position;
+                } else {
+                    currentLine.write(next);
+                }
+            }
+        }
+        fileSize = position;
+        if (currentLine.size() > 0) {
+            // Last write was interrupted before its newline; terminate it so the next append starts a new line.
+            logger.warn("Incomplete last line in {}, treating it as garbage", jsonlFile);
+            garbageBytes += currentLine.size();
+            try (OutputStream output = Files.newOutputStream(jsonlFile, StandardOpenOption.APPEND)) {
+                output.write(NEWLINE);
             }
+            fileSize++;
         }
-        
-        rewriteFile(allEntities);
     }
-    
-    /**
-     * Rewrite entire file with given entities
-     */
-    private void rewriteFile(List<T> entities) throws IOException {
-        // Write to temp file first for atomicity
-        Path tempFile = Files.createTempFile(jsonlFile.getParent(), "tmp_", ".jsonl");
-        
-        try (BufferedWriter writer = Files.newBufferedWriter(tempFile)) {
-            for (T entity : entities) {
-                String jsonLine = objectMapper.writeValueAsString(entity);
-                writer.write(jsonLine);
-                writer.newLine();
+
+    private void indexLine(ByteArrayOutputStream currentLine, long lineStart) {
+        final byte[] bytes = currentLine.toByteArray();
+        if (new String(bytes, StandardCharsets.UTF_8).isBlank()) {
+            garbageBytes += bytes.length;
+            return;
+        }
+        try {
+            final JsonNode node = objectMapper.readTree(bytes);
+            if (node.has(TOMBSTONE_FIELD)) {
+                final Line previous = index.remove(key(node.get(TOMBSTONE_FIELD)));
+                garbageBytes += bytes.length + (previous == null ? 0 : previous.length());
+                return;
             }
+            final T entity = objectMapper.treeToValue(node, entityClass);
+            final Line previous = index.put(key(entity.getId()), new Line(lineStart, bytes.length));
+            if (previous != null) {
+                garbageBytes += previous.length();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to parse line at offset {} in {}", lineStart, jsonlFile, e);
+            garbageBytes += bytes.length;
         }
-        
-        // Atomic move
-        Files.move(tempFile, jsonlFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
-}
\ No newline at end of file
+
+    private String key(ID id) {
+        return key((JsonNode) objectMapper.valueToTree(id));
+    }
+
+    /**
+     * Index key of a serialized ID. A {@code Long} ID serializes to a {@code LongNode} but reads
+     * back from the file as an {@code IntNode}, and the two are not equal; their text is.
+     */
+    private static String key(JsonNode id) {
+        return id.isValueNode() ? id.asText() : id.toString();
+    }
+
+    /**
+     * Position of one JSON line in the file, excluding its newline.
+     */
+    private record Line(long offset, int length) {
+    }
+}
@@ -2,6 +2,7 @@ package com.patres.alina.uidesktop.backend;
 
 import com.patres.alina.AppLauncher;
 import com.patres.alina.common.card.UpdateStateRequest;
+import com.patres.alina.common.message.ChatMessagePage;
 import com.patres.alina.common.message.ChatMessageResponseModel;
 import com.patres.alina.common.message.ChatMessageSendModel;
 import com.patres.alina.common.agent.AgentRuntimeStatus;
@@ -31,6 +32,7 @@ import com.patres.alina.server.workspace.WorkspaceController;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 
 public class BackendApi {
@@ -60,6 +62,10 @@ public class BackendApi {
         return AppLauncher.getBean(ChatMessageController.class).getMessagesByThreadId(chatThreadId);
     }
 
+    public static ChatMessagePage getMessagesByThreadId(String chatThreadId, String beforeCursor, int limit) {
+        return AppLauncher.getBean(ChatMessageController.class).getMessagesByThreadId(chatThreadId, beforeCursor, limit);
+    }
+
 
     public static Optional<ChatThread> getChatThread(String chatThreadId) {
         return AppLauncher.getBean(ChatThreadController.class).getChatThread(chatThreadId);
@@ -171,11 +177,15 @@ public class BackendApi {
     // Note count
     // ═══════════════════════════════════════════
 
-    public static long getNoteCount() {
+    public static OptionalLong getNoteCount() {
         final WorkspaceSettings settings = getWorkspaceSettings();
         return NoteCountService.countAllNotes(settings);
     }
 
+    public static void addNotesChangedListener(final Runnable listener) {
+        NoteCountService.addNotesChangedListener(listener);
+    }
+
     // ═══════════════════════════════════════════
     // Scheduler
     // ═══════════════════════════════════════════
@@ -15,6 +15,7 @@ import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.geometry.Point2D;
 import javafx.scene.control.ListCell;
@@ -28,6 +29,8 @@ import org.kordamp.ikonli.javafx.FontIcon;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
 
 import static com.patres.alina.uidesktop.settings.SettingsMangers.QUICK_ACTION_SETTINGS;
 import static org.apache.commons.lang3.StringUtils.containsIgnoreCase;
@@ -44,6 +47,10 @@ public class SearchCommandPopup extends Popup {
     private final TextArea chatTextArea;
     private final ObjectProperty<CardListItem> selectedCommand = new SimpleObjectProperty<>();
     private final ObjectProperty<QuickActionType> selectedQuickAction = new SimpleObjectProperty<>();
+    private final Consumer<CommandUpdateEvent> commandUpdateEventConsumer = e -> fetchAllCommands();
+    private final Consumer<QuickActionSettingsUpdateEvent> quickActionSettingsUpdateEventConsumer = e -> fetchAllQuickActions();
+    private final ChangeListener<Locale> localeChangeListener =
+            (obs, oldLocale, newLocale) -> Platform.runLater(this::fetchAllQuickActions);
 
     private List<Command> allCommands = List.of();
     private List<CardListItem> allQuickActions = List.of();
@@ -58,9 +65,19 @@ public class SearchCommandPopup extends Popup {
         fetchAllCommands();
         setupEscapeKeyHandler();
 
-        DefaultEventBus.getInstance().subscribe(CommandUpdateEvent.class, e -> fetchAllCommands());
-        DefaultEventBus.getInstance().subscribe(QuickActionSettingsUpdateEvent.class, e -> fetchAllQuickActions());
-        LanguageManager.localeProperty().addListener((obs, oldLocale, newLocale) -> Platform.runLater(this::fetchAllQuickActions));
+        DefaultEventBus.getInstance().subscribe(CommandUpdateEvent.class, commandUpdateEventConsumer);
+        DefaultEventBus.getInstance().subscribe(QuickActionSettingsUpdateEvent.class, quickActionSettingsUpdateEventConsumer);
+        LanguageManager.localeProperty().addListener(localeChangeListener);
+    }
+
+    /**
+     * Detaches the popup from application-wide events, so that it and its chat window can be collected.
+     */
+    public void dispose() {
+        hide();
+        DefaultEventBus.getInstance().unsubscribe(CommandUpdateEvent.class, commandUpdateEventConsumer);
+        DefaultEventBus.getInstance().unsubscribe(QuickActionSettingsUpdateEvent.class, quickActionSettingsUpdateEventConsumer);
+        LanguageManager.localeProperty().removeListener(localeChangeListener);
     }
 
     private void fetchAllCommands() {
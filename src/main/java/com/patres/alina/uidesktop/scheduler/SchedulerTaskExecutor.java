@@ -1,6 +1,7 @@
 package com.patres.alina.uidesktop.scheduler;
 
 import com.patres.alina.common.event.bus.DefaultEventBus;
+import com.patres.alina.common.message.ChatMessagePage;
 import com.patres.alina.common.message.ChatMessageSendModel;
 import com.patres.alina.common.message.ChatMessageStyleType;
 import com.patres.alina.common.thread.ChatThread;
@@ -15,8 +16,6 @@ import javafx.util.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-
 /**
  * Handles execution of scheduled tasks on the UI side.
  * Subscribes to {@link SchedulerTaskTriggeredEvent} and dispatches
@@ -58,10 +57,10 @@ public class SchedulerTaskExecutor {
      */
     private void executeInCurrentTab(ScheduledTask task) {
         Platform.runLater(() -> {
-            var chatWindow = applicationWindow.getChatWindow();
-            if (chatWindow != null) {
-                chatWindow.sendMessageWithModel(task.prompt(), null, null, task.model());
-            } else {
+            boolean accepted = applicationWindow.whenActiveChatWindowReady(chatWindow ->
+                    chatWindow.sendMessageWithModel(task.prompt(), null, null, task.model())
+            );
+            if (!accepted) {
                 logger.warn("No active chat window for CURRENT_TAB mode, falling back to NEW_TAB");
                 executeInNewTab(task);
             }
@@ -76,7 +75,7 @@ public class SchedulerTaskExecutor {
         Thread.startVirtualThread(() -> {
             ChatThread newThread = BackendApi.createChatThread();
             Platform.runLater(() -> {
-                applicationWindow.loadChatThread(newThread, List.of());
+                applicationWindow.loadChatThread(newThread, ChatMessagePage.EMPTY);
                 // Delay sending to let WebView initialize (avoid scrollToBottom race)
                 PauseTransition delay = new PauseTransition(Duration.millis(500));
                 delay.setOnFinished(e -> {
@@ -2,6 +2,8 @@ package com.patres.alina.uidesktop.settings;
 
 import com.patres.alina.uidesktop.ui.util.NotificationSound;
 
+import java.time.Duration;
+
 public record UiSettings(
         String theme,
         String language,
@@ -11,7 +13,10 @@ public record UiSettings(
         Boolean showExpandButton,
         Integer expandWidth,
         Boolean autoSplitOnExpand,
-        Boolean mascotNotificationsEnabled
+        Boolean mascotNotificationsEnabled,
+        Integer streamFrameIntervalMillis,
+        Integer maxLiveChatTabs,
+        Integer chatTabHibernateAfterMinutes
 ) {
 
     private static final String DEFAULT_THEME = "Calm Command Center";
@@ -22,12 +27,17 @@ public record UiSettings(
     private static final int DEFAULT_EXPAND_WIDTH = 1000;
     private static final boolean DEFAULT_AUTO_SPLIT_ON_EXPAND = false;
     private static final boolean DEFAULT_MASCOT_NOTIFICATIONS_ENABLED = true;
+    private static final int DEFAULT_STREAM_FRAME_INTERVAL_MILLIS = 16;
+    private static final int MAX_STREAM_FRAME_INTERVAL_MILLIS = 250;
+    private static final int DEFAULT_MAX_LIVE_CHAT_TABS = 5;
+    private static final int DEFAULT_CHAT_TAB_HIBERNATE_AFTER_MINUTES = 30;
 
     public UiSettings() {
         this(DEFAULT_THEME, DEFAULT_LANGUAGE, new ShortcutKeysSettings(),
                 DEFAULT_SOUND_NOTIFICATION_ENABLED, DEFAULT_NOTIFICATION_SOUND.name(),
                 DEFAULT_SHOW_EXPAND_BUTTON, DEFAULT_EXPAND_WIDTH, DEFAULT_AUTO_SPLIT_ON_EXPAND,
-                DEFAULT_MASCOT_NOTIFICATIONS_ENABLED);
+                DEFAULT_MASCOT_NOTIFICATIONS_ENABLED, DEFAULT_STREAM_FRAME_INTERVAL_MILLIS,
+                DEFAULT_MAX_LIVE_CHAT_TABS, DEFAULT_CHAT_TAB_HIBERNATE_AFTER_MINUTES);
     }
 
     public UiSettings(String theme,
@@ -38,7 +48,10 @@ public record UiSettings(
                       Boolean showExpandButton,
                       Integer expandWidth,
                       Boolean autoSplitOnExpand,
-                      Boolean mascotNotificationsEnabled) {
+                      Boolean mascotNotificationsEnabled,
+                      Integer streamFrameIntervalMillis,
+                      Integer maxLiveChatTabs,
+                      Integer chatTabHibernateAfterMinutes) {
         this.theme = theme == null ? DEFAULT_THEME : theme;
         this.language = language == null ? DEFAULT_LANGUAGE : language;
         this.shortcutKeysSettings = shortcutKeysSettings == null ? new ShortcutKeysSettings() : shortcutKeysSettings;
@@ -50,6 +63,13 @@ public record UiSettings(
         this.mascotNotificationsEnabled = mascotNotificationsEnabled == null
                 ? DEFAULT_MASCOT_NOTIFICATIONS_ENABLED
                 : mascotNotificationsEnabled;
+        this.streamFrameIntervalMillis = streamFrameIntervalMillis == null
+                ? DEFAULT_STREAM_FRAME_INTERVAL_MILLIS
+                : streamFrameIntervalMillis;
+        this.maxLiveChatTabs = maxLiveChatTabs == null ? DEFAULT_MAX_LIVE_CHAT_TABS : maxLiveChatTabs;
+        this.chatTabHibernateAfterMinutes = chatTabHibernateAfterMinutes == null
+                ? DEFAULT_CHAT_TAB_HIBERNATE_AFTER_MINUTES
+                : chatTabHibernateAfterMinutes;
     }
 
     public boolean isSoundNotificationEnabled() {
@@ -70,6 +90,35 @@ public record UiSettings(
                 : DEFAULT_MASCOT_NOTIFICATIONS_ENABLED;
     }
 
+    /**
+     * Interval in which streamed tokens are coalesced into one chat view update;
+     * 16 ms is one frame at 60 Hz, 33 ms one frame at 30 Hz.
+     */
+    public int resolveStreamFrameIntervalMillis() {
+        if (streamFrameIntervalMillis == null || streamFrameIntervalMillis <= 0) {
+            return DEFAULT_STREAM_FRAME_INTERVAL_MILLIS;
+        }
+        return Math.min(streamFrameIntervalMillis, MAX_STREAM_FRAME_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Number of chat tabs that keep their web view; older background tabs are hibernated.
+     */
+    public int resolveMaxLiveChatTabs() {
+        return maxLiveChatTabs != null && maxLiveChatTabs > 0 ? maxLiveChatTabs : DEFAULT_MAX_LIVE_CHAT_TABS;
+    }
+
+    /**
+     * Idle time after which a background chat tab is hibernated; {@link Duration#ZERO} turns idle
+     * hibernation off, leaving only the {@link #resolveMaxLiveChatTabs() live tab limit}.
+     */
+    public Duration resolveChatTabHibernateAfter() {
+        if (chatTabHibernateAfterMinutes == null) {
+            return Duration.ofMinutes(DEFAULT_CHAT_TAB_HIBERNATE_AFTER_MINUTES);
+        }
+        return Duration.ofMinutes(Math.max(chatTabHibernateAfterMinutes, 0));
+    }
+
     public int resolveExpandWidth() {
         return expandWidth != null && expandWidth > 0 ? expandWidth : DEFAULT_EXPAND_WIDTH;
     }
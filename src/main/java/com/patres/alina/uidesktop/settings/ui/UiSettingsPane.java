@@ -95,7 +95,9 @@ public class UiSettingsPane extends SettingsModalPaneContent {
         final boolean mascotNotificationsEnabled = mascotNotificationsToggle.isSelected();
 
         UI_SETTINGS.saveDocument(new UiSettings(theme, language, shortcutKeysSettings, soundEnabled, soundType,
-                showExpandButton, expandWidth, autoSplitOnExpand, mascotNotificationsEnabled));
+                showExpandButton, expandWidth, autoSplitOnExpand, mascotNotificationsEnabled,
+                uiSettings.streamFrameIntervalMillis(), uiSettings.maxLiveChatTabs(),
+                uiSettings.chatTabHibernateAfterMinutes()));
     }
 
     private void loadDataFromSettings() {
@@ -104,14 +104,20 @@ public class CommandExecutor {
                 text.substring(0, Math.min(100, text.length())));
 
         Platform.runLater(() -> {
-            LOADING_INDICATOR.show();
             String threadId = applicationWindow.getChatThread().map(t -> t.id()).orElse(null);
-            subscribeToStream(threadId);
-            applicationWindow.getChatWindow().sendMessage(
-                    text,
-                    command.id(),
-                    wrapOnComplete(onComplete, threadId)
-            );
+            // The active tab may be hibernated; its window is then restored before the command runs
+            boolean accepted = applicationWindow.whenActiveChatWindowReady(chatWindow -> {
+                LOADING_INDICATOR.show();
+                subscribeToStream(threadId);
+                chatWindow.sendMessage(
+                        text,
+                        command.id(),
+                        wrapOnComplete(onComplete, threadId)
+                );
+            });
+            if (!accepted) {
+                logger.warn("No active chat window for command '{}'", command.name());
+            }
         });
 
         // Return focus to the source app after triggering the command on the FX thread
@@ -205,11 +211,11 @@ public class CommandExecutor {
                         || event.getEventType() == ChatMessageStreamEvent.StreamEventType.CANCELLED
                         || event.getEventType() == ChatMessageStreamEvent.StreamEventType.ERROR) {
                     LOADING_INDICATOR.hide();
-                    DefaultEventBus.getInstance().unsubscribe(ChatMessageStreamEvent.class, this);
+                    DefaultEventBus.getInstance().unsubscribe(ChatMessageStreamEvent.class, threadId, this);
                 }
             }
         };
-        DefaultEventBus.getInstance().subscribe(ChatMessageStreamEvent.class, listener);
+        DefaultEventBus.getInstance().subscribe(ChatMessageStreamEvent.class, threadId, listener);
     }
 
     private void unsubscribeFromStream(String threadId) {
@@ -3,7 +3,7 @@ package com.patres.alina.uidesktop.ui;
 import com.patres.alina.common.event.bus.DefaultEventBus;
 import com.patres.alina.common.event.ChatMessageStreamEvent;
 import com.patres.alina.common.event.ChatThreadTitleUpdatedEvent;
-import com.patres.alina.common.message.ChatMessageResponseModel;
+import com.patres.alina.common.message.ChatMessagePage;
 import com.patres.alina.common.thread.ChatThread;
 import com.patres.alina.uidesktop.Resources;
 import com.patres.alina.uidesktop.backend.BackendApi;
@@ -17,10 +17,13 @@ import com.patres.alina.uidesktop.settings.ui.AboutPane;
 import com.patres.alina.uidesktop.settings.ui.ApplicationModalPaneContent;
 import com.patres.alina.uidesktop.settings.ui.DashboardSettingsPane;
 import com.patres.alina.uidesktop.settings.ui.OpenCodeSettingsPane;
+import com.patres.alina.uidesktop.settings.UiSettings;
 import com.patres.alina.uidesktop.settings.ui.UiSettingsPane;
 import com.patres.alina.uidesktop.ui.chat.Browser;
+import com.patres.alina.uidesktop.ui.chat.BrowserPool;
 import com.patres.alina.uidesktop.ui.chat.ChatTabBar;
 import com.patres.alina.uidesktop.ui.chat.ChatWindow;
+import com.patres.alina.uidesktop.ui.chat.ChatWindowState;
 import com.patres.alina.uidesktop.ui.language.LanguageManager;
 import com.patres.alina.uidesktop.ui.calendar.GoogleCalendarFeed;
 import com.patres.alina.uidesktop.ui.dashboard.DashboardPane;
@@ -32,12 +35,18 @@ import com.patres.alina.uidesktop.ui.dashboard.JiraWidget;
 import com.patres.alina.uidesktop.ui.dashboard.MediaControlWidget;
 import com.patres.alina.uidesktop.ui.dashboard.ObsidianWidget;
 import com.patres.alina.uidesktop.ui.dashboard.UpcomingCalendarEventWidget;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -45,17 +54,23 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static com.patres.alina.uidesktop.settings.SettingsMangers.UI_SETTINGS;
 
 public class ApplicationWindow extends BorderPane {
 
@@ -67,6 +82,15 @@ public class ApplicationWindow extends BorderPane {
     private String activeTabId;
     private ChatTabBar chatTabBar;
 
+    // Hibernated tabs keep only a snapshot; their ChatWindow is recreated when switched to
+    private final Map<String, ChatWindowState> hibernatedTabs = new HashMap<>();
+    private final Set<String> wakingTabs = new HashSet<>();
+    // Actions waiting for the window of a tab that is being woken up
+    private final Map<String, List<Consumer<ChatWindow>>> pendingWindowActions = new HashMap<>();
+    private VBox tabWakeErrorPane;
+    private final TabHibernationPolicy tabHibernationPolicy = new TabHibernationPolicy();
+    private final Timeline tabHibernationTimeline = new Timeline(new KeyFrame(Duration.minutes(1), e -> hibernateIdleTabs()));
+
     private ApplicationHeaderButtonBox headerButtonBox;
     private String activeAgentSessionUri;
     private long agentSessionUriRefreshGeneration;
@@ -188,6 +212,9 @@ public class ApplicationWindow extends BorderPane {
 
         refreshIntegrationWidgets();
         createAndOpenInitialChatThread();
+        BrowserPool.getInstance().warmUp();
+        tabHibernationTimeline.setCycleCount(Animation.INDEFINITE);
+        tabHibernationTimeline.play();
         rootCenterContainer.getChildren()
                 .add(appModalPane);
 
@@ -257,7 +284,7 @@ public class ApplicationWindow extends BorderPane {
         Thread.startVirtualThread(() -> {
             ChatThread thread = BackendApi.getChatThread(event.getThreadId()).orElse(null);
             if (thread != null) {
-                List<ChatMessageResponseModel> messages = BackendApi.getMessagesByThreadId(thread.id());
+                ChatMessagePage messages = BackendApi.getMessagesByThreadId(thread.id(), null, ChatWindow.HISTORY_PAGE_SIZE);
                 Platform.runLater(() -> {
                     loadChatThreadInActiveTab(thread, messages);
                     appModalPane.hide(false);
@@ -289,20 +316,29 @@ public class ApplicationWindow extends BorderPane {
             currentWindow.setVisible(false);
             currentWindow.setManaged(false);
         }
+        hideTabWakeError();
 
+        if (activeTabId != null) {
+            tabHibernationPolicy.markActive(activeTabId);
+        }
         activeTabId = threadId;
+        tabHibernationPolicy.markActive(threadId);
 
-        // Show the target chat window
+        // Show the target chat window, waking it up if it was hibernated
         ChatWindow targetWindow = chatWindows.get(threadId);
+        if (targetWindow == null && hibernatedTabs.containsKey(threadId)) {
+            wakeTab(threadId);
+        }
         if (targetWindow != null) {
             targetWindow.setVisible(true);
             targetWindow.setManaged(true);
         }
         refreshAgentSessionUri();
+        hibernateIdleTabs();
     }
 
     private void closeTab(String threadId) {
-        if (chatWindows.size() <= 1) {
+        if (chatThreads.size() <= 1) {
             return;
         }
 
@@ -323,6 +359,9 @@ public class ApplicationWindow extends BorderPane {
         // Remove the chat window
         ChatWindow window = chatWindows.remove(threadId);
         chatThreads.remove(threadId);
+        hibernatedTabs.remove(threadId);
+        pendingWindowActions.remove(threadId);
+        tabHibernationPolicy.forget(threadId);
         if (window != null) {
             window.unsubscribeEvents();
             chatContentPane.getChildren().remove(window);
@@ -331,9 +370,9 @@ public class ApplicationWindow extends BorderPane {
         chatTabBar.removeTab(threadId);
     }
 
-    private void addTabAndLoadChat(ChatThread chatThread, List<ChatMessageResponseModel> messages) {
+    private void addTabAndLoadChat(ChatThread chatThread, ChatMessagePage messages) {
         // If tab already exists, just switch to it
-        if (chatWindows.containsKey(chatThread.id())) {
+        if (chatThreads.containsKey(chatThread.id())) {
             chatTabBar.selectTab(chatThread.id());
             switchToTab(chatThread.id());
             return;
@@ -344,23 +383,15 @@ public class ApplicationWindow extends BorderPane {
         if (currentWindow != null) {
             currentWindow.setVisible(false);
             currentWindow.setManaged(false);
+            tabHibernationPolicy.markActive(activeTabId);
         }
+        hideTabWakeError();
 
         // Create new ChatWindow
-        ChatWindow newWindow = new ChatWindow(chatThread, this, messages);
-        newWindow.setVisible(true);
-        newWindow.setManaged(true);
-        newWindow.setMinWidth(0);
-        VBox.setMargin(newWindow, new Insets(2, 0, 0, 0));
-        VBox.setVgrow(newWindow, javafx.scene.layout.Priority.ALWAYS);
-
-        // Store in maps
-        chatWindows.put(chatThread.id(), newWindow);
         chatThreads.put(chatThread.id(), chatThread);
+        ChatWindow newWindow = createChatWindow(chatThread, messages);
         activeTabId = chatThread.id();
-
-        // Add to chat content pane
-        chatContentPane.getChildren().add(newWindow);
+        tabHibernationPolicy.markActive(activeTabId);
 
         // Add tab and activate it
         chatTabBar.addTab(chatThread, true);
@@ -368,6 +399,122 @@ public class ApplicationWindow extends BorderPane {
         refreshAgentSessionUri();
         newWindow.focusTextArea();
         dashboardPane.refreshAsync();
+        hibernateIdleTabs();
+    }
+
+    private ChatWindow createChatWindow(ChatThread chatThread, ChatMessagePage messages) {
+        ChatWindow window = new ChatWindow(chatThread, this, messages);
+        window.setVisible(true);
+        window.setManaged(true);
+        window.setMinWidth(0);
+        VBox.setMargin(window, new Insets(2, 0, 0, 0));
+        VBox.setVgrow(window, javafx.scene.layout.Priority.ALWAYS);
+
+        chatWindows.put(chatThread.id(), window);
+        chatContentPane.getChildren().add(window);
+        return window;
+    }
+
+    // ═══════════════════════════════════════════
+    // Tab hibernation
+    // ═══════════════════════════════════════════
+
+    /**
+     * Releases the web views of background tabs above the live tab limit or idle for too long.
+     * Their draft, attachments and scroll position are kept and restored by {@link #wakeTab(String)}.
+     */
+    private void hibernateIdleTabs() {
+        final UiSettings settings = UI_SETTINGS.getSettings();
+        tabHibernationPolicy.selectTabsToHibernate(
+                chatWindows.keySet(),
+                activeTabId,
+                threadId -> chatWindows.get(threadId).isStreaming(),
+                settings.resolveMaxLiveChatTabs(),
+                settings.resolveChatTabHibernateAfter()
+        ).forEach(this::hibernateTab);
+    }
+
+    private void hibernateTab(String threadId) {
+        ChatWindow window = chatWindows.remove(threadId);
+        if (window == null) {
+            return;
+        }
+        hibernatedTabs.put(threadId, window.snapshotState());
+        window.unsubscribeEvents();
+        chatContentPane.getChildren().remove(window);
+        logger.debug("Hibernated chat tab {}", threadId);
+    }
+
+    /**
+     * Rebuilds the window of a hibernated tab once its history is fetched off the FX thread.
+     * The tab stays hibernated until then; it is left alone if it was closed meanwhile. If the
+     * history cannot be loaded, the tab stays hibernated and, when active, shows a retry button.
+     */
+    private void wakeTab(String threadId) {
+        if (!wakingTabs.add(threadId)) {
+            return;
+        }
+        Thread.startVirtualThread(() -> {
+            ChatMessagePage messages;
+            try {
+                // The backend serves the history of a recently open thread from its conversation cache
+                messages = BackendApi.getMessagesByThreadId(threadId, null, ChatWindow.HISTORY_PAGE_SIZE);
+            } catch (Exception e) {
+                logger.warn("Cannot load history of hibernated chat tab {}", threadId, e);
+                messages = null;
+            }
+            final ChatMessagePage loadedMessages = messages;
+            Platform.runLater(() -> {
+                wakingTabs.remove(threadId);
+                ChatThread chatThread = chatThreads.get(threadId);
+                if (chatThread == null || chatWindows.containsKey(threadId) || !hibernatedTabs.containsKey(threadId)) {
+                    return;
+                }
+                boolean active = threadId.equals(activeTabId);
+                if (loadedMessages == null) {
+                    List<Consumer<ChatWindow>> dropped = pendingWindowActions.remove(threadId);
+                    if (dropped != null) {
+                        logger.warn("Dropping {} action(s) waiting for chat tab {}", dropped.size(), threadId);
+                    }
+                    if (active) {
+                        showTabWakeError(threadId);
+                    }
+                    return;
+                }
+                ChatWindowState state = hibernatedTabs.remove(threadId);
+                ChatWindow window = createChatWindow(chatThread, loadedMessages);
+                window.restoreState(state);
+                window.setVisible(active);
+                window.setManaged(active);
+                logger.debug("Woke up hibernated chat tab {}", threadId);
+                List<Consumer<ChatWindow>> actions = pendingWindowActions.remove(threadId);
+                if (actions != null) {
+                    actions.forEach(action -> action.accept(window));
+                }
+            });
+        });
+    }
+
+    private void showTabWakeError(String threadId) {
+        hideTabWakeError();
+        Label messageLabel = new Label(LanguageManager.getLanguageString("chat.tab.wake.error"));
+        messageLabel.setWrapText(true);
+        Button retryButton = new Button(LanguageManager.getLanguageString("chat.tab.wake.retry"));
+        retryButton.setOnAction(_ -> {
+            hideTabWakeError();
+            wakeTab(threadId);
+        });
+        tabWakeErrorPane = new VBox(8, messageLabel, retryButton);
+        tabWakeErrorPane.setAlignment(Pos.CENTER);
+        VBox.setVgrow(tabWakeErrorPane, Priority.ALWAYS);
+        chatContentPane.getChildren().add(tabWakeErrorPane);
+    }
+
+    private void hideTabWakeError() {
+        if (tabWakeErrorPane != null) {
+            chatContentPane.getChildren().remove(tabWakeErrorPane);
+            tabWakeErrorPane = null;
+        }
     }
 
     // ═══════════════════════════════════════════
@@ -569,7 +716,7 @@ public class ApplicationWindow extends BorderPane {
         Thread.startVirtualThread(() -> {
             final ChatThread newThread = BackendApi.createChatThread();
             Platform.runLater(() -> {
-                addTabAndLoadChat(newThread, List.of());
+                addTabAndLoadChat(newThread, ChatMessagePage.EMPTY);
                 appModalPane.hide(true);
             });
         });
@@ -578,21 +725,21 @@ public class ApplicationWindow extends BorderPane {
     private void createAndOpenInitialChatThread() {
         Thread.startVirtualThread(() -> {
             ChatThread chatThread = BackendApi.createChatThread();
-            Platform.runLater(() -> addTabAndLoadChat(chatThread, List.of()));
+            Platform.runLater(() -> addTabAndLoadChat(chatThread, ChatMessagePage.EMPTY));
         });
     }
 
     public void createNewChatThread() {
         Thread.startVirtualThread(() -> {
             final ChatThread newThread = BackendApi.createChatThread();
-            Platform.runLater(() -> addTabAndLoadChat(newThread, List.of()));
+            Platform.runLater(() -> addTabAndLoadChat(newThread, ChatMessagePage.EMPTY));
         });
     }
 
     public void clearCurrentChatThread() {
         Thread.startVirtualThread(() -> {
             final ChatThread newThread = BackendApi.createChatThread();
-            Platform.runLater(() -> loadChatThreadInActiveTab(newThread, List.of()));
+            Platform.runLater(() -> loadChatThreadInActiveTab(newThread, ChatMessagePage.EMPTY));
         });
     }
 
@@ -601,9 +748,9 @@ public class ApplicationWindow extends BorderPane {
      * Used by command shortcuts and history selection when we want to replace
      * the active tab's content rather than creating a new tab.
      */
-    public void loadChatThreadInActiveTab(ChatThread chatThread, List<ChatMessageResponseModel> messages) {
+    public void loadChatThreadInActiveTab(ChatThread chatThread, ChatMessagePage messages) {
         // If there's already a tab for this thread, just switch to it
-        if (chatWindows.containsKey(chatThread.id())) {
+        if (chatThreads.containsKey(chatThread.id())) {
             chatTabBar.selectTab(chatThread.id());
             switchToTab(chatThread.id());
             return;
@@ -613,6 +760,10 @@ public class ApplicationWindow extends BorderPane {
         if (activeTabId != null) {
             ChatWindow oldWindow = chatWindows.remove(activeTabId);
             chatThreads.remove(activeTabId);
+            hibernatedTabs.remove(activeTabId);
+            pendingWindowActions.remove(activeTabId);
+            tabHibernationPolicy.forget(activeTabId);
+            hideTabWakeError();
             if (oldWindow != null) {
                 oldWindow.unsubscribeEvents();
                 chatContentPane.getChildren().remove(oldWindow);
@@ -625,17 +776,17 @@ public class ApplicationWindow extends BorderPane {
     }
 
     public void loadChatThread(ChatThread chatThread) {
-        loadChatThread(chatThread, BackendApi.getMessagesByThreadId(chatThread.id()));
+        loadChatThread(chatThread, BackendApi.getMessagesByThreadId(chatThread.id(), null, ChatWindow.HISTORY_PAGE_SIZE));
     }
 
-    public void loadChatThread(ChatThread chatThread, List<ChatMessageResponseModel> messages) {
+    public void loadChatThread(ChatThread chatThread, ChatMessagePage messages) {
         // Open in a new tab (or switch to existing)
         addTabAndLoadChat(chatThread, messages);
     }
 
     public void openChatThread(ChatThread chatThread) {
         Thread.startVirtualThread(() -> {
-            List<ChatMessageResponseModel> messages = BackendApi.getMessagesByThreadId(chatThread.id());
+            ChatMessagePage messages = BackendApi.getMessagesByThreadId(chatThread.id(), null, ChatWindow.HISTORY_PAGE_SIZE);
             Platform.runLater(() -> {
                 addTabAndLoadChat(chatThread, messages);
                 appModalPane.hide(true);
@@ -770,6 +921,30 @@ public class ApplicationWindow extends BorderPane {
         return getActiveChatWindow();
     }
 
+    /**
+     * Runs {@code action} on the FX thread with the active tab's window: at once, or when a
+     * hibernated tab has been woken up. Must be called on the FX thread.
+     *
+     * @return {@code false} if there is no active tab whose window exists or is being restored
+     */
+    public boolean whenActiveChatWindowReady(Consumer<ChatWindow> action) {
+        if (activeTabId == null) {
+            return false;
+        }
+        ChatWindow window = chatWindows.get(activeTabId);
+        if (window != null) {
+            action.accept(window);
+            return true;
+        }
+        if (!hibernatedTabs.containsKey(activeTabId)) {
+            return false;
+        }
+        pendingWindowActions.computeIfAbsent(activeTabId, _ -> new ArrayList<>()).add(action);
+        hideTabWakeError();
+        wakeTab(activeTabId);
+        return true;
+    }
+
     public boolean isActiveTab(String threadId) {
         return threadId != null && threadId.equals(activeTabId);
     }
@@ -780,7 +955,7 @@ public class ApplicationWindow extends BorderPane {
     }
 
     public void activateThread(final String threadId) {
-        if (threadId == null || threadId.isBlank() || !chatWindows.containsKey(threadId)) {
+        if (threadId == null || threadId.isBlank() || !chatThreads.containsKey(threadId)) {
             return;
         }
         chatTabBar.selectTab(threadId);
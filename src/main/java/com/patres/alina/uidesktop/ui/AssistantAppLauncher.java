@@ -11,6 +11,7 @@ import com.patres.alina.uidesktop.mascot.MascotNotifications;
 import com.patres.alina.uidesktop.shortcuts.listener.ShortcutKeyListener;
 import com.patres.alina.uidesktop.ui.contextmenu.AppGlobalContextMenu;
 import com.patres.alina.uidesktop.ui.calendar.GoogleCalendarFeed;
+import com.patres.alina.uidesktop.ui.dashboard.DashboardRefreshScheduler;
 import com.patres.alina.uidesktop.shortcuts.listener.CommandShortcutListener;
 import com.patres.alina.uidesktop.ui.language.LanguageManager;
 import com.patres.alina.uidesktop.ui.theme.ThemeManager;
@@ -82,6 +83,10 @@ public class AssistantAppLauncher {
 
         calendarFeed.start(BackendApi.getWorkspaceSettings().dashboardCalendarRefreshSeconds());
 
+        // Dashboard polling pauses while the window is minimised or hidden to the tray
+        stage.showingProperty().addListener((observable, wasShowing, isShowing) -> updateWindowShowing(stage));
+        stage.iconifiedProperty().addListener((observable, wasIconified, isIconified) -> updateWindowShowing(stage));
+
         DefaultEventBus.getInstance().subscribe(
                 WorkspaceSettingsUpdatedEvent.class,
                 event -> Platform.runLater(() -> {
@@ -132,6 +137,10 @@ public class AssistantAppLauncher {
         ShortcutKeyListener.init();
     }
 
+    private void updateWindowShowing(Stage stage) {
+        DashboardRefreshScheduler.getInstance().setWindowShowing(stage.isShowing() && !stage.isIconified());
+    }
+
     private void loadIcons(Stage stage) {
         int iconSize = 16;
         while (iconSize <= 1024) {
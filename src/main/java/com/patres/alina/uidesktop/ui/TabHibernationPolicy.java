@@ -0,0 +1,71 @@
+package com.patres.alina.uidesktop.ui;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Picks the background chat tabs whose web views should be released: the least recently active
+ * ones above the live tab limit, and the ones idle for longer than the idle timeout.
+ * The active tab and streaming tabs are never picked.
+ */
+final class TabHibernationPolicy {
+
+    private final LongSupplier nanoTime;
+    private final Map<String, Long> lastActiveAt = new HashMap<>();
+
+    TabHibernationPolicy() {
+        this(System::nanoTime);
+    }
+
+    TabHibernationPolicy(final LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    void markActive(final String threadId) {
+        lastActiveAt.put(threadId, nanoTime.getAsLong());
+    }
+
+    void forget(final String threadId) {
+        lastActiveAt.remove(threadId);
+    }
+
+    /**
+     * @param liveTabIds  tabs that still hold a web view
+     * @param activeTabId tab shown to the user
+     * @param streaming   tells whether a tab is streaming a response
+     * @param maxLiveTabs number of tabs allowed to keep a web view
+     * @param idleTimeout idle time after which a tab is hibernated; {@link Duration#ZERO} disables it
+     * @return tabs to hibernate, least recently active first
+     */
+    List<String> selectTabsToHibernate(final Collection<String> liveTabIds,
+                                       final String activeTabId,
+                                       final Predicate<String> streaming,
+                                       final int maxLiveTabs,
+                                       final Duration idleTimeout) {
+        final long now = nanoTime.getAsLong();
+        final List<String> candidates = liveTabIds.stream()
+                .filter(id -> !id.equals(activeTabId))
+                .filter(id -> !streaming.test(id))
+                .sorted(Comparator.comparingLong(id -> lastActiveAt.getOrDefault(id, now)))
+                .toList();
+
+        int excess = liveTabIds.size() - maxLiveTabs;
+        final List<String> selected = new ArrayList<>();
+        for (final String id : candidates) {
+            final boolean idle = !idleTimeout.isZero()
+                    && now - lastActiveAt.getOrDefault(id, now) >= idleTimeout.toNanos();
+            if (excess > 0 || idle) {
+                selected.add(id);
+                excess--;
+            }
+        }
+        return selected;
+    }
+}
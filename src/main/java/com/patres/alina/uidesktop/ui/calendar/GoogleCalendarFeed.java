@@ -2,79 +2,94 @@ package com.patres.alina.uidesktop.ui.calendar;
 
 import com.patres.alina.server.integration.GoogleCalendarResult;
 import com.patres.alina.server.integration.GoogleCalendarService;
+import com.patres.alina.uidesktop.backend.BackendApi;
+import com.patres.alina.uidesktop.ui.dashboard.DashboardRefreshScheduler;
 import javafx.application.Platform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
-/** Single asynchronous source of today's Google Calendar events for all UI consumers. */
+/**
+ * Single asynchronous source of today's Google Calendar events for all UI consumers.
+ * Polling is driven by the {@link DashboardRefreshScheduler}; the feed keeps polling while the
+ * window is hidden only when calendar notifications are enabled.
+ */
 public final class GoogleCalendarFeed implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(GoogleCalendarFeed.class);
 
     private final Supplier<GoogleCalendarResult> fetcher;
     private final Executor callbackExecutor;
-    private final ScheduledExecutorService scheduler;
+    private final DashboardRefreshScheduler.Source refreshSource;
     private final Clock clock;
     private final CopyOnWriteArrayList<Consumer<GoogleCalendarSnapshot>> subscribers =
             new CopyOnWriteArrayList<>();
     private final AtomicBoolean refreshInFlight = new AtomicBoolean();
 
     private volatile GoogleCalendarSnapshot snapshot = GoogleCalendarSnapshot.initialLoading();
-    private ScheduledFuture<?> refreshTask;
+    private volatile int refreshIntervalSeconds = 60;
     private boolean closed;
 
     public GoogleCalendarFeed() {
         this(
                 GoogleCalendarService::fetchTodayEvents,
                 Platform::runLater,
-                Executors.newSingleThreadScheduledExecutor(task -> {
-                    final Thread thread = new Thread(task, "google-calendar-feed");
-                    thread.setDaemon(true);
-                    return thread;
-                }),
+                DashboardRefreshScheduler.getInstance(),
+                () -> {
+                    final var settings = BackendApi.getWorkspaceSettings();
+                    return settings.calendarNotificationsEnabled() || settings.calendarChangeNotificationsEnabled();
+                },
                 Clock.systemUTC()
         );
     }
 
     GoogleCalendarFeed(final Supplier<GoogleCalendarResult> fetcher,
                        final Executor callbackExecutor,
-                       final ScheduledExecutorService scheduler,
+                       final DashboardRefreshScheduler refreshScheduler,
+                       final BooleanSupplier runsWhenHidden,
                        final Clock clock) {
         this.fetcher = fetcher;
         this.callbackExecutor = callbackExecutor;
-        this.scheduler = scheduler;
         this.clock = clock;
+        this.refreshSource = refreshScheduler.register(
+                "google-calendar",
+                () -> Duration.ofSeconds(refreshIntervalSeconds),
+                runsWhenHidden,
+                this::performRefresh
+        );
     }
 
     public synchronized void start(final int refreshIntervalSeconds) {
         ensureOpen();
-        scheduleRefresh(refreshIntervalSeconds);
+        this.refreshIntervalSeconds = Math.max(1, refreshIntervalSeconds);
+        refreshSource.refreshNow();
     }
 
+    /**
+     * Also applies to the refresh that is already scheduled.
+     */
     public synchronized void setRefreshIntervalSeconds(final int refreshIntervalSeconds) {
         ensureOpen();
-        scheduleRefresh(refreshIntervalSeconds);
+        this.refreshIntervalSeconds = Math.max(1, refreshIntervalSeconds);
+        refreshSource.reschedule();
     }
 
     public void refreshNow() {
         synchronized (this) {
             ensureOpen();
         }
-        if (refreshInFlight.compareAndSet(false, true)) {
-            scheduler.execute(this::performRefresh);
+        if (!refreshInFlight.get()) {
+            refreshSource.refreshNow();
         }
     }
 
@@ -88,20 +103,10 @@ public final class GoogleCalendarFeed implements AutoCloseable {
         return snapshot;
     }
 
-    private synchronized void scheduleRefresh(final int requestedSeconds) {
-        final int seconds = Math.max(1, requestedSeconds);
-        if (refreshTask != null) {
-            refreshTask.cancel(false);
+    private boolean performRefresh() {
+        if (!refreshInFlight.compareAndSet(false, true)) {
+            return true;
         }
-        refreshTask = scheduler.scheduleWithFixedDelay(
-                this::refreshNow,
-                0,
-                seconds,
-                TimeUnit.SECONDS
-        );
-    }
-
-    private void performRefresh() {
         try {
             final GoogleCalendarResult result = fetcher.get();
             final GoogleCalendarSnapshot previous = snapshot;
@@ -121,6 +126,7 @@ public final class GoogleCalendarFeed implements AutoCloseable {
                 );
             }
             notifySubscribers(snapshot);
+            return !result.authError() && result.errorMessage().isEmpty();
         } catch (final Exception e) {
             logger.warn("Google Calendar feed refresh failed", e);
             final GoogleCalendarSnapshot previous = snapshot;
@@ -131,6 +137,7 @@ public final class GoogleCalendarFeed implements AutoCloseable {
                     previous.lastSuccessfulAt()
             );
             notifySubscribers(snapshot);
+            return false;
         } finally {
             refreshInFlight.set(false);
         }
@@ -171,10 +178,7 @@ public final class GoogleCalendarFeed implements AutoCloseable {
             return;
         }
         closed = true;
-        if (refreshTask != null) {
-            refreshTask.cancel(true);
-        }
+        refreshSource.close();
         subscribers.clear();
-        scheduler.shutdownNow();
     }
 }
@@ -1,6 +1,7 @@
 package com.patres.alina.uidesktop.ui.chat;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.patres.alina.common.event.bus.DefaultEventBus;
 import com.patres.alina.common.interaction.AgentInteractionRequest;
@@ -9,28 +10,18 @@ import com.patres.alina.common.message.ChatMessageStyleType;
 import com.patres.alina.common.message.ImageAttachment;
 import com.patres.alina.common.message.TodoItem;
 import com.patres.alina.uidesktop.common.event.ThemeEvent;
-import com.patres.alina.uidesktop.ui.theme.ThemeManager;
+import com.patres.alina.uidesktop.util.IncrementalMarkdownRenderer;
 import javafx.application.Platform;
 import javafx.concurrent.Worker;
 import javafx.scene.layout.StackPane;
 import javafx.scene.web.WebEngine;
 import javafx.scene.web.WebView;
-import org.kordamp.ikonli.IkonHandler;
-import org.kordamp.ikonli.bootstrapicons.BootstrapIconsIkonHandler;
-import org.kordamp.ikonli.devicons.DeviconsIkonHandler;
-import org.kordamp.ikonli.feather.FeatherIkonHandler;
-import org.kordamp.ikonli.material2.Material2ALIkonHandler;
-import org.kordamp.ikonli.material2.Material2MZIkonHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.awt.*;
-import java.io.IOException;
 import java.net.URI;
-import java.util.Base64;
 import java.util.List;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -40,25 +31,18 @@ public class Browser extends StackPane {
 
     private static final Logger logger = LoggerFactory.getLogger(Browser.class);
 
-    private static final String CHAT_CSS = loadResource("browser-chat.css");
-    private static final String CHAT_JS = loadResource("browser-chat.js");
-    private static final String CHAT_HTML_TEMPLATE = loadResource("browser-chat.html");
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     final WebView webView;
     final WebEngine webEngine;
     
-    private final StringBuilder streamingContent = new StringBuilder();
-    private static final List<IkonHandler> ICON_HANDLERS = List.of(
-            new Material2ALIkonHandler(),
-            new Material2MZIkonHandler(),
-            new DeviconsIkonHandler(),
-            new FeatherIkonHandler(),
-            new BootstrapIconsIkonHandler()
-    );
+    private final IncrementalMarkdownRenderer streamingRenderer = new IncrementalMarkdownRenderer();
+    private final IncrementalMarkdownRenderer reasoningRenderer = new IncrementalMarkdownRenderer();
+    private final IncrementalMarkdownRenderer commentaryRenderer = new IncrementalMarkdownRenderer();
     private AgentInteractionActionHandler agentInteractionActionHandler;
     private SuggestionClickHandler suggestionClickHandler;
     private WelcomeActionHandler welcomeActionHandler;
+    private HistoryPageHandler historyPageHandler;
     private BrowserBridge browserBridge;
     private volatile boolean webViewReady = false;
     private final java.util.List<Runnable> pendingActions = new java.util.ArrayList<>();
@@ -91,7 +75,7 @@ public class Browser extends StackPane {
         webEngine.loadContent(initHtml(), "text/html");
         getChildren().add(webView);
 
-        updateCssColors();
+        // The page already carries the current theme; later theme changes are applied in place
         DefaultEventBus.getInstance().subscribe(ThemeEvent.class, themeEventConsumer);
     }
 
@@ -107,10 +91,14 @@ public class Browser extends StackPane {
         this.welcomeActionHandler = welcomeActionHandler;
     }
 
+    public void setHistoryPageHandler(final HistoryPageHandler historyPageHandler) {
+        this.historyPageHandler = historyPageHandler;
+    }
+
     /**
      * Releases resources held by this Browser: unsubscribes from events,
      * clears the WebEngine content, and removes the WebView from the scene graph.
-     * Should be called when the owning tab is closed.
+     * Closed tabs hand their browser to the {@link BrowserPool}, which disposes the ones it does not keep.
      */
     public void dispose() {
         DefaultEventBus.getInstance().unsubscribe(ThemeEvent.class, themeEventConsumer);
@@ -122,6 +110,26 @@ public class Browser extends StackPane {
         });
     }
 
+    /**
+     * Clears the conversation and the handlers of the previous tab, so that a pooled browser can
+     * serve another one without reloading its page. Returns {@code false} if the page has not
+     * loaded yet and the browser cannot be reused.
+     */
+    boolean reset() {
+        if (!webViewReady) {
+            return false;
+        }
+        agentInteractionActionHandler = null;
+        suggestionClickHandler = null;
+        welcomeActionHandler = null;
+        historyPageHandler = null;
+        streamingRenderer.reset();
+        reasoningRenderer.reset();
+        commentaryRenderer.reset();
+        executeJavaScript("resetChat()");
+        return true;
+    }
+
     /**
      * Executes the given action immediately if the WebView has finished loading,
      * otherwise queues it to run once the initial HTML/JS is ready.
@@ -212,6 +220,37 @@ public class Browser extends StackPane {
         executeJavaScript("scrollToBottom()");
     }
 
+    /**
+     * Renders a page of history above the existing messages in a single call. The first page is
+     * scrolled to the bottom; older pages keep the current scroll position. While
+     * {@code hasOlderMessages} is set, scrolling near the top asks the {@link HistoryPageHandler}
+     * for the next page, which must answer with another call of this method.
+     */
+    public void prependHistory(final List<HistoryMessage> messages, final boolean hasOlderMessages) {
+        final ArrayNode json = OBJECT_MAPPER.createArrayNode();
+        for (final HistoryMessage message : messages) {
+            json.addObject()
+                    .put("html", convertMarkdownToHtml(message.markdownContent()))
+                    .put("role", message.role().getChatMessageRole())
+                    .put("style", message.styleType().getStyleType());
+        }
+        safeJavaScriptCall("prependHistoryMessages", json.toString(), hasOlderMessages);
+    }
+
+    /**
+     * Distance in pixels between the bottom of the viewport and the end of the conversation.
+     */
+    public double getScrollBottomOffset() {
+        if (!webViewReady) {
+            return 0;
+        }
+        return safeJavaScriptCallResult("getScrollBottomOffset") instanceof Number offset ? offset.doubleValue() : 0;
+    }
+
+    public void restoreScrollBottomOffset(final double offset) {
+        safeJavaScriptCall("restoreScrollBottomOffset", offset);
+    }
+
     private String buildImageDataUrisJson(final java.util.List<ImageAttachment> images) {
         final StringBuilder json = new StringBuilder("[");
         for (int i = 0; i < images.size(); i++) {
@@ -245,14 +284,15 @@ public class Browser extends StackPane {
     }
 
     public void startStreamingAssistantMessage(final boolean replaceExistingAssistantMessage) {
-        streamingContent.setLength(0);
+        streamingRenderer.reset();
         safeJavaScriptCall("startStreamingAssistantMessage", replaceExistingAssistantMessage);
     }
 
     /**
      * Appends a token to the streaming message with real-time markdown processing.
-     * Each token is added to the buffer, processed through markdown converter,
-     * and immediately displayed with proper HTML formatting.
+     * Blocks that are already closed stay rendered in the WebView; only the trailing
+     * open block is re-parsed and replaced, so each token costs the same regardless
+     * of how long the message already is.
      * 
      * @param token The text token to append to the streaming message
      */
@@ -266,12 +306,8 @@ public class Browser extends StackPane {
     }
 
     private void appendTokenAndUpdateHtml(final String token) {
-        streamingContent.append(token);
-        
-        final String currentMarkdown = streamingContent.toString();
-        final String htmlContent = convertMarkdownToHtml(currentMarkdown);
-        
-        safeJavaScriptCall("updateStreamingMessageWithHtml", htmlContent);
+        final IncrementalMarkdownRenderer.StreamingPatch patch = streamingRenderer.append(token);
+        safeJavaScriptCall("applyStreamingPatch", patch.frozenHtml(), patch.tailHtml());
     }
 
     private void appendTokenWithFallback(final String token) {
@@ -308,11 +344,11 @@ public class Browser extends StackPane {
             executeJavaScript("finishStreamingMessage()");
             
             // Clear the content buffer for next streaming session
-            streamingContent.setLength(0);
+            streamingRenderer.reset();
         } catch (final Exception e) {
             logger.error("Error finishing streaming message, using fallback", e);
             executeJavaScript("finishStreamingMessage()");
-            streamingContent.setLength(0);
+            streamingRenderer.reset();
         }
     }
 
@@ -379,14 +415,38 @@ public class Browser extends StackPane {
                 .replace("\t", "\\t");
     }
 
+    /**
+     * Replaces the content of the live reasoning card.
+     */
     public void showAssistantReasoning(final String title, final String markdownContent) {
-        final String htmlContent = convertMarkdownToHtml(markdownContent);
-        safeJavaScriptCall("showAssistantReasoning", title, htmlContent);
+        reasoningRenderer.reset();
+        final IncrementalMarkdownRenderer.StreamingPatch patch = reasoningRenderer.append(markdownContent);
+        safeJavaScriptCall("applyAssistantReasoningPatch", title, patch.frozenHtml(), patch.tailHtml(), true);
     }
 
+    /**
+     * Appends a delta to the live reasoning card; only the open trailing block is re-rendered.
+     */
+    public void appendAssistantReasoning(final String title, final String markdownDelta) {
+        final IncrementalMarkdownRenderer.StreamingPatch patch = reasoningRenderer.append(markdownDelta);
+        safeJavaScriptCall("applyAssistantReasoningPatch", title, patch.frozenHtml(), patch.tailHtml(), false);
+    }
+
+    /**
+     * Replaces the content of the live commentary message.
+     */
     public void showAssistantCommentary(final String title, final String markdownContent) {
-        final String htmlContent = convertMarkdownToHtml(markdownContent);
-        safeJavaScriptCall("showAssistantCommentary", title, htmlContent);
+        commentaryRenderer.reset();
+        final IncrementalMarkdownRenderer.StreamingPatch patch = commentaryRenderer.append(markdownContent);
+        safeJavaScriptCall("applyAssistantCommentaryPatch", patch.frozenHtml(), patch.tailHtml(), true);
+    }
+
+    /**
+     * Appends a delta to the live commentary message; only the open trailing block is re-rendered.
+     */
+    public void appendAssistantCommentary(final String markdownDelta) {
+        final IncrementalMarkdownRenderer.StreamingPatch patch = commentaryRenderer.append(markdownDelta);
+        safeJavaScriptCall("applyAssistantCommentaryPatch", patch.frozenHtml(), patch.tailHtml(), false);
     }
 
     public void finalizeAssistantActivity() {
@@ -398,10 +458,12 @@ public class Browser extends StackPane {
     }
 
     public void finalizeAssistantReasoning() {
+        reasoningRenderer.reset();
         executeJavaScript("finalizeAssistantReasoning()");
     }
 
     public void finalizeAssistantCommentary() {
+        commentaryRenderer.reset();
         executeJavaScript("finalizeAssistantCommentary()");
     }
 
@@ -418,10 +480,12 @@ public class Browser extends StackPane {
     }
 
     public void clearAssistantReasoning() {
+        reasoningRenderer.reset();
         executeJavaScript("clearAssistantReasoning()");
     }
 
     public void clearAssistantCommentary() {
+        commentaryRenderer.reset();
         executeJavaScript("clearAssistantCommentary()");
     }
 
@@ -517,8 +581,7 @@ public class Browser extends StackPane {
     }
 
     private String initHtml() {
-        final String iconFontCss = buildIconFontFaceCss();
-        return CHAT_HTML_TEMPLATE.formatted(iconFontCss, getCssStyles(), getJavaScript());
+        return ChatHtmlShell.current().html();
     }
 
     @SuppressWarnings("removal")
@@ -555,85 +618,12 @@ public class Browser extends StackPane {
         agentInteractionActionHandler.onAgentInteractionAction(parts[0], parts[1], parts[2]);
     }
 
-    private String getCssStyles() {
-        return CHAT_CSS;
-    }
-
-    private String buildIconFontFaceCss() {
-        StringBuilder css = new StringBuilder();
-        Set<String> loadedFamilies = new HashSet<>();
-        for (IkonHandler handler : ICON_HANDLERS) {
-            String family = handler.getFontFamily();
-            if (family == null || family.isBlank() || !loadedFamilies.add(family)) {
-                continue;
-            }
-            String dataUrl = readFontAsDataUrl(handler);
-            if (dataUrl == null) {
-                logger.warn("Cannot load icon font {}", family);
-                continue;
-            }
-            css.append("@font-face{font-family:'")
-                    .append(escapeCssValue(family))
-                    .append("';src:url('")
-                    .append(dataUrl)
-                    .append("') format('truetype');font-weight:normal;font-style:normal;}");
-        }
-        return css.toString();
-    }
-
-    private String readFontAsDataUrl(final IkonHandler handler) {
-        try (var stream = handler.getFontResourceAsStream()) {
-            if (stream == null) {
-                return null;
-            }
-            byte[] data = stream.readAllBytes();
-            return "data:font/ttf;base64," + Base64.getEncoder().encodeToString(data);
-        } catch (IOException e) {
-            logger.warn("Cannot read icon font {}", handler.getFontFamily(), e);
-            return null;
-        }
-    }
-
-    private String escapeCssValue(final String value) {
-        return value.replace("'", "\\'");
-    }
-
-    private static String loadResource(final String resourceName) {
-        try (var stream = Browser.class.getResourceAsStream(resourceName)) {
-            if (stream == null) {
-                logger.error("Cannot find resource: {}", resourceName);
-                return "";
-            }
-            return new String(stream.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
-        } catch (final IOException e) {
-            logger.error("Cannot read resource: {}", resourceName, e);
-            return "";
-        }
-    }
-
-    private String getJavaScript() {
-        return CHAT_JS;
-    }
-
     private void updateCssColors() {
         Platform.runLater(() -> {
-            final var themeManager = ThemeManager.getInstance();
-            final var theme = themeManager.getTheme();
-
-            Map<String, String> colors = Map.of();
-            if (theme != null) {
-                try {
-                    colors = theme.parseColors();
-                } catch (final IOException e) {
-                    logger.error("Failed to parse theme colors", e);
-                }
-            }
-
-            final Map<String, String> resolvedColors = colors;
-            final boolean darkMode = theme != null && theme.isDarkMode();
+            final ChatHtmlShell.Page page = ChatHtmlShell.current();
             whenReady(() -> {
-                resolvedColors.forEach(this::setCssProperty);
-                executeJavaScript(buildThemeModeScript(darkMode));
+                page.colors().forEach(this::setCssProperty);
+                executeJavaScript(buildThemeModeScript(page.darkMode()));
             });
         });
     }
@@ -699,6 +689,12 @@ public class Browser extends StackPane {
                 Platform.runLater(() -> welcomeActionHandler.onOpenThread(threadId));
             }
         }
+
+        public void handleLoadOlderMessages() {
+            if (historyPageHandler != null) {
+                Platform.runLater(() -> historyPageHandler.onLoadOlderMessages());
+            }
+        }
     }
 
     public interface SuggestionClickHandler {
@@ -710,4 +706,11 @@ public class Browser extends StackPane {
         void onOpenThread(String threadId);
     }
 
+    public interface HistoryPageHandler {
+        void onLoadOlderMessages();
+    }
+
+    public record HistoryMessage(String markdownContent, ChatMessageRole role, ChatMessageStyleType styleType) {
+    }
+
 }
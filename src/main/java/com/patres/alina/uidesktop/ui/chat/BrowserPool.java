@@ -0,0 +1,92 @@
+package com.patres.alina.uidesktop.ui.chat;
+
+import javafx.application.Platform;
+import javafx.scene.layout.Pane;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pool of pre-warmed {@link Browser}s for chat tabs.
+ * <p>
+ * A new browser starts WebKit and parses the whole chat page before it can show anything. The pool
+ * keeps a few browsers whose page has already loaded: a new tab takes one of them and a closed tab
+ * gives its browser back, cleared with {@link Browser#reset()} instead of a reload. Browsers are
+ * warmed one at a time so that the pool never competes with the UI for long.
+ * <p>
+ * All methods must be called on the JavaFX application thread.
+ */
+public final class BrowserPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserPool.class);
+
+    static final int POOL_SIZE = 2;
+
+    private static final BrowserPool INSTANCE = new BrowserPool();
+
+    private final Deque<Browser> idleBrowsers = new ArrayDeque<>();
+    private boolean warming;
+
+    private BrowserPool() {
+    }
+
+    public static BrowserPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts filling the pool once the pending UI work is done.
+     */
+    public void warmUp() {
+        Platform.runLater(this::refill);
+    }
+
+    /**
+     * Returns a browser whose page has loaded, or a new one if the pool is empty.
+     */
+    public Browser acquire() {
+        final Browser browser = idleBrowsers.pollFirst();
+        Platform.runLater(this::refill);
+        if (browser == null) {
+            logger.debug("Browser pool is empty, creating a browser on demand");
+            return new Browser();
+        }
+        return browser;
+    }
+
+    /**
+     * Takes back the browser of a closed tab. It is reset after the updates already queued by the
+     * tab have run, and disposed if the pool is full or its page never finished loading.
+     */
+    public void release(final Browser browser) {
+        if (browser.getParent() instanceof Pane parent) {
+            parent.getChildren().remove(browser);
+        }
+        Platform.runLater(() -> {
+            if (idleBrowsers.size() >= POOL_SIZE || !browser.reset()) {
+                browser.dispose();
+                return;
+            }
+            idleBrowsers.addLast(browser);
+        });
+    }
+
+    private void refill() {
+        if (warming || idleBrowsers.size() >= POOL_SIZE) {
+            return;
+        }
+        warming = true;
+        final Browser browser = new Browser();
+        browser.whenReady(() -> {
+            warming = false;
+            if (idleBrowsers.size() >= POOL_SIZE) {
+                browser.dispose();
+                return;
+            }
+            idleBrowsers.addLast(browser);
+            refill();
+        });
+    }
+}
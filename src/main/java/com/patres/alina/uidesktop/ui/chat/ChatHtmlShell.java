@@ -0,0 +1,154 @@
+package com.patres.alina.uidesktop.ui.chat;
+
+import com.patres.alina.uidesktop.ui.theme.SamplerTheme;
+import com.patres.alina.uidesktop.ui.theme.ThemeManager;
+import org.kordamp.ikonli.IkonHandler;
+import org.kordamp.ikonli.bootstrapicons.BootstrapIconsIkonHandler;
+import org.kordamp.ikonli.devicons.DeviconsIkonHandler;
+import org.kordamp.ikonli.feather.FeatherIkonHandler;
+import org.kordamp.ikonli.material2.Material2ALIkonHandler;
+import org.kordamp.ikonli.material2.Material2MZIkonHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The chat page loaded by every {@link Browser}: the HTML template with the chat CSS and JS, the
+ * Ikonli icon fonts embedded as data URLs and the colors of the current theme.
+ * <p>
+ * Embedding the fonts reads and base64-encodes megabytes, so the page is composed once per process
+ * and shared by all browsers. The font block never changes; the page is recomposed only when the
+ * theme changes.
+ */
+final class ChatHtmlShell {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatHtmlShell.class);
+
+    private static final String CHAT_CSS = loadResource("browser-chat.css");
+    private static final String CHAT_JS = loadResource("browser-chat.js");
+    private static final String CHAT_HTML_TEMPLATE = loadResource("browser-chat.html");
+    private static final List<IkonHandler> ICON_HANDLERS = List.of(
+            new Material2ALIkonHandler(),
+            new Material2MZIkonHandler(),
+            new DeviconsIkonHandler(),
+            new FeatherIkonHandler(),
+            new BootstrapIconsIkonHandler()
+    );
+
+    private static String iconFontCss;
+    private static SamplerTheme pageTheme;
+    private static Page page;
+
+    /**
+     * @param html     complete chat page
+     * @param colors   theme colors applied as CSS custom properties
+     * @param darkMode whether the theme is dark
+     */
+    record Page(String html, Map<String, String> colors, boolean darkMode) {
+    }
+
+    private ChatHtmlShell() {
+    }
+
+    /**
+     * Returns the page for the current theme, composing it on first use and after a theme change.
+     */
+    static synchronized Page current() {
+        final SamplerTheme theme = ThemeManager.getInstance().getTheme();
+        if (page == null || theme != pageTheme) {
+            page = compose(theme);
+            pageTheme = theme;
+        }
+        return page;
+    }
+
+    private static Page compose(final SamplerTheme theme) {
+        Map<String, String> colors = Map.of();
+        if (theme != null) {
+            try {
+                colors = Map.copyOf(theme.parseColors());
+            } catch (final IOException e) {
+                logger.error("Failed to parse theme colors", e);
+            }
+        }
+        final boolean darkMode = theme != null && theme.isDarkMode();
+        final String html = CHAT_HTML_TEMPLATE.formatted(
+                iconFontCss() + buildThemeCss(colors),
+                CHAT_CSS,
+                Browser.buildThemeModeScript(darkMode) + "\n" + CHAT_JS
+        );
+        return new Page(html, colors, darkMode);
+    }
+
+    static synchronized String iconFontCss() {
+        if (iconFontCss == null) {
+            iconFontCss = buildIconFontFaceCss();
+        }
+        return iconFontCss;
+    }
+
+    static String buildThemeCss(final Map<String, String> colors) {
+        final StringBuilder css = new StringBuilder(":root{");
+        colors.forEach((key, value) -> css.append('-').append(key).append(':').append(value).append(';'));
+        return css.append('}').toString();
+    }
+
+    private static String buildIconFontFaceCss() {
+        StringBuilder css = new StringBuilder();
+        Set<String> loadedFamilies = new HashSet<>();
+        for (IkonHandler handler : ICON_HANDLERS) {
+            String family = handler.getFontFamily();
+            if (family == null || family.isBlank() || !loadedFamilies.add(family)) {
+                continue;
+            }
+            String dataUrl = readFontAsDataUrl(handler);
+            if (dataUrl == null) {
+                logger.warn("Cannot load icon font {}", family);
+                continue;
+            }
+            css.append("@font-face{font-family:'")
+                    .append(escapeCssValue(family))
+                    .append("';src:url('")
+                    .append(dataUrl)
+                    .append("') format('truetype');font-weight:normal;font-style:normal;}");
+        }
+        return css.toString();
+    }
+
+    private static String readFontAsDataUrl(final IkonHandler handler) {
+        try (var stream = handler.getFontResourceAsStream()) {
+            if (stream == null) {
+                return null;
+            }
+            byte[] data = stream.readAllBytes();
+            return "data:font/ttf;base64," + Base64.getEncoder().encodeToString(data);
+        } catch (IOException e) {
+            logger.warn("Cannot read icon font {}", handler.getFontFamily(), e);
+            return null;
+        }
+    }
+
+    private static String escapeCssValue(final String value) {
+        return value.replace("'", "\\'");
+    }
+
+    private static String loadResource(final String resourceName) {
+        try (var stream = ChatHtmlShell.class.getResourceAsStream(resourceName)) {
+            if (stream == null) {
+                logger.error("Cannot find resource: {}", resourceName);
+                return "";
+            }
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            logger.error("Cannot read resource: {}", resourceName, e);
+            return "";
+        }
+    }
+}
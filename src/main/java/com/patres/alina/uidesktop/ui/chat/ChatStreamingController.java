@@ -7,6 +7,7 @@ import com.patres.alina.common.interaction.AgentInteractionResolutionModel;
 import com.patres.alina.common.message.ChatMessageStyleType;
 import com.patres.alina.common.message.TodoItem;
 import com.patres.alina.uidesktop.backend.BackendApi;
+import com.patres.alina.uidesktop.settings.SettingsMangers;
 import com.patres.alina.uidesktop.ui.language.LanguageManager;
 import com.patres.alina.uidesktop.ui.util.FxThreadRunner;
 import com.patres.alina.uidesktop.ui.util.NotificationSoundPlayer;
@@ -40,6 +41,7 @@ public class ChatStreamingController {
     private final TextArea chatTextArea;
     private final ChatStatusPrompt statusPrompt;
     private final String chatThreadId;
+    private final StreamingTokenCoalescer tokenCoalescer;
 
     private volatile boolean streamingStarted;
     private volatile boolean ignoreIncomingTokens;
@@ -48,9 +50,13 @@ public class ChatStreamingController {
     private volatile boolean replaceExistingAssistantMessageOnStart;
     private volatile boolean hasAnyUserMessages;
     private volatile Instant streamingStartedAt = Instant.EPOCH;
-    private volatile String latestReasoningContent = "";
-    private volatile String latestCommentaryContent = "";
+    private final StreamedProcessText reasoningContent = new StreamedProcessText();
+    private final StreamedProcessText commentaryContent = new StreamedProcessText();
+    // Offsets in the composer where the shown reasoning and commentary texts end, -1 when not shown
+    private int reasoningStatusEnd = -1;
+    private int commentaryStatusEnd = -1;
     private volatile boolean backgroundMode;
+    private volatile boolean disposed;
     private final List<String> activityLabels = new ArrayList<>();
 
     private enum StreamControlMode {
@@ -72,16 +78,21 @@ public class ChatStreamingController {
         this.statusPrompt = statusPrompt;
         this.chatThreadId = chatThreadId;
         this.hasAnyUserMessages = hasAnyUserMessages;
+        this.tokenCoalescer = new StreamingTokenCoalescer(
+                browser::appendToStreamingMessage,
+                this::runOnUi,
+                SettingsMangers.UI_SETTINGS.getSettings().resolveStreamFrameIntervalMillis()
+        );
     }
 
     public void initialize() {
-        FxThreadRunner.run(() -> {
+        runOnUi(() -> {
             setStreamControlMode(StreamControlMode.REGENERATE);
         });
     }
 
     public void markUserMessageSent() {
-        FxThreadRunner.run(() -> {
+        runOnUi(() -> {
             hasAnyUserMessages = true;
             if (streamControlMode == StreamControlMode.REGENERATE) {
                 setStreamControlMode(StreamControlMode.REGENERATE);
@@ -102,7 +113,7 @@ public class ChatStreamingController {
     }
 
     public void handleStartError() {
-        FxThreadRunner.run(() -> {
+        runOnUi(() -> {
             browser.hideLoader();
             final boolean wasBackground = backgroundMode;
             endStreamingUiState();
@@ -115,6 +126,31 @@ public class ChatStreamingController {
         });
     }
 
+    /**
+     * Stops all rendering into the browser, e.g. when the tab is closed or hibernated and its
+     * browser goes back to the pool. Buffered tokens are dropped; the stream itself keeps running.
+     * Must be called on the JavaFX application thread.
+     */
+    public void dispose() {
+        disposed = true;
+        tokenCoalescer.discard();
+    }
+
+    /**
+     * Runs {@code action} on the FX thread unless the controller was disposed meanwhile.
+     */
+    private void runOnUi(final Runnable action) {
+        FxThreadRunner.run(() -> {
+            if (!disposed) {
+                action.run();
+            }
+        });
+    }
+
+    public boolean isStreaming() {
+        return streamControlMode == StreamControlMode.STOP;
+    }
+
     public void streamControlFromUi() {
         if (streamControlMode == StreamControlMode.STOP) {
             stopStreaming();
@@ -124,9 +160,12 @@ public class ChatStreamingController {
     }
 
     public void handleStreamEvent(ChatMessageStreamEvent event) {
-        if (!event.getThreadId().equals(chatThreadId)) {
+        if (disposed || !event.getThreadId().equals(chatThreadId)) {
             return;
         }
+        if (event.getEventType() != ChatMessageStreamEvent.StreamEventType.TOKEN && !isTerminal(event)) {
+            tokenCoalescer.flush();
+        }
 
         switch (event.getEventType()) {
             case TOKEN -> handleTokenEvent(event);
@@ -141,11 +180,18 @@ public class ChatStreamingController {
         }
     }
 
+    private static boolean isTerminal(final ChatMessageStreamEvent event) {
+        return switch (event.getEventType()) {
+            case COMPLETE, CANCELLED, ERROR -> true;
+            default -> false;
+        };
+    }
+
     public void handleAgentInteractionResolved(final AgentInteractionResolvedEvent event) {
-        if (!event.getThreadId().equals(chatThreadId)) {
+        if (disposed || !event.getThreadId().equals(chatThreadId)) {
             return;
         }
-        FxThreadRunner.run(() -> {
+        runOnUi(() -> {
             browser.resolveAgentInteraction(
                     event.getRequestId(),
                     LanguageManager.getLanguageString("chat.interaction.resolvedExternally")
@@ -156,55 +202,82 @@ public class ChatStreamingController {
 
     private void handleCommentaryEvent(final ChatMessageStreamEvent event) {
         final String content = event.getCommentaryContent();
-        if (content == null || content.isBlank()) {
+        if (isEmptyProcessContent(event, content)) {
             return;
         }
-        final boolean startsNewCommentaryMessage = latestCommentaryContent != null
-                && !latestCommentaryContent.isBlank()
-                && !content.equals(latestCommentaryContent)
-                && !content.startsWith(latestCommentaryContent);
-        latestCommentaryContent = content;
-        FxThreadRunner.run(() -> {
+        runOnUi(() -> {
+            final boolean hadText = commentaryContent.hasText();
+            final int visibleEndBefore = commentaryContent.visibleEnd();
+            final boolean startsNewCommentaryMessage = event.isContentDelta()
+                    ? commentaryContent.appendDelta(event.getContentPartId(), content)
+                    : commentaryContent.replace(content);
             browser.finalizeAssistantActivity();
             browser.hideLoader();
             if (startsNewCommentaryMessage) {
                 browser.finalizeAssistantCommentary();
             }
-            browser.showAssistantCommentary(LanguageManager.getLanguageString("chat.commentary.title"), content);
-            updateComposerProcessStatus();
+            if (event.isContentDelta() && !startsNewCommentaryMessage) {
+                browser.appendAssistantCommentary(content);
+            } else {
+                browser.showAssistantCommentary(LanguageManager.getLanguageString("chat.commentary.title"), commentaryContent.toString());
+            }
+            if (event.isContentDelta() && hadText && !startsNewCommentaryMessage) {
+                insertComposerProcessStatus(commentaryContent, visibleEndBefore);
+            } else {
+                updateComposerProcessStatus();
+            }
             statusPrompt.showStatusPrompt(LanguageManager.getLanguageString("chat.commentary.status"));
         });
     }
 
     private void handleReasoningEvent(final ChatMessageStreamEvent event) {
         final String content = event.getReasoningContent();
-        if (content == null || content.isBlank()) {
+        if (isEmptyProcessContent(event, content)) {
             return;
         }
-        final boolean startsNewReasoningMessage = latestReasoningContent != null
-                && !latestReasoningContent.isBlank()
-                && !content.equals(latestReasoningContent)
-                && !content.startsWith(latestReasoningContent);
-        latestReasoningContent = content;
-        FxThreadRunner.run(() -> {
+        runOnUi(() -> {
+            final String title = LanguageManager.getLanguageString("chat.reasoning.title");
+            final boolean hadText = reasoningContent.hasText();
+            final int visibleEndBefore = reasoningContent.visibleEnd();
+            final boolean startsNewReasoningMessage = event.isContentDelta()
+                    ? reasoningContent.appendDelta(event.getContentPartId(), content)
+                    : reasoningContent.replace(content);
             browser.finalizeAssistantActivity();
             browser.hideLoader();
             if (startsNewReasoningMessage) {
                 browser.finalizeAssistantReasoning();
             }
-            browser.showAssistantReasoning(LanguageManager.getLanguageString("chat.reasoning.title"), content);
-            updateComposerProcessStatus();
+            if (event.isContentDelta() && !startsNewReasoningMessage) {
+                browser.appendAssistantReasoning(title, content);
+            } else {
+                browser.showAssistantReasoning(title, reasoningContent.toString());
+            }
+            if (event.isContentDelta() && hadText && !startsNewReasoningMessage) {
+                insertComposerProcessStatus(reasoningContent, visibleEndBefore);
+            } else {
+                updateComposerProcessStatus();
+            }
             statusPrompt.showStatusPrompt(LanguageManager.getLanguageString("chat.reasoning.status"));
         });
     }
 
+    /**
+     * Deltas may legitimately be whitespace only (e.g. a paragraph break); full texts may not.
+     */
+    private static boolean isEmptyProcessContent(final ChatMessageStreamEvent event, final String content) {
+        if (content == null) {
+            return true;
+        }
+        return event.isContentDelta() ? content.isEmpty() : content.isBlank();
+    }
+
     private void handleTokenEvent(ChatMessageStreamEvent event) {
         if (ignoreIncomingTokens) {
             return;
         }
         if (!streamingStarted) {
             streamingStarted = true;
-            FxThreadRunner.run(() -> {
+            runOnUi(() -> {
                 browser.finalizeAssistantActivity();
                 browser.finalizeAssistantReasoning();
                 browser.finalizeAssistantCommentary();
@@ -214,7 +287,7 @@ public class ChatStreamingController {
                 statusPrompt.showStatusPrompt(LanguageManager.getLanguageString("chat.stream.streaming"));
             });
         }
-        FxThreadRunner.run(() -> browser.appendToStreamingMessage(event.getToken()));
+        tokenCoalescer.offer(event.getToken());
     }
 
     private void handleActivityEvent(final ChatMessageStreamEvent event) {
@@ -223,7 +296,7 @@ public class ChatStreamingController {
         synchronized (activityLabels) {
             activityLabels.add(label);
         }
-        FxThreadRunner.run(() -> {
+        runOnUi(() -> {
             if (streamingStarted) {
                 browser.finishStreamingMessage();
                 streamingStarted = false;
@@ -242,7 +315,7 @@ public class ChatStreamingController {
         if (items == null || items.isEmpty()) {
             return;
         }
-        FxThreadRunner.run(() -> {
+        runOnUi(() -> {
             browser.showTodoList(items, LanguageManager.getLanguageString("chat.todo.title"));
             statusPrompt.showStatusPrompt(LanguageManager.getLanguageString("chat.todo.status"));
         });
@@ -253,7 +326,7 @@ public class ChatStreamingController {
         if (interaction == null) {
             return;
         }
-        FxThreadRunner.run(() -> {
+        runOnUi(() -> {
             if (streamingStarted) {
                 browser.finishStreamingMessage();
                 streamingStarted = false;
@@ -274,7 +347,7 @@ public class ChatStreamingController {
 
     private void handleCompleteEvent(final ChatMessageStreamEvent event) {
         NotificationSoundPlayer.playIfEnabled();
-        FxThreadRunner.run(() -> {
+        tokenCoalescer.flushThen(() -> {
             browser.hideLoader();
             browser.finalizeAssistantActivity();
             browser.finalizeAssistantReasoning();
@@ -296,7 +369,7 @@ public class ChatStreamingController {
     }
 
     private void handleCancelledEvent() {
-        FxThreadRunner.run(() -> {
+        tokenCoalescer.flushThen(() -> {
             browser.clearAssistantActivity();
             browser.clearAssistantCommentary();
             browser.clearAssistantReasoning();
@@ -325,7 +398,7 @@ public class ChatStreamingController {
                 ? errorLabel
                 : errorLabel + ": " + errorMessage;
         logger.error("Streaming error: {}", errorMessage);
-        FxThreadRunner.run(() -> {
+        tokenCoalescer.flushThen(() -> {
             browser.clearAssistantActivity();
             browser.clearAssistantCommentary();
             browser.clearAssistantReasoning();
@@ -350,7 +423,8 @@ public class ChatStreamingController {
 
     private void stopStreaming() {
         ignoreIncomingTokens = true;
-        FxThreadRunner.run(() -> {
+        tokenCoalescer.discard();
+        runOnUi(() -> {
             browser.clearAssistantActivity();
             streamControlButton.setDisable(true);
             statusPrompt.showStatusPrompt(LanguageManager.getLanguageString("chat.stream.cancelling"));
@@ -370,7 +444,7 @@ public class ChatStreamingController {
                 String errorContent = (errorMessage == null || errorMessage.isBlank())
                         ? errorLabel
                         : errorLabel + ": " + errorMessage;
-                FxThreadRunner.run(() -> {
+                runOnUi(() -> {
                     browser.hideLoader();
                     endStreamingUiState();
                     statusPrompt.showStatusPrompt(errorLabel);
@@ -383,7 +457,7 @@ public class ChatStreamingController {
     }
 
     public void submitAgentInteraction(final String requestId, final AgentInteractionResponse response) {
-        FxThreadRunner.run(() -> browser.markAgentInteractionPending(
+        runOnUi(() -> browser.markAgentInteractionPending(
                 requestId,
                 LanguageManager.getLanguageString("chat.interaction.processing")
         ));
@@ -396,7 +470,7 @@ public class ChatStreamingController {
                             resolution.message(),
                             "chat.interaction.missing"
                     );
-                    FxThreadRunner.run(() -> {
+                    runOnUi(() -> {
                         browser.resolveAgentInteraction(requestId, message);
                         statusPrompt.showStatusPrompt(message);
                     });
@@ -408,7 +482,7 @@ public class ChatStreamingController {
                             "chat.interaction.error",
                             ""
                     );
-                    FxThreadRunner.run(() -> {
+                    runOnUi(() -> {
                         browser.failAgentInteraction(requestId, message);
                         statusPrompt.showStatusPrompt(message);
                     });
@@ -418,7 +492,7 @@ public class ChatStreamingController {
                         resolution.message(),
                         resolution.accepted() ? "chat.interaction.submitted" : "chat.interaction.declined"
                 );
-                FxThreadRunner.run(() -> {
+                runOnUi(() -> {
                     browser.resolveAgentInteraction(requestId, message);
                     statusPrompt.showStatusPrompt(LanguageManager.getLanguageString("chat.stream.connecting"));
                 });
@@ -432,7 +506,7 @@ public class ChatStreamingController {
             } catch (Exception e) {
                 logger.error("Error resolving agent interaction {}", requestId, e);
                 final String message = LanguageManager.getLanguageString("chat.interaction.error", e.getMessage());
-                FxThreadRunner.run(() -> {
+                runOnUi(() -> {
                     browser.failAgentInteraction(requestId, message);
                     statusPrompt.showStatusPrompt(message);
                 });
@@ -477,6 +551,8 @@ public class ChatStreamingController {
         replaceExistingAssistantMessageOnStart = false;
         streamingStartedAt = Instant.EPOCH;
         backgroundMode = false;
+        reasoningStatusEnd = -1;
+        commentaryStatusEnd = -1;
     }
 
     private void setChatInputBusy() {
@@ -496,11 +572,13 @@ public class ChatStreamingController {
     }
 
     private void resetProcessState() {
-        latestReasoningContent = "";
-        latestCommentaryContent = "";
+        reasoningContent.clear();
+        commentaryContent.clear();
         synchronized (activityLabels) {
             activityLabels.clear();
         }
+        reasoningStatusEnd = -1;
+        commentaryStatusEnd = -1;
         streamingStartedAt = Instant.now();
     }
 
@@ -508,48 +586,79 @@ public class ChatStreamingController {
         if (backgroundMode) {
             return;
         }
-        final StringBuilder status = new StringBuilder();
-        if (latestReasoningContent != null && !latestReasoningContent.isBlank()) {
-            status.append(LanguageManager.getLanguageString("chat.reasoning.title"))
-                    .append(System.lineSeparator())
-                    .append(System.lineSeparator())
-                    .append(latestReasoningContent.trim());
-        }
-        if (latestCommentaryContent != null && !latestCommentaryContent.isBlank()) {
-            if (!status.isEmpty()) {
-                status.append(System.lineSeparator()).append(System.lineSeparator());
-            }
-            status.append(LanguageManager.getLanguageString("chat.commentary.title"))
-                    .append(System.lineSeparator())
-                    .append(System.lineSeparator())
-                    .append(latestCommentaryContent.trim());
+        final String separator = System.lineSeparator() + System.lineSeparator();
+        final String reasoningSection = reasoningContent.hasText()
+                ? LanguageManager.getLanguageString("chat.reasoning.title") + separator + reasoningContent.toString().strip()
+                : "";
+        String commentarySection = commentaryContent.hasText()
+                ? LanguageManager.getLanguageString("chat.commentary.title") + separator + commentaryContent.toString().strip()
+                : "";
+        if (!commentarySection.isEmpty() && !reasoningSection.isEmpty()) {
+            commentarySection = separator + commentarySection;
         }
 
         final List<String> activitiesSnapshot;
         synchronized (activityLabels) {
             activitiesSnapshot = List.copyOf(activityLabels);
         }
+        String activitySection = "";
         if (!activitiesSnapshot.isEmpty()) {
-            if (!status.isEmpty()) {
-                status.append(System.lineSeparator()).append(System.lineSeparator());
+            activitySection = "Tools" + separator + activitiesSnapshot.stream()
+                    .map(label -> "• " + label)
+                    .collect(Collectors.joining(System.lineSeparator()));
+            if (!reasoningSection.isEmpty() || !commentarySection.isEmpty()) {
+                activitySection = separator + activitySection;
             }
-            status.append("Tools")
-                    .append(System.lineSeparator())
-                    .append(System.lineSeparator())
-                    .append(activitiesSnapshot.stream()
-                            .map(label -> "• " + label)
-                            .collect(Collectors.joining(System.lineSeparator())));
         }
 
-        chatTextArea.setText(status.isEmpty()
-                ? LanguageManager.getLanguageString("chat.stream.connecting")
-                : status.toString());
+        if (reasoningSection.isEmpty() && commentarySection.isEmpty() && activitySection.isEmpty()) {
+            chatTextArea.setText(LanguageManager.getLanguageString("chat.stream.connecting"));
+            reasoningStatusEnd = -1;
+            commentaryStatusEnd = -1;
+        } else {
+            // The section ends are read back from the text area, which drops characters such as '\r'
+            chatTextArea.setText(reasoningSection);
+            reasoningStatusEnd = reasoningSection.isEmpty() ? -1 : chatTextArea.getLength();
+            chatTextArea.appendText(commentarySection);
+            commentaryStatusEnd = commentarySection.isEmpty() ? -1 : chatTextArea.getLength();
+            chatTextArea.appendText(activitySection);
+        }
+        chatTextArea.positionCaret(0);
+    }
+
+    /**
+     * Inserts what a delta made visible at the end of its section of the composer status, instead
+     * of rebuilding the whole text. The reasoning section comes before the commentary one, so
+     * growing it moves the end of the commentary.
+     */
+    private void insertComposerProcessStatus(final StreamedProcessText section, final int visibleEndBefore) {
+        if (backgroundMode) {
+            return;
+        }
+        final boolean reasoning = section == reasoningContent;
+        final int sectionEnd = reasoning ? reasoningStatusEnd : commentaryStatusEnd;
+        if (sectionEnd < 0 || sectionEnd > chatTextArea.getLength()) {
+            updateComposerProcessStatus();
+            return;
+        }
+        final String added = section.visibleTextFrom(visibleEndBefore);
+        if (added.isEmpty()) {
+            return;
+        }
+        final int lengthBefore = chatTextArea.getLength();
+        chatTextArea.insertText(sectionEnd, added);
+        final int inserted = chatTextArea.getLength() - lengthBefore;
+        if (reasoning) {
+            reasoningStatusEnd += inserted;
+        }
+        if (commentaryStatusEnd >= 0) {
+            commentaryStatusEnd += inserted;
+        }
         chatTextArea.positionCaret(0);
     }
 
     private void attachProcessPanelIfNeeded() {
-        if ((latestReasoningContent == null || latestReasoningContent.isBlank())
-                && (latestCommentaryContent == null || latestCommentaryContent.isBlank())) {
+        if (!reasoningContent.hasText() && !commentaryContent.hasText()) {
             return;
         }
 
@@ -557,19 +666,19 @@ public class ChatStreamingController {
         browser.attachProcessPanelToLastAssistantMessage(
                 summary,
                 LanguageManager.getLanguageString("chat.reasoning.title"),
-                latestReasoningContent,
+                reasoningContent.toString(),
                 LanguageManager.getLanguageString("chat.commentary.title"),
-                latestCommentaryContent,
+                commentaryContent.toString(),
                 ""
         );
     }
 
     private String buildProcessSummary() {
         final List<String> parts = new ArrayList<>();
-        if (latestReasoningContent != null && !latestReasoningContent.isBlank()) {
+        if (reasoningContent.hasText()) {
             parts.add(LanguageManager.getLanguageString("chat.reasoning.title"));
         }
-        if (latestCommentaryContent != null && !latestCommentaryContent.isBlank()) {
+        if (commentaryContent.hasText()) {
             parts.add(LanguageManager.getLanguageString("chat.commentary.title"));
         }
         if (streamingStartedAt != null && !Instant.EPOCH.equals(streamingStartedAt)) {
@@ -587,10 +696,10 @@ public class ChatStreamingController {
         }
         final List<String> parts = new ArrayList<>();
 
-        if (latestReasoningContent != null && !latestReasoningContent.isBlank()) {
+        if (reasoningContent.hasText()) {
             parts.add(LanguageManager.getLanguageString("chat.reasoning.title"));
         }
-        if (latestCommentaryContent != null && !latestCommentaryContent.isBlank()) {
+        if (commentaryContent.hasText()) {
             parts.add(LanguageManager.getLanguageString("chat.commentary.title"));
         }
 
@@ -8,6 +8,7 @@ import com.patres.alina.common.event.ChatMessageStreamEvent;
 import com.patres.alina.common.event.bus.DefaultEventBus;
 import com.patres.alina.common.interaction.AgentInteractionAction;
 import com.patres.alina.common.interaction.AgentInteractionResponse;
+import com.patres.alina.common.message.ChatMessagePage;
 import com.patres.alina.common.message.ChatMessageResponseModel;
 import com.patres.alina.common.message.ChatMessageRole;
 import com.patres.alina.common.message.ChatMessageSendModel;
@@ -36,6 +37,7 @@ import com.patres.alina.uidesktop.ui.util.NotificationSoundPlayer;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.beans.value.ChangeListener;
 import javafx.scene.Node;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -64,6 +66,7 @@ import org.kordamp.ikonli.javafx.FontIcon;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
@@ -71,7 +74,10 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import javax.imageio.ImageIO;
@@ -83,8 +89,11 @@ import static com.patres.alina.uidesktop.settings.SettingsMangers.UI_SETTINGS;
 public class ChatWindow extends BorderPane {
 
     private static final Logger logger = LoggerFactory.getLogger(ChatWindow.class);
+    /** Number of history messages rendered up front and per page when scrolling up. */
+    public static final int HISTORY_PAGE_SIZE = 30;
     private final ChatThread chatThread;
-    private final List<ChatMessageResponseModel> messages;
+    private final ChatMessagePage initialPage;
+    private String olderMessagesCursor;
     private final ApplicationWindow applicationWindow;
 
     private final Consumer<FocusShortcutTriggeredEvent> focusShortcutTriggeredEventConsumer = event -> triggerFocusAction();
@@ -92,6 +101,12 @@ public class ChatWindow extends BorderPane {
     private Consumer<AgentInteractionResolvedEvent> agentInteractionResolvedEventConsumer;
     private final Consumer<ChatNotificationEvent> chatNotificationEventConsumer = this::handleChatNotification;
     private final Consumer<CalendarAiPromptEvent> calendarAiPromptEventConsumer = this::handleCalendarAiPrompt;
+    // Held in a field so that a hibernated window can be detached from the application-wide locale
+    private final ChangeListener<Locale> localeChangeListener = (_, _, _) ->
+            FxThreadRunner.run(() -> {
+                setCurrentCommand(currentCommand);
+                installButtonTooltips();
+            });
 
     private SearchCommandPopup popup;
     private CardListItem currentCommand;
@@ -101,7 +116,11 @@ public class ChatWindow extends BorderPane {
     private boolean settingFromHistory = false;
     private final java.util.Map<String, ChatThread> recentThreadCache = new java.util.HashMap<>();
     private final List<ImageAttachment> pendingImages = new ArrayList<>();
-    private NoteCountRefresher noteCountRefresher;
+    private Runnable noteCountSubscription;
+    /** History and welcome-screen loads still running; interrupted when the tab is closed. */
+    private final Set<Thread> backgroundLoads = ConcurrentHashMap.newKeySet();
+    /** Set on the FX thread once the browser was handed back to the pool; guards late updates. */
+    private volatile boolean closed;
 
     @FXML
     private StackPane chatAnswersPane;
@@ -152,14 +171,15 @@ public class ChatWindow extends BorderPane {
     private List<Node> actionNodes;
 
     public ChatWindow(ChatThread chatThread, ApplicationWindow applicationWindow) {
-        this(chatThread, applicationWindow, BackendApi.getMessagesByThreadId(chatThread.id()));
+        this(chatThread, applicationWindow, BackendApi.getMessagesByThreadId(chatThread.id(), null, HISTORY_PAGE_SIZE));
     }
 
-    public ChatWindow(ChatThread chatThread, ApplicationWindow applicationWindow, List<ChatMessageResponseModel> prefetchedMessages) {
+    public ChatWindow(ChatThread chatThread, ApplicationWindow applicationWindow, ChatMessagePage prefetchedPage) {
         super();
         this.chatThread = chatThread;
         this.applicationWindow = applicationWindow;
-        this.messages = prefetchedMessages;
+        this.initialPage = prefetchedPage;
+        this.olderMessagesCursor = prefetchedPage.beforeCursor();
 
         try {
             var loader = new FXMLLoader(
@@ -184,6 +204,7 @@ public class ChatWindow extends BorderPane {
         if (chatMessageStreamEventConsumer != null) {
             DefaultEventBus.getInstance().subscribe(
                     ChatMessageStreamEvent.class,
+                    chatThread.id(),
                     chatMessageStreamEventConsumer
             );
         }
@@ -191,6 +212,7 @@ public class ChatWindow extends BorderPane {
         if (agentInteractionResolvedEventConsumer != null) {
             DefaultEventBus.getInstance().subscribe(
                     AgentInteractionResolvedEvent.class,
+                    chatThread.id(),
                     agentInteractionResolvedEventConsumer
             );
         }
@@ -219,6 +241,7 @@ public class ChatWindow extends BorderPane {
         if (chatMessageStreamEventConsumer != null) {
             DefaultEventBus.getInstance().unsubscribe(
                     ChatMessageStreamEvent.class,
+                    chatThread.id(),
                     chatMessageStreamEventConsumer
             );
         }
@@ -227,6 +250,7 @@ public class ChatWindow extends BorderPane {
         if (agentInteractionResolvedEventConsumer != null) {
             DefaultEventBus.getInstance().unsubscribe(
                     AgentInteractionResolvedEvent.class,
+                    chatThread.id(),
                     agentInteractionResolvedEventConsumer
             );
         }
@@ -240,21 +264,67 @@ public class ChatWindow extends BorderPane {
                 CalendarAiPromptEvent.class,
                 calendarAiPromptEventConsumer
         );
+        LanguageManager.localeProperty().removeListener(localeChangeListener);
+        if (popup != null) {
+            popup.dispose();
+        }
+
+        // Nothing may write into the browser once another tab can acquire it from the pool
+        closed = true;
+        backgroundLoads.forEach(Thread::interrupt);
+        if (streamingController != null) {
+            streamingController.dispose();
+        }
+        if (noteCountSubscription != null) {
+            noteCountSubscription.run();
+            noteCountSubscription = null;
+        }
 
         if (browser != null) {
-            browser.dispose();
+            BrowserPool.getInstance().release(browser);
         }
+    }
+
+    public boolean isStreaming() {
+        return streamingController != null && streamingController.isStreaming();
+    }
+
+    /**
+     * Captures what the user left in this tab, so that it can be hibernated and restored later
+     * with {@link #restoreState(ChatWindowState)}.
+     */
+    public ChatWindowState snapshotState() {
+        return new ChatWindowState(
+                chatTextArea.getText(),
+                pendingImages,
+                currentCommand,
+                browser.getScrollBottomOffset()
+        );
+    }
 
-        if (noteCountRefresher != null) {
-            noteCountRefresher.stop();
-            noteCountRefresher = null;
+    /**
+     * Restores a snapshot of a hibernated tab; the scroll position is applied once the history is rendered.
+     */
+    public void restoreState(final ChatWindowState state) {
+        if (state == null) {
+            return;
+        }
+        chatTextArea.setText(state.draftText());
+        chatTextArea.positionCaret(state.draftText().length());
+        if (state.currentCommand() != null) {
+            setCurrentCommand(state.currentCommand());
         }
+        for (final ImageAttachment attachment : state.pendingImages()) {
+            final Image image = new Image(new ByteArrayInputStream(Base64.getDecoder().decode(attachment.base64Data())));
+            addImageAttachment(attachment, image);
+        }
+        browser.whenReady(() -> updateBrowser(() -> browser.restoreScrollBottomOffset(state.scrollBottomOffset())));
     }
 
     @FXML
     public void initialize() {
         statusPrompt = new ChatStatusPrompt(chatTextArea);
-        browser = new Browser();
+        browser = BrowserPool.getInstance().acquire();
         browser.setSuggestionClickHandler(this::handleSuggestionClick);
         browser.setWelcomeActionHandler(new Browser.WelcomeActionHandler() {
             @Override
@@ -284,11 +354,11 @@ public class ChatWindow extends BorderPane {
                 if (cached != null) {
                     Thread.startVirtualThread(() -> {
                         try {
-                            final var msgs = BackendApi.getMessagesByThreadId(threadId);
+                            final var msgs = BackendApi.getMessagesByThreadId(threadId, null, HISTORY_PAGE_SIZE);
                             FxThreadRunner.run(() -> applicationWindow.loadChatThreadInActiveTab(cached, msgs));
                         } catch (final Exception e) {
                             logger.warn("Cannot load messages for thread from welcome screen: {}", threadId, e);
-                            FxThreadRunner.run(() -> applicationWindow.loadChatThreadInActiveTab(cached, List.of()));
+                            FxThreadRunner.run(() -> applicationWindow.loadChatThreadInActiveTab(cached, ChatMessagePage.EMPTY));
                         }
                     });
                     return;
@@ -298,7 +368,7 @@ public class ChatWindow extends BorderPane {
                     try {
                         final var optThread = BackendApi.getChatThread(threadId);
                         optThread.ifPresent(thread -> {
-                            final var msgs = BackendApi.getMessagesByThreadId(threadId);
+                            final var msgs = BackendApi.getMessagesByThreadId(threadId, null, HISTORY_PAGE_SIZE);
                             FxThreadRunner.run(() -> applicationWindow.loadChatThreadInActiveTab(thread, msgs));
                         });
                     } catch (final Exception e) {
@@ -311,12 +381,16 @@ public class ChatWindow extends BorderPane {
 
         actionNodes = List.of(sendButton);
 
-        browser.whenReady(() -> {
-            messages.forEach(this::displayMessage);
+        browser.setHistoryPageHandler(this::loadOlderMessages);
+        browser.whenReady(() -> updateBrowser(() -> {
+            if (!initialPage.messages().isEmpty()) {
+                browser.prependHistory(toHistoryMessages(initialPage.messages()), initialPage.hasOlderMessages());
+            }
             localizeWelcomeScreen();
             populateWelcomeData();
-        });
-        boolean hasAnyUserMessages = messages.stream().anyMatch(m -> m.sender() == ChatMessageRole.USER);
+        }));
+        boolean hasAnyUserMessages = initialPage.hasOlderMessages()
+                || initialPage.messages().stream().anyMatch(m -> m.sender() == ChatMessageRole.USER);
 
         streamingController = new ChatStreamingController(
                 browser,
@@ -373,12 +447,7 @@ public class ChatWindow extends BorderPane {
     }
 
     private void initLanguageListener() {
-        LanguageManager.localeProperty().addListener((_, _, _) ->
-                FxThreadRunner.run(() -> {
-                    setCurrentCommand(currentCommand);
-                    installButtonTooltips();
-                })
-        );
+        LanguageManager.localeProperty().addListener(localeChangeListener);
     }
 
     private void installButtonTooltips() {
@@ -545,12 +614,75 @@ public class ChatWindow extends BorderPane {
     }
 
     private void displayMessage(final ChatMessageResponseModel message) {
-        final String displayText = message.commandUsageInfo() != null
-                && message.commandUsageInfo().prompt() != null
-                && !message.commandUsageInfo().prompt().isBlank()
-                ? message.commandUsageInfo().prompt()
-                : message.content();
-        displayMessage(displayText, message.sender(), message.styleType());
+        displayMessage(resolveDisplayText(message), message.sender(), message.styleType());
+    }
+
+    private String resolveDisplayText(final ChatMessageResponseModel message) {
+        return resolveDisplayText(message.content(), message.commandUsageInfo());
+    }
+
+    private List<Browser.HistoryMessage> toHistoryMessages(final List<ChatMessageResponseModel> messages) {
+        return messages.stream()
+                .map(message -> new Browser.HistoryMessage(resolveDisplayText(message), message.sender(), message.styleType()))
+                .toList();
+    }
+
+    /**
+     * Called by the browser when the user scrolls near the top of the rendered history.
+     * The page is fetched off the FX thread; the browser always gets an answer so that it
+     * can request the next page.
+     */
+    private void loadOlderMessages() {
+        final String cursor = olderMessagesCursor;
+        if (cursor == null) {
+            browser.prependHistory(List.of(), false);
+            return;
+        }
+        startBackgroundLoad(() -> {
+            ChatMessagePage page;
+            try {
+                page = BackendApi.getMessagesByThreadId(chatThread.id(), cursor, HISTORY_PAGE_SIZE);
+            } catch (final Exception e) {
+                if (closed) {
+                    return;
+                }
+                logger.warn("Cannot load older messages for thread {}", chatThread.id(), e);
+                page = ChatMessagePage.EMPTY;
+            }
+            final ChatMessagePage loadedPage = page;
+            final List<Browser.HistoryMessage> historyMessages = toHistoryMessages(loadedPage.messages());
+            updateBrowser(() -> {
+                olderMessagesCursor = loadedPage.beforeCursor();
+                browser.prependHistory(historyMessages, loadedPage.hasOlderMessages());
+            });
+        });
+    }
+
+    /**
+     * Runs a load off the FX thread; it is interrupted if the tab is closed before it finishes.
+     */
+    private void startBackgroundLoad(final Runnable load) {
+        final Thread thread = Thread.ofVirtual().unstarted(() -> {
+            try {
+                load.run();
+            } finally {
+                backgroundLoads.remove(Thread.currentThread());
+            }
+        });
+        backgroundLoads.add(thread);
+        thread.start();
+    }
+
+    /**
+     * Applies {@code update} on the FX thread unless the tab was closed meanwhile, in which case
+     * the browser may already belong to another tab.
+     */
+    private void updateBrowser(final Runnable update) {
+        FxThreadRunner.run(() -> {
+            if (!closed) {
+                update.run();
+            }
+        });
     }
 
     private String resolveDisplayText(final String message, final CommandUsageInfo commandUsageInfo) {
@@ -563,14 +695,14 @@ public class ChatWindow extends BorderPane {
     private void displayMessage(final String text,
                                 final ChatMessageRole chatMessageRole,
                                 final ChatMessageStyleType chatMessageStyleType) {
-        FxThreadRunner.run(() -> browser.addContent(text, chatMessageRole, chatMessageStyleType));
+        updateBrowser(() -> browser.addContent(text, chatMessageRole, chatMessageStyleType));
     }
 
     private void displayMessageWithImages(final String text,
                                            final ChatMessageRole chatMessageRole,
                                            final ChatMessageStyleType chatMessageStyleType,
                                            final List<ImageAttachment> images) {
-        FxThreadRunner.run(() -> browser.addContentWithImages(text, chatMessageRole, chatMessageStyleType, images));
+        updateBrowser(() -> browser.addContentWithImages(text, chatMessageRole, chatMessageStyleType, images));
     }
 
     private void handleChatNotification(final ChatNotificationEvent event) {
@@ -951,7 +1083,10 @@ public class ChatWindow extends BorderPane {
                     current.showExpandButton(),
                     current.expandWidth(),
                     current.autoSplitOnExpand(),
-                    current.mascotNotificationsEnabled()
+                    current.mascotNotificationsEnabled(),
+                    current.streamFrameIntervalMillis(),
+                    current.maxLiveChatTabs(),
+                    current.chatTabHibernateAfterMinutes()
             );
             UI_SETTINGS.saveDocument(updated);
         });
@@ -969,7 +1104,10 @@ public class ChatWindow extends BorderPane {
                     current.showExpandButton(),
                     current.expandWidth(),
                     current.autoSplitOnExpand(),
-                    current.mascotNotificationsEnabled()
+                    current.mascotNotificationsEnabled(),
+                    current.streamFrameIntervalMillis(),
+                    current.maxLiveChatTabs(),
+                    current.chatTabHibernateAfterMinutes()
                     );
             UI_SETTINGS.saveDocument(updated);
         });
@@ -1013,7 +1151,7 @@ public class ChatWindow extends BorderPane {
     }
 
     private void populateWelcomeData() {
-        Thread.startVirtualThread(() -> {
+        startBackgroundLoad(() -> {
             try {
                 final String greeting = buildGreeting();
                 final String commandsLabel = LanguageManager.getLanguageString("welcome.commands");
@@ -1035,15 +1173,15 @@ public class ChatWindow extends BorderPane {
 
                 final String tipText = WelcomeTips.getRandom();
 
-                FxThreadRunner.run(() ->
-                        browser.populateWelcomeData(greeting, commandsJson, commandsLabel, recentJson, tipPrefix, tipText, recentLabel)
-                );
-
-                // Fetch initial note count and start periodic refresh
-                noteCountRefresher = new NoteCountRefresher(browser);
-                noteCountRefresher.start();
+                updateBrowser(() -> {
+                    browser.populateWelcomeData(greeting, commandsJson, commandsLabel, recentJson, tipPrefix, tipText, recentLabel);
+                    // Show the shared note count, which follows changes in the notes directory
+                    noteCountSubscription = NoteCountFeed.getInstance().subscribe(browser);
+                });
             } catch (final Exception e) {
-                logger.warn("Failed to populate welcome screen data", e);
+                if (!closed) {
+                    logger.warn("Failed to populate welcome screen data", e);
+                }
             }
         });
     }
@@ -0,0 +1,27 @@
+package com.patres.alina.uidesktop.ui.chat;
+
+import com.patres.alina.common.card.CardListItem;
+import com.patres.alina.common.message.ImageAttachment;
+
+import java.util.List;
+
+/**
+ * What the user left in a chat tab, kept while the tab is hibernated and its web view is released.
+ *
+ * @param draftText          unsent text of the composer
+ * @param pendingImages      images attached to the draft
+ * @param currentCommand     selected command, or {@code null}
+ * @param scrollBottomOffset distance in pixels between the viewport and the end of the conversation
+ */
+public record ChatWindowState(
+        String draftText,
+        List<ImageAttachment> pendingImages,
+        CardListItem currentCommand,
+        double scrollBottomOffset
+) {
+
+    public ChatWindowState {
+        draftText = draftText == null ? "" : draftText;
+        pendingImages = pendingImages == null ? List.of() : List.copyOf(pendingImages);
+    }
+}
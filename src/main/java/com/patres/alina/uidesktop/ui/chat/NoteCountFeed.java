@@ -0,0 +1,97 @@
+package com.patres.alina.uidesktop.ui.chat;
+
+import com.patres.alina.common.event.WorkspaceSettingsUpdatedEvent;
+import com.patres.alina.common.event.bus.DefaultEventBus;
+import com.patres.alina.uidesktop.backend.BackendApi;
+import com.patres.alina.uidesktop.ui.dashboard.DashboardRefreshScheduler;
+import com.patres.alina.uidesktop.ui.language.LanguageManager;
+import com.patres.alina.uidesktop.ui.util.FxThreadRunner;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Single source of the Obsidian note count for the welcome screens of all chat tabs.
+ * <p>
+ * The count is fetched on one shared cadence, and again whenever notes change on disk or the
+ * workspace settings are saved, but only while at least one welcome screen is subscribed. The last
+ * count is cached, so a new tab shows it at once. When the last subscriber leaves, a running scan
+ * is cancelled.
+ */
+final class NoteCountFeed {
+
+    private static final Duration REFRESH_INTERVAL = Duration.ofMinutes(1);
+    private static final long UNSET = -1;
+
+    private static final NoteCountFeed INSTANCE = new NoteCountFeed();
+
+    private final Set<Browser> subscribers = new CopyOnWriteArraySet<>();
+    private final DashboardRefreshScheduler.Source refreshSource;
+    private volatile long lastCount = UNSET;
+    private volatile Thread scanThread;
+
+    private NoteCountFeed() {
+        refreshSource = DashboardRefreshScheduler.getInstance().register("note-count", () -> REFRESH_INTERVAL, this::refresh);
+        refreshSource.setVisible(false);
+        BackendApi.addNotesChangedListener(refreshSource::refreshNow);
+        DefaultEventBus.getInstance().subscribe(WorkspaceSettingsUpdatedEvent.class, event -> refreshSource.refreshNow());
+    }
+
+    static NoteCountFeed getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Keeps the note count on {@code browser}'s welcome screen up to date until the returned
+     * handle is run.
+     */
+    synchronized Runnable subscribe(final Browser browser) {
+        subscribers.add(browser);
+        final long count = lastCount;
+        if (count != UNSET) {
+            push(browser, count);
+        }
+        refreshSource.setVisible(true);
+        return () -> unsubscribe(browser);
+    }
+
+    private synchronized void unsubscribe(final Browser browser) {
+        if (!subscribers.remove(browser) || !subscribers.isEmpty()) {
+            return;
+        }
+        refreshSource.setVisible(false);
+        final Thread scan = scanThread;
+        if (scan != null) {
+            scan.interrupt();
+        }
+    }
+
+    private boolean refresh() {
+        scanThread = Thread.currentThread();
+        try {
+            final OptionalLong count = BackendApi.getNoteCount();
+            if (count.isEmpty()) {
+                return false;
+            }
+            if (count.getAsLong() != lastCount) {
+                lastCount = count.getAsLong();
+                subscribers.forEach(browser -> push(browser, count.getAsLong()));
+            }
+            return true;
+        } finally {
+            scanThread = null;
+        }
+    }
+
+    private void push(final Browser browser, final long count) {
+        final String label = LanguageManager.getLanguageString("welcome.notes");
+        FxThreadRunner.run(() -> {
+            // A tab that unsubscribed meanwhile may already have given its browser back to the pool
+            if (subscribers.contains(browser)) {
+                browser.updateNoteCount(count, label);
+            }
+        });
+    }
+}
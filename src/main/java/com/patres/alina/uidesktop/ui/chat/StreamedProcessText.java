@@ -0,0 +1,93 @@
+package com.patres.alina.uidesktop.ui.chat;
+
+import java.util.Objects;
+
+/**
+ * Latest reasoning or commentary part of a streamed response, accumulated from deltas.
+ * <p>
+ * Only the most recent part is kept: a delta of another part, or a full text that does not continue
+ * the current one, starts over. Accessed from the FX thread only.
+ */
+final class StreamedProcessText {
+
+    private final StringBuilder content = new StringBuilder();
+    private String partId;
+    // Length of the content without its trailing whitespace
+    private int visibleEnd;
+
+    /**
+     * Appends a delta of the given part.
+     *
+     * @return {@code true} when the delta starts a new part after a non-blank previous one
+     */
+    boolean appendDelta(final String deltaPartId, final String delta) {
+        final boolean startsNewPart = !Objects.equals(deltaPartId, partId) && hasText();
+        if (startsNewPart) {
+            content.setLength(0);
+            visibleEnd = 0;
+        }
+        partId = deltaPartId;
+        final int deltaStart = content.length();
+        content.append(delta);
+        updateVisibleEnd(deltaStart);
+        return startsNewPart;
+    }
+
+    /**
+     * Replaces the content with a full text.
+     *
+     * @return {@code true} when the text does not continue the current non-blank content
+     */
+    boolean replace(final String fullText) {
+        final boolean startsNewPart = hasText()
+                && !fullText.contentEquals(content)
+                && !fullText.startsWith(content.toString());
+        if (startsNewPart) {
+            partId = null;
+        }
+        content.setLength(0);
+        content.append(fullText);
+        visibleEnd = 0;
+        updateVisibleEnd(0);
+        return startsNewPart;
+    }
+
+    void clear() {
+        content.setLength(0);
+        partId = null;
+        visibleEnd = 0;
+    }
+
+    boolean hasText() {
+        return visibleEnd > 0;
+    }
+
+    /**
+     * @return the length of the content without its trailing whitespace
+     */
+    int visibleEnd() {
+        return visibleEnd;
+    }
+
+    /**
+     * Returns what became visible after {@code from}, an earlier {@link #visibleEnd()}. Appended to
+     * the stripped text shown before, it gives the stripped text of the current content.
+     */
+    String visibleTextFrom(final int from) {
+        return from < visibleEnd ? content.substring(from, visibleEnd) : "";
+    }
+
+    private void updateVisibleEnd(final int from) {
+        for (int i = content.length() - 1; i >= from; i--) {
+            if (!Character.isWhitespace(content.charAt(i))) {
+                visibleEnd = i + 1;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return content.toString();
+    }
+}
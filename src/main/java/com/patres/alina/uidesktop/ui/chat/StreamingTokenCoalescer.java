@@ -0,0 +1,110 @@
+package com.patres.alina.uidesktop.ui.chat;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Batches streamed tokens of one chat thread so the WebView receives at most one
+ * update per frame interval instead of one JavaFX runnable and one JS call per token.
+ * <p>
+ * Tokens are buffered as they arrive; the first token of a batch schedules a flush
+ * after the interval. {@link #flush()} drains the buffer immediately and must be called
+ * before any non-token stream event is rendered so that ordering is preserved; events that
+ * finish the message use {@link #flushThen(Runnable)} to be rendered in the same UI task.
+ */
+final class StreamingTokenCoalescer {
+
+    private static final ScheduledExecutorService FLUSH_SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(task -> {
+                final Thread thread = new Thread(task, "stream-token-coalescer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Consumer<String> batchConsumer;
+    private final Executor uiExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final long intervalMillis;
+
+    private final StringBuilder pending = new StringBuilder();
+    private ScheduledFuture<?> scheduledFlush;
+
+    StreamingTokenCoalescer(final Consumer<String> batchConsumer, final Executor uiExecutor, final long intervalMillis) {
+        this(batchConsumer, uiExecutor, FLUSH_SCHEDULER, intervalMillis);
+    }
+
+    StreamingTokenCoalescer(final Consumer<String> batchConsumer,
+                            final Executor uiExecutor,
+                            final ScheduledExecutorService scheduler,
+                            final long intervalMillis) {
+        this.batchConsumer = batchConsumer;
+        this.uiExecutor = uiExecutor;
+        this.scheduler = scheduler;
+        this.intervalMillis = Math.max(1, intervalMillis);
+    }
+
+    void offer(final String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            pending.append(token);
+            if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, intervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Hands all buffered tokens to the UI thread as a single batch.
+     */
+    void flush() {
+        flushThen(null);
+    }
+
+    /**
+     * Hands all buffered tokens and then {@code uiAction} to the UI thread as one task, so the
+     * action runs after the last batch was rendered, e.g. when the streamed message is finished.
+     * <p>
+     * The task is posted while the buffer is locked: a flush started on the scheduler thread
+     * cannot overtake one started later on the event thread.
+     */
+    synchronized void flushThen(final Runnable uiAction) {
+        final String batch = drain();
+        if (batch.isEmpty() && uiAction == null) {
+            return;
+        }
+        uiExecutor.execute(() -> {
+            if (!batch.isEmpty()) {
+                batchConsumer.accept(batch);
+            }
+            if (uiAction != null) {
+                uiAction.run();
+            }
+        });
+    }
+
+    /**
+     * Drops buffered tokens without rendering them, e.g. after the user stopped the stream.
+     */
+    void discard() {
+        drain();
+    }
+
+    private synchronized String drain() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (pending.isEmpty()) {
+            return "";
+        }
+        final String batch = pending.toString();
+        pending.setLength(0);
+        return batch;
+    }
+}
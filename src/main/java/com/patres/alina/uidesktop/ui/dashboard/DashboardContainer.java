@@ -108,7 +108,10 @@ public final class DashboardContainer extends VBox {
 
         DefaultEventBus.getInstance().subscribe(
                 WorkspaceSettingsUpdatedEvent.class,
-                event -> refreshVisibility()
+                event -> {
+                    refreshVisibility();
+                    rescheduleRefreshes();
+                }
         );
         refreshVisibility();
     }
@@ -239,11 +242,37 @@ public final class DashboardContainer extends VBox {
                 javafx.css.PseudoClass.getPseudoClass("collapsed"),
                 collapsed
         );
+        updateRefreshVisibility();
         if (onCollapsedStateChanged != null) {
             onCollapsedStateChanged.run();
         }
     }
 
+    /**
+     * Pauses polling for cards nobody can see: a turned-off card, or any card while the whole
+     * dashboard is hidden or collapsed.
+     */
+    private void updateRefreshVisibility() {
+        final WorkspaceSettings settings = BackendApi.getWorkspaceSettings();
+        final boolean dashboardShown = settings.showDashboard() && !collapsed;
+        mediaControlWidget.refreshSource().setVisible(dashboardShown && settings.showDashboardMusic());
+        dashboardPane.refreshSource().setVisible(dashboardShown && settings.showDashboardTasks());
+        gitHubWidget.refreshSource().setVisible(dashboardShown && settings.showDashboardGithub());
+        jiraWidget.refreshSource().setVisible(dashboardShown && settings.showDashboardJira());
+        obsidianWidget.refreshSource().setVisible(dashboardShown && settings.showDashboardObsidian());
+    }
+
+    /**
+     * Applies changed refresh intervals to the refreshes that are already scheduled.
+     */
+    private void rescheduleRefreshes() {
+        mediaControlWidget.refreshSource().reschedule();
+        dashboardPane.refreshSource().reschedule();
+        gitHubWidget.refreshSource().reschedule();
+        jiraWidget.refreshSource().reschedule();
+        obsidianWidget.refreshSource().reschedule();
+    }
+
     public boolean isCollapsed() {
         return collapsed;
     }
@@ -266,6 +295,7 @@ public final class DashboardContainer extends VBox {
             updateWidgetVisibility(upcomingCalendarEventWidget, settings.upcomingEventCard().visible());
             updateWidgetVisibility(googleCalendarWidget, settings.showDashboardCalendar());
             updateWidgetVisibility(obsidianWidget, settings.showDashboardObsidian());
+            updateRefreshVisibility();
             scheduleLayoutRefresh();
         });
     }
@@ -10,9 +10,6 @@ import com.patres.alina.common.event.bus.DefaultEventBus;
 import com.patres.alina.uidesktop.backend.BackendApi;
 import com.patres.alina.uidesktop.ui.language.LanguageManager;
 import com.patres.alina.uidesktop.util.EmojiLabelHelper;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
@@ -21,10 +18,10 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
-import javafx.util.Duration;
 import org.kordamp.ikonli.feather.Feather;
 import org.kordamp.ikonli.javafx.FontIcon;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -38,7 +35,15 @@ public class DashboardPane extends VBox {
     private final VBox tasksBox = new VBox(2);
     private final VBox detailsBox = new VBox(2);
 
-    private Timeline refreshTimeline;
+    private final DashboardRefreshScheduler.Source refreshSource = DashboardRefreshScheduler.getInstance().register(
+            "tasks",
+            () -> Duration.ofSeconds(BackendApi.getWorkspaceSettings().dashboardTasksRefreshSeconds()),
+            () -> {
+                final DashboardState state = BackendApi.getDashboardState();
+                Platform.runLater(() -> render(state));
+                return true;
+            }
+    );
 
     public DashboardPane() {
         getStyleClass().add("workspace-dashboard");
@@ -65,36 +70,18 @@ public class DashboardPane extends VBox {
         setSpacing(2);
         getChildren().addAll(header, detailsBox);
 
-        initializeRefreshTimer();
-
-        DefaultEventBus.getInstance().subscribe(WorkspaceSettingsUpdatedEvent.class, event -> {
-            refreshAsync();
-            updateRefreshTimer();
-        });
+        DefaultEventBus.getInstance().subscribe(WorkspaceSettingsUpdatedEvent.class, event -> refreshAsync());
         DefaultEventBus.getInstance().subscribe(DashboardUpdatedEvent.class, event -> refreshAsync());
 
         refreshAsync();
     }
 
-    private void initializeRefreshTimer() {
-        final int refreshSeconds = BackendApi.getWorkspaceSettings().dashboardTasksRefreshSeconds();
-        refreshTimeline = new Timeline(new KeyFrame(Duration.seconds(refreshSeconds), event -> refreshAsync()));
-        refreshTimeline.setCycleCount(Animation.INDEFINITE);
-        refreshTimeline.play();
-    }
-
-    private void updateRefreshTimer() {
-        if (refreshTimeline != null) {
-            refreshTimeline.stop();
-        }
-        initializeRefreshTimer();
+    public void refreshAsync() {
+        refreshSource.refreshNow();
     }
 
-    public void refreshAsync() {
-        Thread.startVirtualThread(() -> {
-            final DashboardState state = BackendApi.getDashboardState();
-            Platform.runLater(() -> render(state));
-        });
+    DashboardRefreshScheduler.Source refreshSource() {
+        return refreshSource;
     }
 
     private void render(final DashboardState state) {
@@ -0,0 +1,277 @@
+package com.patres.alina.uidesktop.ui.dashboard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Polls every dashboard data source from one timer thread.
+ * <p>
+ * A source refreshes only while somebody can see it: when the window is hidden or the source's
+ * card is collapsed or turned off, its timer is cancelled, and the next show refreshes it at once.
+ * Sources that raise notifications (new pull requests, meeting reminders, ...) can ask to keep
+ * polling in the background. Refreshes run on virtual threads; a refresh requested while one is
+ * in flight is merged into a single follow-up run. Periods get {@link #JITTER} of random spread so
+ * the sources drift apart, and failing sources back off exponentially up to {@link #MAX_BACKOFF}.
+ */
+public final class DashboardRefreshScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardRefreshScheduler.class);
+
+    static final double JITTER = 0.1;
+    static final Duration MAX_BACKOFF = Duration.ofMinutes(15);
+    private static final Duration MIN_INTERVAL = Duration.ofSeconds(1);
+
+    private static final DashboardRefreshScheduler INSTANCE = new DashboardRefreshScheduler(
+            Executors.newSingleThreadScheduledExecutor(task -> {
+                final Thread thread = new Thread(task, "dashboard-refresh");
+                thread.setDaemon(true);
+                return thread;
+            }),
+            Thread::startVirtualThread,
+            () -> ThreadLocalRandom.current().nextDouble()
+    );
+
+    /**
+     * Loads fresh data for a source and renders it.
+     */
+    @FunctionalInterface
+    public interface RefreshTask {
+
+        /**
+         * @return {@code false} when the data could not be loaded, which backs the source off
+         */
+        boolean refresh() throws Exception;
+    }
+
+    private final ScheduledExecutorService timer;
+    private final Executor refreshExecutor;
+    private final DoubleSupplier random;
+    private final List<Source> sources = new CopyOnWriteArrayList<>();
+    private volatile boolean windowShowing = true;
+
+    /**
+     * Creates a standalone scheduler; the application uses {@link #getInstance()}.
+     *
+     * @param random source of numbers in {@code [0, 1)} used for jitter
+     */
+    public DashboardRefreshScheduler(final ScheduledExecutorService timer,
+                                     final Executor refreshExecutor,
+                                     final DoubleSupplier random) {
+        this.timer = timer;
+        this.refreshExecutor = refreshExecutor;
+        this.random = random;
+    }
+
+    public static DashboardRefreshScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    public Source register(final String name, final Supplier<Duration> interval, final RefreshTask task) {
+        return register(name, interval, () -> false, task);
+    }
+
+    /**
+     * Adds a source. It stays idle until the first {@link Source#refreshNow()}.
+     *
+     * @param runsWhenHidden whether the source keeps polling while nobody can see it
+     */
+    public Source register(final String name,
+                           final Supplier<Duration> interval,
+                           final BooleanSupplier runsWhenHidden,
+                           final RefreshTask task) {
+        final Source source = new Source(name, interval, runsWhenHidden, task);
+        sources.add(source);
+        return source;
+    }
+
+    /**
+     * Pauses or resumes all sources that do not run in the background, e.g. when the window is
+     * minimised or hidden to the tray.
+     */
+    public void setWindowShowing(final boolean showing) {
+        if (windowShowing == showing) {
+            return;
+        }
+        windowShowing = showing;
+        sources.forEach(Source::update);
+    }
+
+    public final class Source {
+
+        private final String name;
+        private final Supplier<Duration> interval;
+        private final BooleanSupplier runsWhenHidden;
+        private final RefreshTask task;
+
+        private boolean visible = true;
+        private boolean paused = true;
+        private boolean running;
+        private boolean rerun;
+        private boolean closed;
+        private int failures;
+        private ScheduledFuture<?> next;
+        private long armedPeriodMillis;
+        private long armedDelayMillis;
+
+        private Source(final String name,
+                       final Supplier<Duration> interval,
+                       final BooleanSupplier runsWhenHidden,
+                       final RefreshTask task) {
+            this.name = name;
+            this.interval = interval;
+            this.runsWhenHidden = runsWhenHidden;
+            this.task = task;
+        }
+
+        /**
+         * Refreshes now, or once the current refresh finishes. A paused source only remembers
+         * that it is stale and refreshes when it is shown.
+         */
+        public synchronized void refreshNow() {
+            if (closed) {
+                return;
+            }
+            if (!isActive()) {
+                pause();
+            } else if (running) {
+                rerun = true;
+            } else {
+                start();
+            }
+        }
+
+        /**
+         * Tells whether the source's card can be seen, ignoring the window state.
+         */
+        public synchronized void setVisible(final boolean visible) {
+            if (this.visible != visible) {
+                this.visible = visible;
+                update();
+            }
+        }
+
+        /**
+         * Applies a changed interval to the refresh that is already waiting, counting the time
+         * waited so far, instead of only to the one after it.
+         */
+        public synchronized void reschedule() {
+            if (closed || next == null || periodMillis() == armedPeriodMillis) {
+                return;
+            }
+            final long waited = armedDelayMillis - next.getDelay(TimeUnit.MILLISECONDS);
+            next.cancel(false);
+            final long delay = nextDelayMillis();
+            armedPeriodMillis = periodMillis();
+            armedDelayMillis = delay;
+            next = timer.schedule(this::onTimer, Math.max(0, delay - waited), TimeUnit.MILLISECONDS);
+        }
+
+        public synchronized void close() {
+            closed = true;
+            cancelNext();
+            sources.remove(this);
+        }
+
+        private synchronized void update() {
+            if (closed) {
+                return;
+            }
+            if (!isActive()) {
+                pause();
+            } else if (paused && !running) {
+                start();
+            }
+        }
+
+        private boolean isActive() {
+            return (visible && windowShowing) || runsWhenHidden.getAsBoolean();
+        }
+
+        private void pause() {
+            paused = true;
+            cancelNext();
+        }
+
+        private void start() {
+            cancelNext();
+            paused = false;
+            running = true;
+            refreshExecutor.execute(this::run);
+        }
+
+        private void run() {
+            boolean succeeded;
+            try {
+                succeeded = task.refresh();
+            } catch (Exception e) {
+                logger.warn("Dashboard source {} failed to refresh", name, e);
+                succeeded = false;
+            }
+            synchronized (this) {
+                running = false;
+                failures = succeeded ? 0 : failures + 1;
+                if (closed) {
+                    return;
+                }
+                if (!isActive()) {
+                    pause();
+                } else if (rerun) {
+                    rerun = false;
+                    start();
+                } else {
+                    armedPeriodMillis = periodMillis();
+                    armedDelayMillis = nextDelayMillis();
+                    next = timer.schedule(this::onTimer, armedDelayMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        private synchronized void onTimer() {
+            next = null;
+            if (closed || running) {
+                return;
+            }
+            if (isActive()) {
+                start();
+            } else {
+                pause();
+            }
+        }
+
+        private long periodMillis() {
+            final Duration configured = interval.get();
+            return Math.max(MIN_INTERVAL.toMillis(), configured == null ? 0 : configured.toMillis());
+        }
+
+        private long nextDelayMillis() {
+            final long period = periodMillis();
+            long delay = period;
+            for (int i = 0; i < failures && delay < MAX_BACKOFF.toMillis(); i++) {
+                delay *= 2;
+            }
+            delay = Math.min(delay, Math.max(period, MAX_BACKOFF.toMillis()));
+            final double spread = (random.getAsDouble() * 2 - 1) * JITTER;
+            return Math.round(delay * (1 + spread));
+        }
+
+        private void cancelNext() {
+            if (next != null) {
+                next.cancel(false);
+                next = null;
+            }
+        }
+    }
+}
@@ -9,9 +9,6 @@ import com.patres.alina.server.integration.GitHubPullRequestResult;
 import com.patres.alina.uidesktop.backend.BackendApi;
 import com.patres.alina.uidesktop.ui.chat.Browser;
 import com.patres.alina.uidesktop.util.EmojiLabelHelper;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -19,10 +16,10 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
-import javafx.util.Duration;
 import org.kordamp.ikonli.feather.Feather;
 import org.kordamp.ikonli.javafx.FontIcon;
 
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,9 +33,14 @@ public class GitHubWidget extends VBox {
     private final VBox detailsBox = new VBox(2);
 
     private boolean collapsed = false;
-    private String githubToken;
+    private volatile String githubToken;
 
-    private Timeline refreshTimeline;
+    private final DashboardRefreshScheduler.Source refreshSource = DashboardRefreshScheduler.getInstance().register(
+            "github",
+            () -> Duration.ofSeconds(BackendApi.getWorkspaceSettings().dashboardGithubRefreshSeconds()),
+            () -> BackendApi.getWorkspaceSettings().githubChangeNotificationsEnabled(),
+            this::fetch
+    );
 
     public GitHubWidget() {
         getStyleClass().add("workspace-dashboard");
@@ -79,32 +81,28 @@ public class GitHubWidget extends VBox {
 
     public void refresh(final String githubToken) {
         this.githubToken = githubToken;
-        if (refreshTimeline != null) {
-            refreshTimeline.stop();
-        }
-        final int refreshSeconds = BackendApi.getWorkspaceSettings().dashboardGithubRefreshSeconds();
-        refreshTimeline = new Timeline(new KeyFrame(Duration.seconds(refreshSeconds), event -> refreshAsync()));
-        refreshTimeline.setCycleCount(Animation.INDEFINITE);
-        refreshTimeline.play();
-        refreshAsync();
+        refreshSource.refreshNow();
+    }
+
+    DashboardRefreshScheduler.Source refreshSource() {
+        return refreshSource;
     }
 
-    private void refreshAsync() {
+    private boolean fetch() {
         final String token = this.githubToken;
         if (token == null || token.isBlank()) {
             Platform.runLater(() -> {
                 setManaged(false);
                 setVisible(false);
             });
-            return;
+            return true;
         }
 
-        Thread.startVirtualThread(() -> {
-            final int maxResults = BackendApi.getWorkspaceSettings().dashboardGithubPrLimit();
-            final GitHubPullRequestResult result = BackendApi.fetchGitHubPendingReviews(token, maxResults);
-            trackChanges(result);
-            Platform.runLater(() -> render(result));
-        });
+        final int maxResults = BackendApi.getWorkspaceSettings().dashboardGithubPrLimit();
+        final GitHubPullRequestResult result = BackendApi.fetchGitHubPendingReviews(token, maxResults);
+        trackChanges(result);
+        Platform.runLater(() -> render(result));
+        return !result.fetchError();
     }
 
     private void render(final GitHubPullRequestResult result) {
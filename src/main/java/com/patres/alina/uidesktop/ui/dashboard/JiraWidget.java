@@ -9,9 +9,6 @@ import com.patres.alina.server.integration.JiraIssueResult;
 import com.patres.alina.uidesktop.backend.BackendApi;
 import com.patres.alina.uidesktop.ui.chat.Browser;
 import com.patres.alina.uidesktop.util.EmojiLabelHelper;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -19,11 +16,11 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
-import javafx.util.Duration;
 import org.kordamp.ikonli.devicons.Devicons;
 import org.kordamp.ikonli.feather.Feather;
 import org.kordamp.ikonli.javafx.FontIcon;
 
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,7 +39,12 @@ public class JiraWidget extends VBox {
 
     private boolean collapsed = false;
 
-    private Timeline refreshTimeline;
+    private final DashboardRefreshScheduler.Source refreshSource = DashboardRefreshScheduler.getInstance().register(
+            "jira",
+            () -> Duration.ofSeconds(BackendApi.getWorkspaceSettings().dashboardJiraRefreshSeconds()),
+            () -> BackendApi.getWorkspaceSettings().jiraChangeNotificationsEnabled(),
+            this::fetch
+    );
 
     public JiraWidget() {
         getStyleClass().add("workspace-dashboard");
@@ -82,36 +84,32 @@ public class JiraWidget extends VBox {
     }
 
     public void refresh() {
-        if (refreshTimeline != null) {
-            refreshTimeline.stop();
-        }
-        final int refreshSeconds = BackendApi.getWorkspaceSettings().dashboardJiraRefreshSeconds();
-        refreshTimeline = new Timeline(new KeyFrame(Duration.seconds(refreshSeconds), event -> refreshAsync()));
-        refreshTimeline.setCycleCount(Animation.INDEFINITE);
-        refreshTimeline.play();
-        refreshAsync();
+        refreshSource.refreshNow();
     }
 
-    private void refreshAsync() {
-        Thread.startVirtualThread(() -> {
-            final var settings = BackendApi.getWorkspaceSettings();
-            final int maxResults = settings.dashboardJiraIssueLimit();
-            final String email = settings.jiraEmail();
-            final String token = settings.jiraApiToken();
-            
-            // Hide widget if no credentials
-            if (email == null || email.isBlank() || token == null || token.isBlank()) {
-                Platform.runLater(() -> {
-                    setManaged(false);
-                    setVisible(false);
-                });
-                return;
-            }
-            
-            final JiraIssueResult result = BackendApi.fetchJiraAssignedIssues(email, token, maxResults);
-            trackChanges(result);
-            Platform.runLater(() -> render(result));
-        });
+    DashboardRefreshScheduler.Source refreshSource() {
+        return refreshSource;
+    }
+
+    private boolean fetch() {
+        final var settings = BackendApi.getWorkspaceSettings();
+        final int maxResults = settings.dashboardJiraIssueLimit();
+        final String email = settings.jiraEmail();
+        final String token = settings.jiraApiToken();
+
+        // Hide widget if no credentials
+        if (email == null || email.isBlank() || token == null || token.isBlank()) {
+            Platform.runLater(() -> {
+                setManaged(false);
+                setVisible(false);
+            });
+            return true;
+        }
+
+        final JiraIssueResult result = BackendApi.fetchJiraAssignedIssues(email, token, maxResults);
+        trackChanges(result);
+        Platform.runLater(() -> render(result));
+        return !result.fetchError();
     }
 
     private void render(final JiraIssueResult result) {
@@ -4,9 +4,6 @@ import atlantafx.base.theme.Styles;
 import com.patres.alina.server.integration.MediaControlService;
 import com.patres.alina.uidesktop.backend.BackendApi;
 import com.patres.alina.uidesktop.ui.language.LanguageManager;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -14,15 +11,16 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
-import javafx.util.Duration;
 import org.kordamp.ikonli.feather.Feather;
 import org.kordamp.ikonli.javafx.FontIcon;
 
+import java.time.Duration;
+
 /**
  * A compact media-controls widget for the dashboard.
  * Displays playback buttons (previous, play/pause, next) and the currently playing track.
  * Controls macOS media players (Spotify / Apple Music) via {@link MediaControlService}.
- * Auto-refreshes track info based on settings.
+ * Auto-refreshes track info based on settings while the dashboard is visible.
  */
 public class MediaControlWidget extends VBox {
 
@@ -30,7 +28,14 @@ public class MediaControlWidget extends VBox {
     private final Label trackInfoLabel = new Label();
     private boolean currentlyPlaying = false;
 
-    private Timeline refreshTimeline;
+    private final DashboardRefreshScheduler.Source refreshSource = DashboardRefreshScheduler.getInstance().register(
+            "media",
+            () -> Duration.ofSeconds(BackendApi.getWorkspaceSettings().dashboardMediaRefreshSeconds()),
+            () -> {
+                refreshTrackInfo();
+                return true;
+            }
+    );
 
     public MediaControlWidget() {
         getStyleClass().add("workspace-dashboard");
@@ -79,26 +84,20 @@ public class MediaControlWidget extends VBox {
 
         getChildren().add(header);
 
-        // Auto-refresh with settings
-        initializeRefreshTimer();
-
-        // Initial state check
+        // Initial state check; the scheduler keeps it fresh afterwards
         refresh();
     }
 
-    private void initializeRefreshTimer() {
-        final int refreshSeconds = BackendApi.getWorkspaceSettings().dashboardMediaRefreshSeconds();
-        refreshTimeline = new Timeline(new KeyFrame(Duration.seconds(refreshSeconds), event -> refresh()));
-        refreshTimeline.setCycleCount(Animation.INDEFINITE);
-        refreshTimeline.play();
-    }
-
     /**
      * Refreshes the widget: updates track info and visibility.
      * Safe to call from any thread — schedules UI updates on the FX Application Thread.
      */
     public void refresh() {
-        Thread.startVirtualThread(this::refreshTrackInfo);
+        refreshSource.refreshNow();
+    }
+
+    DashboardRefreshScheduler.Source refreshSource() {
+        return refreshSource;
     }
 
     private void refreshTrackInfo() {
@@ -11,9 +11,6 @@ import com.patres.alina.server.integration.ObsidianNotesResult;
 import com.patres.alina.uidesktop.backend.BackendApi;
 import com.patres.alina.uidesktop.ui.language.LanguageManager;
 import com.patres.alina.uidesktop.util.EmojiLabelHelper;
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -22,11 +19,11 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
-import javafx.util.Duration;
 import org.kordamp.ikonli.feather.Feather;
 import org.kordamp.ikonli.javafx.FontIcon;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -62,7 +59,12 @@ public class ObsidianWidget extends VBox {
     private final VBox detailsBox = new VBox(2);
 
     private boolean collapsed = false;
-    private Timeline refreshTimeline;
+    private final DashboardRefreshScheduler.Source refreshSource = DashboardRefreshScheduler.getInstance().register(
+            "obsidian",
+            () -> Duration.ofSeconds(BackendApi.getWorkspaceSettings().dashboardObsidianRefreshSeconds()),
+            () -> BackendApi.getWorkspaceSettings().obsidianChangeNotificationsEnabled(),
+            this::fetch
+    );
 
     public ObsidianWidget() {
         getStyleClass().add(STYLE_DASHBOARD);
@@ -102,31 +104,27 @@ public class ObsidianWidget extends VBox {
     }
 
     public void refresh() {
-        if (refreshTimeline != null) {
-            refreshTimeline.stop();
-        }
-        final int refreshSeconds = BackendApi.getWorkspaceSettings().dashboardObsidianRefreshSeconds();
-        refreshTimeline = new Timeline(new KeyFrame(Duration.seconds(refreshSeconds), event -> refreshAsync()));
-        refreshTimeline.setCycleCount(Animation.INDEFINITE);
-        refreshTimeline.play();
-        refreshAsync();
+        refreshSource.refreshNow();
+    }
+
+    DashboardRefreshScheduler.Source refreshSource() {
+        return refreshSource;
     }
 
-    private void refreshAsync() {
-        Thread.startVirtualThread(() -> {
-            final WorkspaceSettings settings = BackendApi.getWorkspaceSettings();
-            final Path notesDirectory = Path.of(settings.openCodeWorkingDirectory()).toAbsolutePath().normalize();
-            final int limit = settings.dashboardObsidianNoteLimit();
-            final String excludePatterns = settings.obsidianExcludePatterns();
+    private boolean fetch() {
+        final WorkspaceSettings settings = BackendApi.getWorkspaceSettings();
+        final Path notesDirectory = Path.of(settings.openCodeWorkingDirectory()).toAbsolutePath().normalize();
+        final int limit = settings.dashboardObsidianNoteLimit();
+        final String excludePatterns = settings.obsidianExcludePatterns();
 
-            final ObsidianNotesResult result = ObsidianCliService.fetchRecentNotes(notesDirectory, limit, excludePatterns);
+        final ObsidianNotesResult result = ObsidianCliService.fetchRecentNotes(notesDirectory, limit, excludePatterns);
 
-            if (result.errorMessage().isEmpty()) {
-                trackChanges(result.notes());
-            }
+        if (result.errorMessage().isEmpty()) {
+            trackChanges(result.notes());
+        }
 
-            Platform.runLater(() -> render(result));
-        });
+        Platform.runLater(() -> render(result));
+        return result.errorMessage().isEmpty();
     }
 
     // ── Rendering ────────────────────────────────────────────────
@@ -0,0 +1,140 @@
+package com.patres.alina.uidesktop.util;
+
+import java.util.regex.Pattern;
+
+import static com.patres.alina.uidesktop.util.MarkdownToHtmlConverter.convertMarkdownToHtml;
+
+/**
+ * Renders a streamed markdown message block by block.
+ * <p>
+ * Blocks that can no longer change (a blank line was followed by the start of a new
+ * top-level block, outside any fenced code) are converted once and frozen. Only the
+ * trailing open block is re-parsed on every token, so the cost of an append depends on
+ * the size of the last block rather than on the length of the whole message.
+ * <p>
+ * Not thread-safe; the owning {@code Browser} uses it from the JavaFX thread only.
+ */
+public final class IncrementalMarkdownRenderer {
+
+    private static final Pattern LIST_ITEM_PATTERN = Pattern.compile("^([-*+]|\\d{1,9}[.)])(\\s.*)?$");
+
+    private final StringBuilder markdown = new StringBuilder();
+    private int frozenOffset;
+    private int scanOffset;
+    private String openFence;
+    private boolean previousLineBlank;
+
+    /**
+     * Appends a token and returns the DOM patch needed to show it.
+     *
+     * @param token the streamed text fragment
+     * @return HTML of blocks frozen by this token plus the re-rendered open block
+     */
+    public StreamingPatch append(final String token) {
+        if (token != null) {
+            markdown.append(token);
+        }
+        final StringBuilder frozenHtml = new StringBuilder();
+        int lineEnd;
+        while ((lineEnd = markdown.indexOf("\n", scanOffset)) >= 0) {
+            final String line = markdown.substring(scanOffset, lineEnd);
+            if (openFence == null && previousLineBlank && startsTopLevelBlock(line)) {
+                freezeUpTo(scanOffset, frozenHtml);
+            }
+            updateFenceState(line);
+            previousLineBlank = openFence == null && line.isBlank();
+            scanOffset = lineEnd + 1;
+        }
+        if (openFence == null && previousLineBlank && startsTopLevelBlockWhenComplete(markdown, scanOffset)) {
+            freezeUpTo(scanOffset, frozenHtml);
+        }
+        final String tailHtml = convertMarkdownToHtml(markdown.substring(frozenOffset));
+        return new StreamingPatch(frozenHtml.toString(), tailHtml == null ? "" : tailHtml);
+    }
+
+    public void reset() {
+        markdown.setLength(0);
+        frozenOffset = 0;
+        scanOffset = 0;
+        openFence = null;
+        previousLineBlank = false;
+    }
+
+    public String getMarkdown() {
+        return markdown.toString();
+    }
+
+    private void freezeUpTo(final int offset, final StringBuilder frozenHtml) {
+        if (offset <= frozenOffset) {
+            return;
+        }
+        final String block = markdown.substring(frozenOffset, offset);
+        frozenOffset = offset;
+        if (block.isBlank()) {
+            return;
+        }
+        frozenHtml.append(convertMarkdownToHtml(block));
+    }
+
+    private void updateFenceState(final String line) {
+        final String marker = fenceMarker(line);
+        if (marker == null) {
+            return;
+        }
+        if (openFence == null) {
+            openFence = marker;
+        } else if (marker.charAt(0) == openFence.charAt(0)
+                && marker.length() >= openFence.length()
+                && line.strip().length() == marker.length()) {
+            openFence = null;
+        }
+    }
+
+    private static String fenceMarker(final String line) {
+        final String stripped = line.stripLeading();
+        if (line.length() - stripped.length() > 3 || stripped.length() < 3) {
+            return null;
+        }
+        final char fenceChar = stripped.charAt(0);
+        if (fenceChar != '`' && fenceChar != '~') {
+            return null;
+        }
+        int length = 0;
+        while (length < stripped.length() && stripped.charAt(length) == fenceChar) {
+            length++;
+        }
+        return length >= 3 ? stripped.substring(0, length) : null;
+    }
+
+    /**
+     * A line that closes every preceding block: it is not indented (so it cannot continue
+     * a list item) and it is not itself a list item (so it cannot extend a loose list).
+     */
+    private static boolean startsTopLevelBlock(final String line) {
+        if (line.isBlank() || Character.isWhitespace(line.charAt(0))) {
+            return false;
+        }
+        return !LIST_ITEM_PATTERN.matcher(line).matches();
+    }
+
+    /**
+     * Whether the unfinished last line will start a top-level block however it continues.
+     * Only its first character is known to be final, so list markers and digits are not trusted.
+     */
+    private static boolean startsTopLevelBlockWhenComplete(final CharSequence text, final int lineStart) {
+        if (lineStart >= text.length()) {
+            return false;
+        }
+        final char first = text.charAt(lineStart);
+        return !Character.isWhitespace(first)
+                && first != '-' && first != '*' && first != '+'
+                && !Character.isDigit(first);
+    }
+
+    /**
+     * @param frozenHtml HTML to append after the already frozen blocks, may be empty
+     * @param tailHtml   HTML replacing the previous rendering of the open block
+     */
+    public record StreamingPatch(String frozenHtml, String tailHtml) {
+    }
+}
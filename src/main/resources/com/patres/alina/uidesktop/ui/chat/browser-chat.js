@@ -447,33 +447,37 @@
         if (!container) return;
 
         for (const pre of container.querySelectorAll('pre')) {
-            if (pre.dataset.enhanced === 'true') continue;
-            pre.dataset.enhanced = 'true';
-
-            const codeEl = pre.querySelector('code');
-            if (!codeEl) continue;
-
-            // Detect language from class
-            const langMatch = (codeEl.className || '').match(/language-(\w+)/);
-            const language = langMatch ? langMatch[1] : 'code';
-
-            const copyBtn = h('button', {
-                className: 'code-copy-btn',
-                innerHTML: '\u2398 Copy',
-                onclick: (e) => {
-                    e.stopPropagation();
-                    copyToClipboard(codeEl.textContent || codeEl.innerText || '', copyBtn);
-                }
-            });
-            copyBtn.setAttribute('aria-label', `Copy ${language} code`);
+            enhanceCodeBlock(pre);
+        }
+    }
 
-            const header = h('div', { className: 'code-block-header' },
-                h('span', { className: 'code-block-language', textContent: language }),
-                copyBtn
-            );
+    function enhanceCodeBlock(pre) {
+        if (pre.dataset.enhanced === 'true') return;
+        pre.dataset.enhanced = 'true';
 
-            pre.insertBefore(header, pre.firstChild);
-        }
+        const codeEl = pre.querySelector('code');
+        if (!codeEl) return;
+
+        // Detect language from class
+        const langMatch = (codeEl.className || '').match(/language-(\w+)/);
+        const language = langMatch ? langMatch[1] : 'code';
+
+        const copyBtn = h('button', {
+            className: 'code-copy-btn',
+            innerHTML: '\u2398 Copy',
+            onclick: (e) => {
+                e.stopPropagation();
+                copyToClipboard(codeEl.textContent || codeEl.innerText || '', copyBtn);
+            }
+        });
+        copyBtn.setAttribute('aria-label', `Copy ${language} code`);
+
+        const header = h('div', { className: 'code-block-header' },
+            h('span', { className: 'code-block-language', textContent: language }),
+            copyBtn
+        );
+
+        pre.insertBefore(header, pre.firstChild);
     }
 
     function copyToClipboard(text, buttonEl) {
@@ -527,6 +531,7 @@
         // Enhance code blocks and add action buttons
         enhanceCodeBlocks(div);
         addMessageActions(div);
+        observeHistoryMessage(div);
 
         // Force synchronous reflow to fix WebKit border rendering bug
         void div.offsetHeight;
@@ -567,6 +572,7 @@
 
         enhanceCodeBlocks(div);
         addMessageActions(div);
+        observeHistoryMessage(div);
 
         void div.offsetHeight;
     }
@@ -839,7 +845,11 @@
         }
     }
 
-    function showAssistantReasoning(title, htmlContent) {
+    /**
+     * Applies an incremental rendering patch (see applyIncrementalPatch) to the live reasoning card,
+     * creating the card first if needed.
+     */
+    function applyAssistantReasoningPatch(title, frozenHtml, tailHtml, reset) {
         const chatContainer = $('chat-container');
         if (!chatContainer) return;
 
@@ -858,11 +868,11 @@
             chatContainer.appendChild(card);
         }
         const bodyNode = $('assistant-reasoning-body');
-        if (bodyNode) bodyNode.innerHTML = htmlContent;
+        if (bodyNode) applyIncrementalPatch(bodyNode, frozenHtml, tailHtml, reset, false);
         scrollToBottomIfNeeded();
     }
 
-    function showAssistantCommentary(title, htmlContent) {
+    function applyAssistantCommentaryPatch(frozenHtml, tailHtml, reset) {
         removeWelcomeScreen();
         const chatContainer = $('chat-container');
         if (!chatContainer) return;
@@ -876,8 +886,7 @@
             });
             chatContainer.appendChild(card);
         }
-        card.innerHTML = htmlContent;
-        enhanceCodeBlocks(card);
+        applyIncrementalPatch(card, frozenHtml, tailHtml, reset, true);
         scrollToBottomIfNeeded();
     }
 
@@ -885,14 +894,21 @@
         const card = $('assistant-reasoning-message');
         if (!card) return;
         card.removeAttribute('id');
-        $('assistant-reasoning-body')?.removeAttribute('id');
+        const body = $('assistant-reasoning-body');
+        if (body) {
+            body.removeAttribute('id');
+            delete body.dataset.frozenNodes;
+        }
     }
 
     function finalizeAssistantCommentary() {
         const card = $('assistant-commentary-message');
         if (!card) return;
         card.removeAttribute('id');
-        if (card.dataset) delete card.dataset.transient;
+        if (card.dataset) {
+            delete card.dataset.transient;
+            delete card.dataset.frozenNodes;
+        }
         enhanceCodeBlocks(card);
         addMessageActions(card);
         void card.offsetHeight;
@@ -1409,6 +1425,7 @@
         streamingDiv.className = 'chat-message assistant';
         streamingDiv.id = 'streaming-message';
         streamingDiv.innerHTML = '';
+        streamingDiv.dataset.frozenNodes = '0';
 
         scrollToBottomIfNeeded();
     }
@@ -1422,13 +1439,49 @@
         }
     }
 
-    function updateStreamingMessageWithHtml(htmlContent) {
+    /**
+     * Applies an incremental rendering patch to the streaming message.
+     */
+    function applyStreamingPatch(frozenHtml, tailHtml) {
         const streamingDiv = $('streaming-message');
-        if (streamingDiv) {
-            streamingDiv.innerHTML = htmlContent;
-            enhanceCodeBlocks(streamingDiv);
-            void streamingDiv.offsetHeight;
-            scrollToBottomIfNeeded();
+        if (!streamingDiv) return;
+
+        applyIncrementalPatch(streamingDiv, frozenHtml, tailHtml, false, true);
+        void streamingDiv.offsetHeight;
+        scrollToBottomIfNeeded();
+    }
+
+    /**
+     * Nodes of already frozen blocks are kept as they are; the open tail block is
+     * replaced and newly frozen blocks are inserted in front of it. With reset the
+     * container is emptied first. Only the nodes touched by the patch get their code
+     * blocks enhanced.
+     */
+    function applyIncrementalPatch(container, frozenHtml, tailHtml, reset, enhance) {
+        if (reset) {
+            container.innerHTML = '';
+            container.dataset.frozenNodes = '0';
+        }
+        const frozenCount = Number(container.dataset.frozenNodes || 0);
+        while (container.childNodes.length > frozenCount) {
+            container.removeChild(container.lastChild);
+        }
+        if (frozenHtml) {
+            container.insertAdjacentHTML('beforeend', frozenHtml);
+            container.dataset.frozenNodes = String(container.childNodes.length);
+        }
+        if (tailHtml) {
+            container.insertAdjacentHTML('beforeend', tailHtml);
+        }
+        if (!enhance) return;
+        for (let i = frozenCount; i < container.childNodes.length; i++) {
+            const node = container.childNodes[i];
+            if (node.nodeType !== Node.ELEMENT_NODE) continue;
+            if (node.tagName === 'PRE') {
+                enhanceCodeBlock(node);
+            } else {
+                enhanceCodeBlocks(node);
+            }
         }
     }
 
@@ -1436,9 +1489,11 @@
         const streamingDiv = $('streaming-message');
         if (streamingDiv) {
             streamingDiv.removeAttribute('id');
+            delete streamingDiv.dataset.frozenNodes;
             streamingDiv.dataset.awaitingFooter = 'true';
             enhanceCodeBlocks(streamingDiv);
             addMessageActions(streamingDiv);
+            observeHistoryMessage(streamingDiv);
             void streamingDiv.offsetHeight;
             scrollToBottomIfNeeded();
         }
@@ -1452,6 +1507,7 @@
             streamingDiv.dataset.awaitingFooter = 'true';
             enhanceCodeBlocks(streamingDiv);
             addMessageActions(streamingDiv);
+            observeHistoryMessage(streamingDiv);
             void streamingDiv.offsetHeight;
             scrollToBottomIfNeeded();
         }
@@ -1472,6 +1528,122 @@
         window.scrollTo({ top: document.body.scrollHeight, behavior: 'smooth' });
     }
 
+    // Hibernated tabs keep their scroll position as a distance from the end of the conversation
+    function getScrollBottomOffset() {
+        return Math.max(0, document.documentElement.scrollHeight - window.innerHeight - window.scrollY);
+    }
+
+    function restoreScrollBottomOffset(offset) {
+        window.scrollTo(0, document.documentElement.scrollHeight - window.innerHeight - (offset || 0));
+    }
+
+    // ── Paged history ───────────────────────────────
+    // Java renders the newest page of a thread and prepends older pages on request,
+    // when the user scrolls near the top. Messages far outside the viewport have their
+    // content detached and are kept as empty boxes of the same size.
+    const LOAD_OLDER_THRESHOLD_PX = 400;
+    const DETACH_MARGIN_PX = 3000;
+    const ATTACHED_TAIL_MESSAGES = 4;
+    const detachedMessageContent = new WeakMap();
+    let hasOlderMessages = false;
+    let loadingOlderMessages = false;
+    let historyObserver = null;
+
+    function prependHistoryMessages(messagesJson, hasOlder) {
+        let messages = [];
+        try { messages = JSON.parse(messagesJson || '[]'); } catch { /* ignore */ }
+        const chatContainer = $('chat-container');
+        const initialPage = !chatContainer.querySelector('.chat-message');
+        if (messages.length > 0) removeWelcomeScreen();
+
+        const scrollHeightBefore = document.documentElement.scrollHeight;
+        const fragment = document.createDocumentFragment();
+        const added = [];
+        for (const message of messages) {
+            const div = h('div', { className: `chat-message ${message.role} ${message.style}` });
+            div.innerHTML = message.html;
+            enhanceCodeBlocks(div);
+            addMessageActions(div);
+            fragment.appendChild(div);
+            added.push(div);
+        }
+        chatContainer.insertBefore(fragment, chatContainer.firstChild);
+
+        if (initialPage) {
+            window.scrollTo(0, document.body.scrollHeight);
+        } else if (added.length > 0) {
+            // Keep the message the user is looking at in place
+            window.scrollBy(0, document.documentElement.scrollHeight - scrollHeightBefore);
+        }
+        added.forEach(observeHistoryMessage);
+
+        hasOlderMessages = hasOlder === true;
+        loadingOlderMessages = false;
+        requestOlderMessagesIfNeeded();
+    }
+
+    function requestOlderMessagesIfNeeded() {
+        if (!hasOlderMessages || loadingOlderMessages) return;
+        if (window.scrollY > LOAD_OLDER_THRESHOLD_PX) return;
+        if (!window.alinaBrowserBridge?.handleLoadOlderMessages) return;
+        loadingOlderMessages = true;
+        window.alinaBrowserBridge.handleLoadOlderMessages();
+    }
+
+    window.addEventListener('scroll', requestOlderMessagesIfNeeded, { passive: true });
+
+    function observeHistoryMessage(div) {
+        if (!div || typeof IntersectionObserver === 'undefined') return;
+        if (!historyObserver) {
+            historyObserver = new IntersectionObserver(onHistoryVisibilityChange, {
+                rootMargin: `${DETACH_MARGIN_PX}px 0px`
+            });
+        }
+        historyObserver.observe(div);
+    }
+
+    function onHistoryVisibilityChange(entries) {
+        for (const entry of entries) {
+            const div = entry.target;
+            if (!div.isConnected) {
+                historyObserver.unobserve(div);
+            } else if (entry.isIntersecting) {
+                reattachMessage(div);
+            } else if (!isInAttachedTail(div)) {
+                detachMessage(div);
+            }
+        }
+    }
+
+    /** The newest messages stay attached; streaming, footers and regeneration work on them. */
+    function isInAttachedTail(div) {
+        let next = div.nextElementSibling;
+        for (let i = 0; i < ATTACHED_TAIL_MESSAGES && next; i++) {
+            next = next.nextElementSibling;
+        }
+        return !next;
+    }
+
+    function detachMessage(div) {
+        if (detachedMessageContent.has(div) || div.id) return;
+        const width = div.offsetWidth;
+        const height = div.offsetHeight;
+        const content = document.createDocumentFragment();
+        while (div.firstChild) content.appendChild(div.firstChild);
+        detachedMessageContent.set(div, content);
+        Object.assign(div.style, { boxSizing: 'border-box', width: `${width}px`, height: `${height}px` });
+        div.dataset.detached = 'true';
+    }
+
+    function reattachMessage(div) {
+        const content = detachedMessageContent.get(div);
+        if (!content) return;
+        detachedMessageContent.delete(div);
+        div.appendChild(content);
+        Object.assign(div.style, { boxSizing: '', width: '', height: '' });
+        delete div.dataset.detached;
+    }
+
     function attachMessageFooter(footerText) {
         const chatContainer = $('chat-container');
         if (!chatContainer?.children) return;
@@ -1532,6 +1704,7 @@
             node.innerHTML = node.dataset.prevHtml;
             delete node.dataset.prevHtml;
         }
+        delete node.dataset.frozenNodes;
         node.removeAttribute('id');
         scrollToBottomIfNeeded();
     }
@@ -1677,6 +1850,31 @@
         }
     }
 
+    // ── Reset ───────────────────────────────────────
+    // Pooled browsers are handed to the next chat tab without reloading the page
+    function resetChat() {
+        if (_particleRAF !== null) {
+            cancelAnimationFrame(_particleRAF);
+            _particleRAF = null;
+        }
+        if (activityTimer) {
+            window.clearInterval(activityTimer);
+            activityTimer = null;
+        }
+        if (historyObserver) {
+            historyObserver.disconnect();
+            historyObserver = null;
+        }
+        hasOlderMessages = false;
+        loadingOlderMessages = false;
+
+        $('chat-container').innerHTML = '';
+        clearTodoList();
+        hideLoader();
+        window.scrollTo(0, 0);
+        showWelcomeScreen();
+    }
+
     // ── Link interception ───────────────────────────
     function isExternalUrl(href) {
         if (!href) return false;
@@ -0,0 +1,44 @@
+package com.patres.alina.common.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventTest {
+
+    @AfterEach
+    void restoreDefaultIdentity() {
+        Event.setIdentity(EventIdentity.sequential());
+    }
+
+    @Test
+    void sequentialIdsFollowTheCreationOrder() {
+        final TestEvent first = new TestEvent();
+        final TestEvent second = new TestEvent();
+
+        assertThat(second.getId().getMostSignificantBits()).isEqualTo(first.getId().getMostSignificantBits());
+        assertThat(second.getId().getLeastSignificantBits()).isEqualTo(first.getSequence() + 1);
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    void pluggedIdentityIsAskedOnceAndOnlyWhenTheIdIsRead() {
+        final int[] calls = new int[1];
+        Event.setIdentity(sequence -> {
+            calls[0]++;
+            return new UUID(0, sequence);
+        });
+        final TestEvent event = new TestEvent();
+        assertThat(calls[0]).isEqualTo(0);
+
+        assertThat(event.getId()).isEqualTo(new UUID(0, event.getSequence()));
+        assertThat(event.getId()).isSameAs(event.getId());
+        assertThat(calls[0]).isEqualTo(1);
+    }
+
+    private static final class TestEvent extends Event {
+    }
+}
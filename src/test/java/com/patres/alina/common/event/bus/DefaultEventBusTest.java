@@ -0,0 +1,124 @@
+package com.patres.alina.common.event.bus;
+
+import com.patres.alina.common.event.Event;
+import com.patres.alina.common.event.RoutedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DefaultEventBusTest {
+
+    private final DefaultEventBus eventBus = new DefaultEventBus();
+
+    @Test
+    void deliversToSubscribersOfEventTypeAndSuperTypes() {
+        final List<String> received = new ArrayList<>();
+        eventBus.subscribe(ChildEvent.class, event -> received.add("child"));
+        eventBus.subscribe(ParentEvent.class, event -> received.add("parent"));
+        eventBus.subscribe(OtherEvent.class, event -> received.add("other"));
+
+        eventBus.publish(new ChildEvent());
+
+        assertThat(received).containsExactlyInAnyOrder("child", "parent");
+    }
+
+    @Test
+    void subscriptionChangesInvalidateResolvedSubscribers() {
+        final List<String> received = new ArrayList<>();
+        final Consumer<ChildEvent> late = event -> received.add("late");
+        eventBus.publish(new ChildEvent());
+
+        eventBus.subscribe(ChildEvent.class, late);
+        eventBus.publish(new ChildEvent());
+        eventBus.unsubscribe(ChildEvent.class, late);
+        eventBus.publish(new ChildEvent());
+
+        assertThat(received).containsExactly("late");
+    }
+
+    @Test
+    void unsubscribeFromSuperTypeRemovesSubtypeSubscription() {
+        final List<String> received = new ArrayList<>();
+        final Consumer<ChildEvent> subscriber = event -> received.add("child");
+        eventBus.subscribe(ChildEvent.class, subscriber);
+
+        eventBus.unsubscribe(ParentEvent.class, subscriber);
+        eventBus.publish(new ChildEvent());
+
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void countsPublishesPerConcreteEventType() {
+        eventBus.subscribe(ParentEvent.class, event -> { });
+
+        eventBus.publish(new ChildEvent());
+        eventBus.publish(new ChildEvent());
+        eventBus.publish(new OtherEvent());
+
+        final var metrics = eventBus.getMetrics();
+        assertThat(metrics.get(ChildEvent.class).publishCount()).isEqualTo(2);
+        assertThat(metrics.get(OtherEvent.class).publishCount()).isEqualTo(1);
+        assertThat(metrics.get(ChildEvent.class).percentileUpperBoundMicros(0.5)).isPositive();
+    }
+
+    @Test
+    void deliversRoutedEventsOnlyToSubscribersOfTheirKey() {
+        final List<String> received = new ArrayList<>();
+        eventBus.subscribe(ThreadEvent.class, "thread-1", event -> received.add("thread-1"));
+        eventBus.subscribe(ThreadEvent.class, "thread-2", event -> received.add("thread-2"));
+        eventBus.subscribe(ThreadEvent.class, event -> received.add("all"));
+
+        eventBus.publish(new ThreadEvent("thread-2"));
+
+        assertThat(received).containsExactlyInAnyOrder("thread-2", "all");
+    }
+
+    @Test
+    void keyedUnsubscribeStopsDelivery() {
+        final List<String> received = new ArrayList<>();
+        final Consumer<ThreadEvent> subscriber = event -> received.add(event.threadId);
+        eventBus.subscribe(ThreadEvent.class, "thread-1", subscriber);
+
+        eventBus.publish(new ThreadEvent("thread-1"));
+        eventBus.unsubscribe(ThreadEvent.class, "thread-1", subscriber);
+        eventBus.publish(new ThreadEvent("thread-1"));
+
+        assertThat(received).containsExactly("thread-1");
+    }
+
+    @Test
+    void bucketsLatenciesByPowerOfTwoMicroseconds() {
+        assertThat(EventTypeMetrics.bucketIndex(500)).isZero();
+        assertThat(EventTypeMetrics.bucketIndex(1_500)).isEqualTo(1);
+        assertThat(EventTypeMetrics.bucketIndex(3_000)).isEqualTo(2);
+        assertThat(EventTypeMetrics.bucketIndex(Long.MAX_VALUE)).isEqualTo(EventTypeMetrics.BUCKET_COUNT - 1);
+    }
+
+    private static class ParentEvent extends Event {
+    }
+
+    private static final class ChildEvent extends ParentEvent {
+    }
+
+    private static final class OtherEvent extends Event {
+    }
+
+    private static final class ThreadEvent extends Event implements RoutedEvent {
+
+        private final String threadId;
+
+        private ThreadEvent(final String threadId) {
+            this.threadId = threadId;
+        }
+
+        @Override
+        public Object getRoutingKey() {
+            return threadId;
+        }
+    }
+}
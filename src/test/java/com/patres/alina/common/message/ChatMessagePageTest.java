@@ -0,0 +1,52 @@
+package com.patres.alina.common.message;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatMessagePageTest {
+
+    private final List<ChatMessageResponseModel> history = history(7);
+
+    @Test
+    void pagesBackwardsFromNewestMessages() {
+        final ChatMessagePage newest = ChatMessagePage.of(history, null, 3);
+        final ChatMessagePage older = ChatMessagePage.of(history, newest.beforeCursor(), 3);
+        final ChatMessagePage oldest = ChatMessagePage.of(history, older.beforeCursor(), 3);
+
+        assertThat(contents(newest)).containsExactly("4", "5", "6");
+        assertThat(contents(older)).containsExactly("1", "2", "3");
+        assertThat(contents(oldest)).containsExactly("0");
+        assertThat(oldest.hasOlderMessages()).isFalse();
+    }
+
+    @Test
+    void cursorStaysValidWhenMessagesAreAppended() {
+        final ChatMessagePage newest = ChatMessagePage.of(history, null, 3);
+        final List<ChatMessageResponseModel> grown = history(10);
+
+        assertThat(contents(ChatMessagePage.of(grown, newest.beforeCursor(), 3))).containsExactly("1", "2", "3");
+    }
+
+    @Test
+    void invalidCursorFallsBackToNewestPage() {
+        assertThat(contents(ChatMessagePage.of(history, "not-a-cursor", 2))).containsExactly("5", "6");
+        assertThat(contents(ChatMessagePage.of(history, "99", 2))).containsExactly("5", "6");
+        assertThat(ChatMessagePage.of(List.of(), null, 2)).isEqualTo(ChatMessagePage.EMPTY);
+    }
+
+    private static List<ChatMessageResponseModel> history(final int size) {
+        final List<ChatMessageResponseModel> messages = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            messages.add(new ChatMessageResponseModel(String.valueOf(i), ChatMessageRole.USER, null, ChatMessageStyleType.NONE, "thread", null));
+        }
+        return messages;
+    }
+
+    private static List<String> contents(final ChatMessagePage page) {
+        return page.messages().stream().map(ChatMessageResponseModel::content).toList();
+    }
+}
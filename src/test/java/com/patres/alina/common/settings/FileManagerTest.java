@@ -0,0 +1,107 @@
+package com.patres.alina.common.settings;
+
+import com.patres.alina.common.storage.AppPaths;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileManagerTest {
+
+    private final List<FileManager<?>> managers = new ArrayList<>();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        setAppPathsBaseDir(tempDir);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        managers.forEach(FileManager::close);
+        setAppPathsBaseDir(null);
+    }
+
+    @Test
+    void servesSavedSettingsBeforeTheyAreWritten() throws Exception {
+        final FileManager<UiSettings> manager = createManager();
+        final Path file = tempDir.resolve("config/ui-test.json");
+        manager.getSettings();
+        final String defaults = Files.readString(file);
+
+        final UiSettings saved = new UiSettings("Dracula", "pl");
+        manager.saveDocument(saved);
+
+        assertThat(manager.getSettings()).isSameAs(saved);
+        assertThat(Files.readString(file)).isEqualTo(defaults);
+        manager.flush();
+    }
+
+    @Test
+    void flushWritesOnlyTheLastOfCoalescedSaves() throws Exception {
+        final FileManager<UiSettings> manager = createManager();
+        final Path file = tempDir.resolve("config/ui-test.json");
+
+        manager.saveDocument(new UiSettings("Dracula", "pl"));
+        manager.saveDocument(new UiSettings("Nord Dark", "en"));
+        manager.flush();
+
+        assertThat(Files.readString(file)).contains("Nord Dark").doesNotContain("Dracula");
+        assertThat(file.resolveSibling("ui-test.json.tmp")).doesNotExist();
+        assertThat(createManager().getSettings())
+                .isEqualTo(new UiSettings("Nord Dark", "en"));
+    }
+
+    @Test
+    void reloadsFileChangedOutsideTheApp() throws Exception {
+        final FileManager<UiSettings> manager = createManager();
+        manager.saveDocument(new UiSettings("Dracula", "pl"));
+        manager.flush();
+        final UiSettings written = manager.getSettings();
+
+        manager.reloadFromDisk();
+        assertThat(manager.getSettings()).isSameAs(written);
+
+        Files.writeString(tempDir.resolve("config/ui-test.json"), "{\"theme\":\"Nord Dark\",\"language\":\"en\"}");
+        manager.reloadFromDisk();
+        assertThat(manager.getSettings()).isEqualTo(new UiSettings("Nord Dark", "en"));
+    }
+
+    @Test
+    void keepsPendingSaveWhenFileChangesBeforeItIsWritten() throws Exception {
+        final FileManager<UiSettings> manager = createManager();
+        manager.getSettings();
+        final UiSettings saved = new UiSettings("Dracula", "pl");
+        manager.saveDocument(saved);
+
+        Files.writeString(tempDir.resolve("config/ui-test.json"), "{\"theme\":\"Nord Dark\",\"language\":\"en\"}");
+        manager.reloadFromDisk();
+        assertThat(manager.getSettings()).isSameAs(saved);
+
+        manager.flush();
+        manager.reloadFromDisk();
+        assertThat(manager.getSettings()).isSameAs(saved);
+    }
+
+    private FileManager<UiSettings> createManager() {
+        final FileManager<UiSettings> manager = new FileManager<>("ui-test", UiSettings.class, UiSettings::new);
+        managers.add(manager);
+        return manager;
+    }
+
+    private void setAppPathsBaseDir(final Path path) throws Exception {
+        final Field field = AppPaths.class.getDeclaredField("cachedBaseDir");
+        field.setAccessible(true);
+        field.set(null, path);
+    }
+}
@@ -0,0 +1,141 @@
+package com.patres.alina.server.agent;
+
+import com.patres.alina.common.message.ChatMessageResponseModel;
+import com.patres.alina.common.message.ChatMessageRole;
+import com.patres.alina.common.message.ChatMessageStyleType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversationCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<Runnable> backgroundTasks = new ArrayList<>();
+    private final List<ConversationHistory> fetchedFrom = new ArrayList<>();
+    private ConversationHistory backend = history("m1", "m2");
+    private Runnable duringFetch = () -> {
+    };
+
+    private final ConversationCache cache = new ConversationCache("Test", (threadId, cached) -> {
+        fetchedFrom.add(cached);
+        duringFetch.run();
+        return backend;
+    }, backgroundTasks::add, now::get);
+
+    @Test
+    void servesCachedHistoryAndRevalidatesInvalidatedThreadInBackground() {
+        assertThat(contents(cache.getMessages("thread-1"))).containsExactly("m1", "m2");
+        backend = history("m1", "m2", "m3");
+
+        assertThat(contents(cache.getMessages("thread-1"))).containsExactly("m1", "m2");
+        assertThat(backgroundTasks).isEmpty();
+
+        cache.invalidate("thread-1");
+        assertThat(contents(cache.getMessages("thread-1"))).containsExactly("m1", "m2");
+        cache.getMessages("thread-1");
+        assertThat(backgroundTasks).hasSize(1);
+
+        backgroundTasks.removeFirst().run();
+        assertThat(contents(cache.getMessages("thread-1"))).containsExactly("m1", "m2", "m3");
+        assertThat(fetchedFrom).hasSize(2);
+        assertThat(fetchedFrom.getLast().entries()).hasSize(2);
+    }
+
+    @Test
+    void revalidatesAfterTimeout() {
+        cache.getMessages("thread-1");
+
+        now.addAndGet(ConversationCache.REVALIDATE_AFTER.toNanos());
+        cache.getMessages("thread-1");
+
+        assertThat(backgroundTasks).hasSize(1);
+    }
+
+    @Test
+    void fetchesAgainWhenLocalChangeRacedWithFetch() {
+        cache.getMessages("thread-1");
+        cache.invalidate("thread-1");
+        cache.getMessages("thread-1");
+        duringFetch = () -> {
+            duringFetch = () -> {
+            };
+            cache.putMessage("thread-1", "m3", message("m3"));
+            backend = history("m1", "m2", "m3", "m4");
+        };
+
+        backgroundTasks.removeFirst().run();
+
+        assertThat(fetchedFrom).hasSize(3);
+        assertThat(fetchedFrom.getLast().entries()).hasSize(3);
+        assertThat(contents(cache.getMessages("thread-1"))).containsExactly("m1", "m2", "m3", "m4");
+        assertThat(backgroundTasks).isEmpty();
+    }
+
+    @Test
+    void keepsThreadStaleWhenItChangesDuringEveryFetch() {
+        cache.getMessages("thread-1");
+        cache.invalidate("thread-1");
+        duringFetch = () -> cache.invalidate("thread-1");
+
+        cache.refresh("thread-1");
+
+        assertThat(fetchedFrom).hasSize(1 + ConversationCache.MAX_FETCH_ATTEMPTS);
+        cache.getMessages("thread-1");
+        assertThat(backgroundTasks).hasSize(1);
+    }
+
+    @Test
+    void validatedReadRevalidatesInvalidatedThreadBeforeReturning() {
+        cache.getMessages("thread-1");
+        backend = history("m1", "m2", "m3");
+        cache.invalidate("thread-1");
+
+        assertThat(contents(cache.getValidatedMessages("thread-1"))).containsExactly("m1", "m2", "m3");
+        assertThat(backgroundTasks).isEmpty();
+
+        backend = history("m1", "m2", "m3", "m4");
+        assertThat(contents(cache.getValidatedMessages("thread-1"))).containsExactly("m1", "m2", "m3");
+        assertThat(fetchedFrom).hasSize(2);
+    }
+
+    @Test
+    void refreshLoadsMissingThreadAndPutIgnoresIt() {
+        cache.putMessage("thread-1", "m3", message("m3"));
+        assertThat(fetchedFrom).isEmpty();
+
+        cache.refresh("thread-1");
+
+        assertThat(fetchedFrom).containsExactly((ConversationHistory) null);
+        assertThat(contents(cache.getMessages("thread-1"))).containsExactly("m1", "m2");
+    }
+
+    @Test
+    void historyMergesDeltaFromWatermark() {
+        final ConversationHistory cached = history("m1", "m2", "m3");
+
+        final ConversationHistory merged = cached.replaceFrom(cached.indexOf("m2"), history("m2", "m4").entries());
+
+        assertThat(contents(merged.messages())).containsExactly("m1", "m2", "m4");
+        assertThat(cached.put(new ConversationHistory.Entry("m2", null)).messages()).hasSize(2);
+    }
+
+    private static ConversationHistory history(final String... ids) {
+        final List<ConversationHistory.Entry> entries = new ArrayList<>();
+        for (final String id : ids) {
+            entries.add(new ConversationHistory.Entry(id, message(id)));
+        }
+        return ConversationHistory.of(entries);
+    }
+
+    private static ChatMessageResponseModel message(final String content) {
+        return new ChatMessageResponseModel(content, ChatMessageRole.USER, null, ChatMessageStyleType.NONE, "thread-1", null);
+    }
+
+    private static List<String> contents(final List<ChatMessageResponseModel> messages) {
+        return messages.stream().map(ChatMessageResponseModel::content).toList();
+    }
+}
@@ -0,0 +1,39 @@
+package com.patres.alina.server.codex;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AgentMessageDeltaTest {
+
+    private final JsonFactory factory = new JsonFactory();
+
+    @Test
+    void readsDeltaNotificationWithoutCaringAboutFieldOrder() throws IOException {
+        final AgentMessageDelta delta = parse("""
+                {"params":{"turnId":"turn-1","extra":{"nested":[1,2]},"itemId":"item-1","delta":"Hel\\nlo","threadId":"codex-1"},"method":"item/agentMessage/delta"}""");
+
+        assertThat(delta).isEqualTo(new AgentMessageDelta("codex-1", "item-1", "Hel\nlo"));
+    }
+
+    @Test
+    void leavesOtherMessagesToTreeHandling() throws IOException {
+        assertThat(parse("""
+                {"method":"item/plan/delta","params":{"threadId":"codex-1","itemId":"item-1","delta":"x"}}""")).isNull();
+        assertThat(parse("""
+                {"id":7,"method":"item/agentMessage/delta","params":{"threadId":"codex-1","itemId":"item-1"}}""")).isNull();
+        assertThat(parse("""
+                {"method":"item/agentMessage/delta","params":{"item":{"threadId":"codex-1"},"itemId":"item-1","delta":"x"}}""")).isNull();
+        assertThat(parse("""
+                {"id":3,"result":{}}""")).isNull();
+    }
+
+    private AgentMessageDelta parse(final String line) throws IOException {
+        final byte[] bytes = (" " + line + " ").getBytes(StandardCharsets.UTF_8);
+        return AgentMessageDelta.parse(factory, bytes, 1, bytes.length - 2);
+    }
+}
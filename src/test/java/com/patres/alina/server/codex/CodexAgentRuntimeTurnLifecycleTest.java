@@ -0,0 +1,112 @@
+package com.patres.alina.server.codex;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.patres.alina.common.settings.AssistantSettings;
+import com.patres.alina.common.settings.FileManager;
+import com.patres.alina.common.settings.WorkspaceSettings;
+import com.patres.alina.server.agent.AgentMessageRequest;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+class CodexAgentRuntimeTurnLifecycleTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CodexAppServerClient client = mock(CodexAppServerClient.class);
+
+    @Test
+    void shouldCompleteStreamFromTurnCompletedAndForgetTurnItems() throws Exception {
+        final ObjectNode threadResponse = objectMapper.createObjectNode();
+        threadResponse.putObject("thread").put("id", "codex-1");
+        final ObjectNode turnResponse = objectMapper.createObjectNode();
+        final ObjectNode turn = turnResponse.putObject("turn").put("id", "turn-1");
+        turn.putArray("items").addObject().put("id", "item-1");
+        when(client.request(eq("thread/start"), any())).thenReturn(threadResponse);
+        when(client.request(eq("turn/start"), any())).thenReturn(turnResponse);
+        final CodexAgentRuntime runtime = runtime();
+        final Consumer<JsonNode> serverListener = serverListener();
+
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        runtime.sendMessageStream(request()).subscribe(ignored -> {
+        }, done::completeExceptionally, () -> done.complete(null));
+        verify(client, timeout(5_000)).request(eq("turn/start"), any());
+
+        final ObjectNode completed = objectMapper.createObjectNode().put("method", "turn/completed");
+        completed.putObject("params").put("threadId", "codex-1")
+                .putObject("turn").put("id", "turn-1").put("status", "completed");
+        serverListener.accept(completed);
+
+        done.get(5, TimeUnit.SECONDS);
+        assertTrue(done.isDone());
+
+        final ObjectNode lateRequest = objectMapper.createObjectNode()
+                .put("id", "late-request")
+                .put("method", CodexInteractionMapper.USER_INPUT);
+        lateRequest.putObject("params").put("threadId", "other-thread").put("itemId", "item-1");
+        serverListener.accept(lateRequest);
+
+        verify(client).respondError(eq(TextNode.valueOf("late-request")), anyInt(), any(String.class));
+        assertFalse(runtime.ownsAgentInteraction("text:late-request"));
+    }
+
+    @Test
+    void shouldKeepChatThreadLinkWhenManyThreadsAreListed() throws Exception {
+        final ObjectNode threadResponse = objectMapper.createObjectNode();
+        threadResponse.putObject("thread").put("id", "codex-1");
+        final ObjectNode turnResponse = objectMapper.createObjectNode();
+        turnResponse.putObject("turn").put("id", "turn-1");
+        final ObjectNode listResponse = objectMapper.createObjectNode();
+        final ArrayNode listedThreads = listResponse.putArray("data");
+        for (int i = 0; i < 2_000; i++) {
+            listedThreads.addObject().put("id", "listed-" + i);
+        }
+        when(client.request(eq("thread/start"), any())).thenReturn(threadResponse);
+        when(client.request(eq("turn/start"), any())).thenReturn(turnResponse);
+        when(client.request(eq("thread/list"), any())).thenReturn(listResponse);
+        final CodexAgentRuntime runtime = runtime();
+
+        runtime.sendMessageStream(request()).subscribe();
+        verify(client, timeout(5_000)).request(eq("turn/start"), any());
+        runtime.getChatThreads();
+
+        assertEquals("codex://threads/codex-1", runtime.getSessionExternalUri("chat-1"));
+    }
+
+    private AgentMessageRequest request() {
+        return new AgentMessageRequest("chat-1", "Chat", "Hello", null, null, null, false, List.of());
+    }
+
+    private CodexAgentRuntime runtime() {
+        final FileManager<WorkspaceSettings> workspaceSettingsManager = mock(FileManager.class);
+        when(workspaceSettingsManager.getSettings()).thenReturn(new WorkspaceSettings());
+        final FileManager<AssistantSettings> assistantSettingsManager = mock(FileManager.class);
+        when(assistantSettingsManager.getSettings()).thenReturn(new AssistantSettings());
+        return new CodexAgentRuntime(client, workspaceSettingsManager, assistantSettingsManager, objectMapper);
+    }
+
+    private Consumer<JsonNode> serverListener() {
+        final ArgumentCaptor<Consumer<JsonNode>> listenerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        verify(client).addMessageListener(listenerCaptor.capture());
+        return listenerCaptor.getValue();
+    }
+}
@@ -0,0 +1,36 @@
+package com.patres.alina.server.codex;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLineReaderTest {
+
+    @Test
+    void splitsLinesAcrossReadsAndGrowsForLongLines() throws IOException {
+        final String longLine = "{\"delta\":\"" + "x".repeat(40) + "\"}";
+        final InputStream input = trickle("{\"a\":1}\r\n\n" + longLine + "\n{\"b\":\"żółw\"}", 3);
+
+        final List<String> lines = new ArrayList<>();
+        new JsonLineReader(input, 16).readLines((buffer, offset, length) ->
+                lines.add(new String(buffer, offset, length, StandardCharsets.UTF_8)));
+
+        assertThat(lines).containsExactly("{\"a\":1}", longLine, "{\"b\":\"żółw\"}");
+    }
+
+    private static InputStream trickle(final String content, final int chunkSize) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(final byte[] buffer, final int offset, final int length) {
+                return super.read(buffer, offset, Math.min(length, chunkSize));
+            }
+        };
+    }
+}
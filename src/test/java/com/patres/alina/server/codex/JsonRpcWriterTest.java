@@ -0,0 +1,121 @@
+package com.patres.alina.server.codex;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonRpcWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesOneMessagePerLineAndFlushesQueuedMessagesTogether() throws Exception {
+        final CountDownLatch firstFlushStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirstFlush = new CountDownLatch(1);
+        final AtomicInteger flushes = new AtomicInteger();
+        final ByteArrayOutputStream stdin = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                if (flushes.incrementAndGet() == 1) {
+                    firstFlushStarted.countDown();
+                    awaitQuietly(releaseFirstFlush);
+                }
+            }
+        };
+        final JsonRpcWriter writer = new JsonRpcWriter(objectMapper, stdin, e -> {
+        });
+
+        writer.send(objectMapper.createObjectNode().put("id", 1));
+        assertThat(firstFlushStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.send(objectMapper.createObjectNode().put("id", 2));
+        writer.send(objectMapper.createObjectNode().put("id", 3));
+        writer.send(objectMapper.createObjectNode().put("id", 4));
+        releaseFirstFlush.countDown();
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((stdin.toString(StandardCharsets.UTF_8).lines().count() < 4 || flushes.get() < 2)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(stdin.toString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n{\"id\":4}\n");
+        // One flush for the first message, one for the burst queued while it was blocked
+        assertThat(flushes.get()).isEqualTo(2);
+
+        writer.close();
+        assertThatThrownBy(() -> writer.send(objectMapper.createObjectNode())).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void reportsFailedWriteAndRejectsLaterMessages() throws Exception {
+        final IOException brokenPipe = new IOException("Broken pipe");
+        final CompletableFuture<IOException> reported = new CompletableFuture<>();
+        final OutputStream stdin = new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                throw brokenPipe;
+            }
+        };
+        final JsonRpcWriter writer = new JsonRpcWriter(objectMapper, stdin, reported::complete);
+
+        writer.send(objectMapper.createObjectNode().put("id", 1));
+
+        assertThat(reported.get(5, TimeUnit.SECONDS)).isSameAs(brokenPipe);
+        assertThat(writer.isClosed()).isTrue();
+        assertThatThrownBy(() -> writer.send(objectMapper.createObjectNode())).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void writesEveryAcceptedMessageWhenClosedWhileSending() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            final CountDownLatch closed = new CountDownLatch(1);
+            final ByteArrayOutputStream stdin = new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    closed.countDown();
+                }
+            };
+            final JsonRpcWriter writer = new JsonRpcWriter(objectMapper, stdin, e -> {
+            });
+            final AtomicInteger accepted = new AtomicInteger();
+            final Thread[] senders = new Thread[4];
+            for (int i = 0; i < senders.length; i++) {
+                senders[i] = Thread.ofVirtual().start(() -> {
+                    try {
+                        for (int id = 0; id < 100; id++) {
+                            writer.send(objectMapper.createObjectNode().put("id", id));
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IOException ignored) {
+                    }
+                });
+            }
+            writer.close();
+            for (final Thread sender : senders) {
+                sender.join();
+            }
+
+            assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(stdin.toString(StandardCharsets.UTF_8).lines().count()).isEqualTo((long) accepted.get());
+        }
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.patres.alina.server.integration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubServiceTest {
+
+    private static final String TOKEN = "ghp_test";
+
+    private final Map<String, AtomicInteger> requestsByPath = new ConcurrentHashMap<>();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private volatile Consumer<String> beforeResponse = path -> {
+    };
+    private HttpServer server;
+    private GitHubService service;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        service = new GitHubService(HttpClient.newHttpClient(), "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void cachesUsernameAndRevalidatesUnchangedResourcesWithEtags() {
+        final GitHubPullRequestResult first = service.fetchPendingReviews(TOKEN, 10);
+
+        assertThat(first.fetchError()).isFalse();
+        assertThat(first.pullRequests()).extracting(GitHubPullRequest::number).containsExactly(1, 2);
+        assertThat(requestCount()).isEqualTo(7);
+        assertThat(notModified).hasValue(0);
+
+        final GitHubPullRequestResult second = service.fetchPendingReviews(TOKEN, 10);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(requestsByPath.get("/user")).hasValue(1);
+        assertThat(requestCount()).isEqualTo(13);
+        assertThat(notModified).hasValue(6);
+    }
+
+    @Test
+    void overlappingRefreshesKeepEachOthersCachedResponses() throws Exception {
+        service.fetchPendingReviews(TOKEN, 10);
+        notModified.set(0);
+        final CountDownLatch firstBlocked = new CountDownLatch(1);
+        final CountDownLatch secondBlocked = new CountDownLatch(1);
+        final CountDownLatch releaseFirst = new CountDownLatch(1);
+        final CountDownLatch releaseSecond = new CountDownLatch(1);
+        // The second refresh starts while the first one waits for its last response, and finishes after it
+        beforeResponse = path -> {
+            if (path.equals("/repos/o/r/pulls/3/reviews") && firstBlocked.getCount() > 0) {
+                firstBlocked.countDown();
+                awaitQuietly(releaseFirst);
+            } else if (path.equals("/search/issues") && firstBlocked.getCount() == 0 && secondBlocked.getCount() > 0) {
+                secondBlocked.countDown();
+                awaitQuietly(releaseSecond);
+            }
+        };
+
+        final CompletableFuture<GitHubPullRequestResult> first =
+                CompletableFuture.supplyAsync(() -> service.fetchPendingReviews(TOKEN, 10));
+        assertThat(firstBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        final CompletableFuture<GitHubPullRequestResult> second =
+                CompletableFuture.supplyAsync(() -> service.fetchPendingReviews(TOKEN, 10));
+        assertThat(secondBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        releaseSecond.countDown();
+        second.get(5, TimeUnit.SECONDS);
+
+        assertThat(notModified).hasValue(12);
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int requestCount() {
+        return requestsByPath.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath();
+        requestsByPath.computeIfAbsent(path, ignored -> new AtomicInteger()).incrementAndGet();
+        beforeResponse.accept(path);
+        final String body = switch (path) {
+            case "/user" -> "{\"login\":\"me\"}";
+            case "/search/issues" -> """
+                    {"total_count":3,"items":[
+                      {"number":1,"title":"Requested","html_url":"https://github.com/o/r/pull/1","repository_url":"https://api.github.com/repos/o/r","user":{"login":"a"}},
+                      {"number":2,"title":"Commented","html_url":"https://github.com/o/r/pull/2","repository_url":"https://api.github.com/repos/o/r","user":{"login":"b"}},
+                      {"number":3,"title":"Approved","html_url":"https://github.com/o/r/pull/3","repository_url":"https://api.github.com/repos/o/r","user":{"login":"c"}}
+                    ]}""";
+            case "/repos/o/r/pulls/1" -> "{\"requested_reviewers\":[{\"login\":\"me\"}]}";
+            case "/repos/o/r/pulls/2", "/repos/o/r/pulls/3" -> "{\"requested_reviewers\":[]}";
+            case "/repos/o/r/pulls/2/reviews" -> "[{\"user\":{\"login\":\"me\"},\"state\":\"COMMENTED\"}]";
+            case "/repos/o/r/pulls/3/reviews" -> "[{\"user\":{\"login\":\"me\"},\"state\":\"APPROVED\"}]";
+            default -> null;
+        };
+        if (body == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        final String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().put("ETag", List.of(etag));
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,72 @@
+package com.patres.alina.server.integration;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoogleAccessTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-07-15T10:00:00Z");
+
+    private Instant now = NOW;
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    };
+
+    @Test
+    void reusesTokenUntilShortlyBeforeItExpires() throws Exception {
+        final AtomicInteger fetches = new AtomicInteger();
+        final GoogleAccessTokenCache cache = new GoogleAccessTokenCache(() -> new GoogleAccessTokenCache.AccessToken(
+                "token-" + fetches.incrementAndGet(),
+                now.plus(Duration.ofHours(1))
+        ), clock);
+
+        assertThat(cache.get()).isEqualTo("token-1");
+        now = NOW.plus(Duration.ofMinutes(54));
+        assertThat(cache.get()).isEqualTo("token-1");
+        now = NOW.plus(Duration.ofMinutes(56));
+        assertThat(cache.get()).isEqualTo("token-2");
+        assertThat(fetches).hasValue(2);
+
+        cache.invalidate();
+        assertThat(cache.get()).isEqualTo("token-3");
+    }
+
+    @Test
+    void keepsUsingAValidTokenWhenTheEarlyRefreshFails() throws Exception {
+        final AtomicInteger fetches = new AtomicInteger();
+        final GoogleAccessTokenCache cache = new GoogleAccessTokenCache(() -> {
+            if (fetches.incrementAndGet() > 1) {
+                throw new IllegalStateException("offline");
+            }
+            return new GoogleAccessTokenCache.AccessToken("token", NOW.plus(Duration.ofHours(1)));
+        }, clock);
+
+        assertThat(cache.get()).isEqualTo("token");
+        now = NOW.plus(Duration.ofMinutes(58));
+        assertThat(cache.get()).isEqualTo("token");
+        now = NOW.plus(Duration.ofMinutes(61));
+        assertThatThrownBy(cache::get).hasMessage("offline");
+    }
+}
@@ -0,0 +1,112 @@
+package com.patres.alina.server.integration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GoogleCalendarApiTest {
+
+    private static final String EVENTS = """
+            {"items":[{"summary":"Standup","start":{"dateTime":"2026-07-15T10:00:00+02:00"},"end":{"dateTime":"2026-07-15T10:15:00+02:00"}}]}""";
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final List<String> tokenForms = new CopyOnWriteArrayList<>();
+    private final List<String> authorizationHeaders = new CopyOnWriteArrayList<>();
+    private final List<String> quotaProjectHeaders = new CopyOnWriteArrayList<>();
+    private final AtomicInteger rejectedEventRequests = new AtomicInteger();
+    private HttpServer server;
+    private GoogleCalendarApi api;
+
+    @BeforeEach
+    void startStubServer(@TempDir final Path configDirectory) throws IOException {
+        final Path credentials = configDirectory.resolve("application_default_credentials.json");
+        Files.writeString(credentials, """
+                {"type":"authorized_user","client_id":"client","client_secret":"secret",
+                 "refresh_token":"refresh","quota_project_id":"my-project"}""");
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/token", this::handleToken);
+        server.createContext("/events", this::handleEvents);
+        server.start();
+        final String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        api = new GoogleCalendarApi(
+                HttpClient.newHttpClient(),
+                baseUrl + "/token",
+                baseUrl + "/events",
+                () -> Optional.of(credentials),
+                Clock.fixed(Instant.parse("2026-07-15T08:00:00Z"), ZoneOffset.UTC)
+        );
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void exchangesTheRefreshTokenOnceAndReusesTheAccessToken() throws Exception {
+        final GoogleCalendarResult first = api.fetchTodayEvents();
+        final GoogleCalendarResult second = api.fetchTodayEvents();
+
+        assertThat(first.events()).extracting(GoogleCalendarEvent::summary).containsExactly("Standup");
+        assertThat(second).isEqualTo(first);
+        assertThat(tokenRequests).hasValue(1);
+        assertThat(tokenForms.getFirst()).contains("grant_type=refresh_token", "refresh_token=refresh");
+        assertThat(authorizationHeaders).containsExactly("Bearer access-1", "Bearer access-1");
+        assertThat(quotaProjectHeaders).containsOnly("my-project");
+    }
+
+    @Test
+    void mintsANewTokenOnceWhenTheApiRejectsTheCachedOne() throws Exception {
+        api.fetchTodayEvents();
+        rejectedEventRequests.set(1);
+
+        final GoogleCalendarResult result = api.fetchTodayEvents();
+
+        assertThat(result.events()).hasSize(1);
+        assertThat(tokenRequests).hasValue(2);
+        assertThat(authorizationHeaders).containsExactly("Bearer access-1", "Bearer access-1", "Bearer access-2");
+    }
+
+    private void handleToken(final HttpExchange exchange) throws IOException {
+        tokenForms.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        respond(exchange, 200, "{\"access_token\":\"access-" + tokenRequests.incrementAndGet() + "\",\"expires_in\":3599}");
+    }
+
+    private void handleEvents(final HttpExchange exchange) throws IOException {
+        authorizationHeaders.add(exchange.getRequestHeaders().getFirst("Authorization"));
+        quotaProjectHeaders.add(exchange.getRequestHeaders().getFirst("x-goog-user-project"));
+        if (rejectedEventRequests.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            respond(exchange, 401, "{\"error\":{\"code\":401,\"status\":\"UNAUTHENTICATED\"}}");
+            return;
+        }
+        respond(exchange, 200, EVENTS);
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
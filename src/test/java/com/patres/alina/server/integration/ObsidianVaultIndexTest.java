@@ -0,0 +1,115 @@
+package com.patres.alina.server.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ObsidianVaultIndexTest {
+
+    private static final Instant BASE = Instant.parse("2026-07-15T10:00:00Z");
+
+    @TempDir
+    Path vault;
+
+    private ObsidianVaultIndex index;
+
+    @AfterEach
+    void closeIndex() {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    @Test
+    void servesNewestNotesAndCountsWithoutHiddenDirectories() throws Exception {
+        note("Inbox.md", 1);
+        note("Projects/Alpha.md", 3);
+        note("Projects/Beta.md", 2);
+        note("Memory/Agent.md", 4);
+        note(".obsidian/workspace.md", 5);
+        note(".trash/Deleted.md", 6);
+        Files.writeString(vault.resolve("Projects/diagram.png"), "");
+
+        index = ObsidianVaultIndex.forVault(vault);
+
+        assertThat(index.recentNotes(2, List.of())).extracting(ObsidianNote::name).containsExactly("Agent", "Alpha");
+        assertThat(index.recentNotes(2, ObsidianCliService.compileExcludePatterns("Memory/**")))
+                .extracting(ObsidianNote::path)
+                .containsExactly(Path.of("Projects", "Alpha.md").toString(), Path.of("Projects", "Beta.md").toString());
+        assertThat(index.countNotes("")).isEqualTo(4);
+        assertThat(index.countNotes("Memory/**")).isEqualTo(3);
+    }
+
+    @Test
+    void followsNotesChangedAfterTheFirstWalk() throws Exception {
+        note("Inbox.md", 1);
+        note("Projects/Alpha.md", 2);
+        index = ObsidianVaultIndex.forVault(vault);
+
+        note("Projects/New/Gamma.md", 3);
+        waitUntil(() -> index.countNotes("") == 3);
+        assertThat(index.recentNotes(1, List.of())).extracting(ObsidianNote::name).containsExactly("Gamma");
+
+        Files.delete(vault.resolve("Projects/Alpha.md"));
+        waitUntil(() -> index.countNotes("") == 2);
+
+        note("Inbox.md", 4);
+        waitUntil(() -> index.recentNotes(1, List.of()).getFirst().name().equals("Inbox"));
+    }
+
+    @Test
+    void notifiesListenersWhenNotesChange() throws Exception {
+        note("Inbox.md", 1);
+        index = ObsidianVaultIndex.forVault(vault);
+        final CountDownLatch changed = new CountDownLatch(1);
+        ObsidianVaultIndex.addChangeListener(changed::countDown);
+
+        note("Later.md", 2);
+
+        assertThat(changed.await(15, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void stopsWalkingWhenTheThreadIsInterrupted() throws Exception {
+        note("Inbox.md", 1);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> ObsidianVaultIndex.forVault(vault)).isInstanceOf(InterruptedIOException.class);
+        } finally {
+            Thread.interrupted();
+        }
+
+        index = ObsidianVaultIndex.forVault(vault);
+        assertThat(index.countNotes("")).isEqualTo(1);
+    }
+
+    private void note(final String relativePath, final int minutes) throws IOException {
+        final Path file = vault.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "# " + relativePath);
+        Files.setLastModifiedTime(file, FileTime.from(BASE.plusSeconds(minutes * 60L)));
+    }
+
+    private static void waitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,128 @@
+package com.patres.alina.server.opencode;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenCodeEventStreamTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldDispatchEachEventOnceAndReconnectWhileSubscribed() throws Exception {
+        final AtomicInteger opens = new AtomicInteger();
+        final AtomicBoolean subscribed = new AtomicBoolean(true);
+        final RecordingListener listener = new RecordingListener(subscribed, 3);
+        final OpenCodeEventStream eventStream = new OpenCodeEventStream(() -> switch (opens.incrementAndGet()) {
+            case 1 -> sse("data: {\"type\":\"a\"}\n\ndata: {\"type\":\"b\"}\n\n");
+            case 2 -> sse("data: {\"type\":\"c\"}\n\n");
+            default -> {
+                subscribed.set(false);
+                yield sse("");
+            }
+        }, objectMapper, listener);
+
+        eventStream.ensureConnected();
+
+        assertTrue(listener.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("a", "b", "c"), listener.types);
+        assertTrue(listener.reconnects.get() >= 1);
+        eventStream.close();
+    }
+
+    @Test
+    void shouldReadPartDeltasWithoutTreeAndKeepTreeForOtherEvents() throws Exception {
+        final AtomicBoolean subscribed = new AtomicBoolean(true);
+        final RecordingListener listener = new RecordingListener(subscribed, 3);
+        final OpenCodeEventStream eventStream = new OpenCodeEventStream(() -> {
+            subscribed.set(false);
+            return sse("""
+                    data: {"type":"message.part.delta","properties":{"sessionID":"ses_1","messageID":"msg_1","partID":"prt_1","field":"text","delta":"Jes","extra":{"a":[1,2]}}}\r
+                    \r
+                    data: {"type":"message.part.delta",
+                    data: "properties":{"sessionID":"ses_1","partID":"prt_1","field":"text","delta":"tem \\"Alina\\""}}
+
+                    data: {"type":"permission.asked","properties":{"id":"per_1","sessionID":"ses_2"}}
+
+                    """);
+        }, objectMapper, listener);
+
+        eventStream.ensureConnected();
+
+        assertTrue(listener.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(
+                new OpenCodeEventStream.PartDelta("ses_1", "msg_1", "prt_1", "text", "Jes"),
+                new OpenCodeEventStream.PartDelta("ses_1", null, "prt_1", "text", "tem \"Alina\"")
+        ), listener.partDeltas);
+        assertEquals(List.of("permission.asked"), listener.types);
+        assertEquals("per_1", listener.lastEvent.path("properties").path("id").asText());
+        eventStream.close();
+    }
+
+    @Test
+    void shouldPropagateConnectionFailureToCaller() {
+        final OpenCodeEventStream eventStream = new OpenCodeEventStream(() -> {
+            throw new IllegalStateException("Cannot subscribe to OpenCode events: HTTP 500");
+        }, objectMapper, new RecordingListener(new AtomicBoolean(false), 0));
+
+        final IllegalStateException exception = assertThrows(IllegalStateException.class, eventStream::ensureConnected);
+
+        assertEquals("Cannot subscribe to OpenCode events: HTTP 500", exception.getMessage());
+    }
+
+    private static InputStream sse(final String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class RecordingListener implements OpenCodeEventStream.Listener {
+
+        private final AtomicBoolean subscribed;
+        private final CountDownLatch delivered;
+        private final List<String> types = new CopyOnWriteArrayList<>();
+        private final List<OpenCodeEventStream.PartDelta> partDeltas = new CopyOnWriteArrayList<>();
+        private volatile JsonNode lastEvent;
+        private final AtomicInteger reconnects = new AtomicInteger();
+
+        private RecordingListener(final AtomicBoolean subscribed, final int expectedEvents) {
+            this.subscribed = subscribed;
+            this.delivered = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void onEvent(final JsonNode event) {
+            types.add(event.path("type").asText());
+            lastEvent = event;
+            delivered.countDown();
+        }
+
+        @Override
+        public void onPartDelta(final OpenCodeEventStream.PartDelta partDelta) {
+            partDeltas.add(partDelta);
+            delivered.countDown();
+        }
+
+        @Override
+        public void onReconnected() {
+            reconnects.incrementAndGet();
+        }
+
+        @Override
+        public boolean hasSubscribers() {
+            return subscribed.get();
+        }
+    }
+}
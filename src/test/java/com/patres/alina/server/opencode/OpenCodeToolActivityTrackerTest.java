@@ -0,0 +1,85 @@
+package com.patres.alina.server.opencode;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenCodeToolActivityTrackerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldScanOnlyCurrentTurnAndSkipSettledParts() throws Exception {
+        final OpenCodeToolActivityTracker tracker = new OpenCodeToolActivityTracker();
+
+        final List<JsonNode> first = tracker.newToolParts(json("""
+                [
+                  {"info":{"id":"msg_1","role":"assistant"},"parts":[{"type":"tool","callID":"old","state":{"status":"completed"}}]},
+                  {"info":{"id":"msg_2","role":"user"},"parts":[]},
+                  {"info":{"id":"msg_3","role":"assistant"},"parts":[
+                    {"type":"tool","callID":"a","state":{"status":"completed"}},
+                    {"type":"tool","callID":"b","state":{"status":"running"}}
+                  ]}
+                ]
+                """));
+        final List<JsonNode> second = tracker.newToolParts(json("""
+                [
+                  {"info":{"id":"msg_3","role":"assistant"},"parts":[
+                    {"type":"tool","callID":"a","state":{"status":"completed"}},
+                    {"type":"tool","callID":"b","state":{"status":"completed"}},
+                    {"type":"text","text":"done"}
+                  ]}
+                ]
+                """));
+
+        assertEquals(List.of("a", "b"), callIds(first));
+        assertEquals(List.of("b"), callIds(second));
+    }
+
+    @Test
+    void shouldWidenWindowWhenCursorIsOutsideResponse() throws Exception {
+        final OpenCodeToolActivityTracker tracker = new OpenCodeToolActivityTracker();
+        final StringBuilder assistantOnly = new StringBuilder("[");
+        for (int i = 0; i < OpenCodeToolActivityTracker.INITIAL_FETCH_LIMIT; i++) {
+            assistantOnly.append(i == 0 ? "" : ",").append("{\"info\":{\"id\":\"msg_").append(i).append("\",\"role\":\"assistant\"},\"parts\":[]}");
+        }
+        assistantOnly.append(']');
+
+        assertTrue(tracker.messagesPath("ses_1").endsWith("?limit=" + OpenCodeToolActivityTracker.INITIAL_FETCH_LIMIT));
+        assertNull(tracker.newToolParts(json(assistantOnly.toString())));
+        assertTrue(tracker.messagesPath("ses_1").endsWith("?limit=" + OpenCodeToolActivityTracker.INITIAL_FETCH_LIMIT * 2));
+    }
+
+    @Test
+    void shouldBackOffUntilActivityIsSignalled() {
+        final OpenCodeToolActivityTracker tracker = new OpenCodeToolActivityTracker();
+
+        tracker.onPolled(false);
+        tracker.onPolled(false);
+        assertEquals(OpenCodeToolActivityTracker.MIN_INTERVAL_MILLIS * 4, tracker.intervalMillis());
+
+        assertTrue(tracker.signalActivity());
+        assertFalse(tracker.signalActivity());
+        assertEquals(OpenCodeToolActivityTracker.MIN_INTERVAL_MILLIS, tracker.intervalMillis());
+
+        for (int i = 0; i < 10; i++) {
+            tracker.onPolled(false);
+        }
+        assertEquals(OpenCodeToolActivityTracker.MAX_INTERVAL_MILLIS, tracker.intervalMillis());
+    }
+
+    private JsonNode json(final String json) throws Exception {
+        return objectMapper.readTree(json);
+    }
+
+    private static List<String> callIds(final List<JsonNode> parts) {
+        return parts.stream().map(part -> part.path("callID").asText()).toList();
+    }
+}
@@ -0,0 +1,113 @@
+package com.patres.alina.server.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLinesRepositoryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void updatesAndDeletesAreAppendedAndSurviveReopen() throws Exception {
+        final Path file = tempDir.resolve("notes.jsonl");
+        final JsonLinesRepository<Note, String> repository = new JsonLinesRepository<>(file, Note.class, objectMapper);
+
+        repository.save(new Note("a", "first"));
+        repository.save(new Note("b", "second"));
+        repository.save(new Note("a", "updated"));
+        repository.deleteById("b");
+
+        assertThat(Files.readAllLines(file)).hasSize(4);
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(repository.findById("a")).contains(new Note("a", "updated"));
+        assertThat(repository.existsById("b")).isFalse();
+
+        final JsonLinesRepository<Note, String> reopened = new JsonLinesRepository<>(file, Note.class, objectMapper);
+        assertThat(reopened.findAll()).containsExactly(new Note("a", "updated"));
+        assertThat(reopened.count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsFirstSaveOrderForUpdatedEntities() {
+        final JsonLinesRepository<Note, String> repository =
+                new JsonLinesRepository<>(tempDir.resolve("order.jsonl"), Note.class, objectMapper);
+
+        repository.save(new Note("a", "1"));
+        repository.save(new Note("b", "2"));
+        repository.save(new Note("a", "3"));
+
+        assertThat(repository.findAll()).containsExactly(new Note("a", "3"), new Note("b", "2"));
+    }
+
+    @Test
+    void compactionDropsGarbageLines() throws Exception {
+        final Path file = tempDir.resolve("compact.jsonl");
+        final JsonLinesRepository<Note, String> repository = new JsonLinesRepository<>(file, Note.class, objectMapper);
+        repository.save(new Note("a", "1"));
+        repository.save(new Note("b", "2"));
+        repository.save(new Note("a", "3"));
+        repository.deleteById("b");
+
+        repository.compact();
+
+        assertThat(Files.readAllLines(file)).hasSize(1);
+        assertThat(repository.findById("a")).contains(new Note("a", "3"));
+        repository.save(new Note("c", "4"));
+        assertThat(new JsonLinesRepository<>(file, Note.class, objectMapper).findAll())
+                .containsExactly(new Note("a", "3"), new Note("c", "4"));
+    }
+
+    @Test
+    void ignoresTruncatedLastLine() throws Exception {
+        final Path file = tempDir.resolve("truncated.jsonl");
+        Files.writeString(file, "{\"id\":\"a\",\"text\":\"1\"}\n{\"id\":\"b\",\"te");
+
+        final JsonLinesRepository<Note, String> repository = new JsonLinesRepository<>(file, Note.class, objectMapper);
+        repository.save(new Note("c", "2"));
+
+        assertThat(new JsonLinesRepository<>(file, Note.class, objectMapper).findAll())
+                .containsExactly(new Note("a", "1"), new Note("c", "2"));
+    }
+
+    @Test
+    void deletedEntityWithLongIdStaysDeletedAfterReopen() {
+        final Path file = tempDir.resolve("numbered.jsonl");
+        final JsonLinesRepository<NumberedNote, Long> repository =
+                new JsonLinesRepository<>(file, NumberedNote.class, objectMapper);
+        repository.save(new NumberedNote(1L, "kept"));
+        repository.save(new NumberedNote(2L, "deleted"));
+        repository.deleteById(2L);
+
+        final JsonLinesRepository<NumberedNote, Long> reopened =
+                new JsonLinesRepository<>(file, NumberedNote.class, objectMapper);
+
+        assertThat(reopened.existsById(2L)).isFalse();
+        assertThat(reopened.findAll()).containsExactly(new NumberedNote(1L, "kept"));
+        assertThat(reopened.findById(1L)).contains(new NumberedNote(1L, "kept"));
+    }
+
+    record Note(String id, String text) implements Entity<String> {
+
+        @Override
+        public String getId() {
+            return id;
+        }
+    }
+
+    record NumberedNote(Long id, String text) implements Entity<Long> {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.patres.alina.uidesktop.ui;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TabHibernationPolicyTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TabHibernationPolicy policy = new TabHibernationPolicy(now::get);
+
+    @Test
+    void hibernatesLeastRecentlyActiveTabsAboveLimit() {
+        activate("a", "b", "c", "d");
+
+        final List<String> selected = policy.selectTabsToHibernate(
+                List.of("a", "b", "c", "d"), "d", id -> false, 2, Duration.ZERO);
+
+        assertThat(selected).containsExactly("a", "b");
+    }
+
+    @Test
+    void neverHibernatesActiveOrStreamingTabs() {
+        activate("a", "b", "c");
+
+        final List<String> selected = policy.selectTabsToHibernate(
+                List.of("a", "b", "c"), "a", "b"::equals, 1, Duration.ZERO);
+
+        assertThat(selected).containsExactly("c");
+    }
+
+    @Test
+    void hibernatesIdleTabsBelowLimit() {
+        activate("a", "b");
+        now.addAndGet(Duration.ofMinutes(10).toNanos());
+        policy.markActive("b");
+
+        assertThat(policy.selectTabsToHibernate(List.of("a", "b"), "b", id -> false, 5, Duration.ofMinutes(10)))
+                .containsExactly("a");
+        assertThat(policy.selectTabsToHibernate(List.of("a", "b"), "b", id -> false, 5, Duration.ZERO))
+                .isEmpty();
+    }
+
+    private void activate(final String... threadIds) {
+        for (final String threadId : threadIds) {
+            policy.markActive(threadId);
+            now.incrementAndGet();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.patres.alina.uidesktop.ui.calendar;
 
 import com.patres.alina.server.integration.GoogleCalendarResult;
+import com.patres.alina.uidesktop.ui.dashboard.DashboardRefreshScheduler;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
@@ -74,7 +75,12 @@ class GoogleCalendarFeedTest {
         return new GoogleCalendarFeed(
                 fetcher,
                 Runnable::run,
-                Executors.newSingleThreadScheduledExecutor(),
+                new DashboardRefreshScheduler(
+                        Executors.newSingleThreadScheduledExecutor(),
+                        Thread::startVirtualThread,
+                        () -> 0.5
+                ),
+                () -> false,
                 Clock.fixed(Instant.parse("2026-07-15T10:30:00Z"), ZoneOffset.UTC)
         );
     }
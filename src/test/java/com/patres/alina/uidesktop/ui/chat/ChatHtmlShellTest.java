@@ -0,0 +1,25 @@
+package com.patres.alina.uidesktop.ui.chat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatHtmlShellTest {
+
+    @Test
+    void embedsIconFontsOnlyOnce() {
+        final String iconFontCss = ChatHtmlShell.iconFontCss();
+
+        assertThat(iconFontCss).contains("@font-face").contains("data:font/ttf;base64,");
+        assertThat(ChatHtmlShell.iconFontCss()).isSameAs(iconFontCss);
+    }
+
+    @Test
+    void buildsThemeColorsAsCustomProperties() {
+        assertThat(ChatHtmlShell.buildThemeCss(Map.of("-color-fg-default", "#1f2328")))
+                .isEqualTo(":root{--color-fg-default:#1f2328;}");
+        assertThat(ChatHtmlShell.buildThemeCss(Map.of())).isEqualTo(":root{}");
+    }
+}
@@ -0,0 +1,57 @@
+package com.patres.alina.uidesktop.ui.chat;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamedProcessTextTest {
+
+    private final StreamedProcessText text = new StreamedProcessText();
+
+    @Test
+    void accumulatesDeltasOfOnePart() {
+        assertThat(text.appendDelta("part-1", "Thinking")).isFalse();
+        assertThat(text.appendDelta("part-1", "\n\n")).isFalse();
+        assertThat(text.appendDelta("part-1", "more")).isFalse();
+
+        assertThat(text).hasToString("Thinking\n\nmore");
+    }
+
+    @Test
+    void startsOverWhenAnotherPartArrives() {
+        text.appendDelta("part-1", "first");
+
+        assertThat(text.appendDelta("part-2", "second")).isTrue();
+        assertThat(text).hasToString("second");
+    }
+
+    @Test
+    void fullTextContinuingCurrentContentIsNotANewPart() {
+        text.appendDelta("part-1", "Jestem");
+
+        assertThat(text.replace("Jestem Alina.")).isFalse();
+        assertThat(text.replace("Something else")).isTrue();
+        assertThat(text).hasToString("Something else");
+    }
+
+    @Test
+    void whitespaceOnlyContentHasNoText() {
+        text.appendDelta("part-1", " \n");
+
+        assertThat(text.hasText()).isFalse();
+        assertThat(text.appendDelta("part-2", "text")).isFalse();
+    }
+
+    @Test
+    void visibleTextFromGivesWhatADeltaAddsToTheStrippedText() {
+        text.appendDelta("part-1", "\nThinking ");
+        final int afterFirst = text.visibleEnd();
+        text.appendDelta("part-1", "\n");
+        final int afterSecond = text.visibleEnd();
+        text.appendDelta("part-1", "harder \n");
+
+        assertThat(text.visibleTextFrom(afterFirst)).isEqualTo(" \nharder");
+        assertThat(text.visibleTextFrom(afterSecond)).isEqualTo(" \nharder");
+        assertThat(text.toString().strip()).isEqualTo("Thinking \nharder");
+    }
+}
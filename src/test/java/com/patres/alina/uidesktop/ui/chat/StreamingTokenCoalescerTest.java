@@ -0,0 +1,110 @@
+package com.patres.alina.uidesktop.ui.chat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingTokenCoalescerTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<String> batches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void deliversTokensOfOneIntervalAsSingleBatch() throws InterruptedException {
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final StreamingTokenCoalescer coalescer = new StreamingTokenCoalescer(batch -> {
+            batches.add(batch);
+            delivered.countDown();
+        }, Runnable::run, scheduler, 20);
+
+        coalescer.offer("Hel");
+        coalescer.offer("lo");
+        coalescer.offer(" world");
+
+        assertThat(delivered.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(batches).containsExactly("Hello world");
+    }
+
+    @Test
+    void flushDeliversPendingTokensImmediately() {
+        final StreamingTokenCoalescer coalescer = new StreamingTokenCoalescer(batches::add, Runnable::run, scheduler,
+                TimeUnit.HOURS.toMillis(1));
+
+        coalescer.offer("a");
+        coalescer.offer("b");
+        coalescer.flush();
+        coalescer.flush();
+
+        assertThat(batches).containsExactly("ab");
+    }
+
+    @Test
+    void discardDropsPendingTokens() {
+        final StreamingTokenCoalescer coalescer = new StreamingTokenCoalescer(batches::add, Runnable::run, scheduler,
+                TimeUnit.HOURS.toMillis(1));
+
+        coalescer.offer("dropped");
+        coalescer.discard();
+        coalescer.offer("kept");
+        coalescer.flush();
+
+        assertThat(batches).containsExactly("kept");
+    }
+
+    @Test
+    void flushThenRendersLastBatchAndActionInOneTask() {
+        final List<Runnable> uiTasks = new CopyOnWriteArrayList<>();
+        final StreamingTokenCoalescer coalescer = new StreamingTokenCoalescer(batches::add, uiTasks::add, scheduler,
+                TimeUnit.HOURS.toMillis(1));
+
+        coalescer.offer("last");
+        coalescer.flushThen(() -> batches.add("finished"));
+
+        assertThat(uiTasks).hasSize(1);
+        uiTasks.getFirst().run();
+        assertThat(batches).containsExactly("last", "finished");
+    }
+
+    @Test
+    void flushPostedFromAnotherThreadCannotOvertakeAnEarlierOne() throws InterruptedException {
+        final List<Runnable> uiTasks = new CopyOnWriteArrayList<>();
+        final CountDownLatch firstPostStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirstPost = new CountDownLatch(1);
+        final StreamingTokenCoalescer coalescer = new StreamingTokenCoalescer(batches::add, task -> {
+            if (uiTasks.isEmpty() && firstPostStarted.getCount() > 0) {
+                firstPostStarted.countDown();
+                try {
+                    releaseFirstPost.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            uiTasks.add(task);
+        }, scheduler, TimeUnit.HOURS.toMillis(1));
+
+        coalescer.offer("tokens");
+        final Thread timerFlush = Thread.startVirtualThread(coalescer::flush);
+        assertThat(firstPostStarted.await(2, TimeUnit.SECONDS)).isTrue();
+        final Thread finish = Thread.startVirtualThread(() -> coalescer.flushThen(() -> batches.add("finished")));
+        finish.join(100);
+        releaseFirstPost.countDown();
+        timerFlush.join();
+        finish.join();
+
+        uiTasks.forEach(Runnable::run);
+        assertThat(batches).containsExactly("tokens", "finished");
+    }
+}
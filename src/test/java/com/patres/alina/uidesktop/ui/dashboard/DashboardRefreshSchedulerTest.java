@@ -0,0 +1,149 @@
+package com.patres.alina.uidesktop.ui.dashboard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardRefreshSchedulerTest {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(10);
+
+    private final Queue<Runnable> pendingRefreshes = new ArrayDeque<>();
+    private final List<Runnable> timerTasks = new ArrayList<>();
+    private final List<Long> delays = new ArrayList<>();
+    private final ScheduledFuture<?> scheduledFuture = mock(ScheduledFuture.class);
+    private DashboardRefreshScheduler scheduler;
+
+    @BeforeEach
+    void createScheduler() {
+        final ScheduledExecutorService timer = mock(ScheduledExecutorService.class);
+        when(timer.schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS))).thenAnswer(invocation -> {
+            timerTasks.add(invocation.getArgument(0));
+            delays.add(invocation.getArgument(1));
+            return scheduledFuture;
+        });
+        scheduler = new DashboardRefreshScheduler(timer, pendingRefreshes::add, () -> 0.5);
+    }
+
+    @Test
+    void backsOffWhileRefreshesFailAndResetsAfterSuccess() {
+        final Queue<Boolean> results = new ArrayDeque<>(List.of(false, false, true));
+        final DashboardRefreshScheduler.Source source = scheduler.register("test", () -> INTERVAL, results::remove);
+
+        source.refreshNow();
+        runPendingRefreshes();
+        fireLastTimer();
+        runPendingRefreshes();
+        fireLastTimer();
+        runPendingRefreshes();
+
+        assertThat(delays).containsExactly(20_000L, 40_000L, 10_000L);
+    }
+
+    @Test
+    void pausesHiddenSourcesAndRefreshesThemWhenShown() {
+        final AtomicInteger refreshes = new AtomicInteger();
+        final DashboardRefreshScheduler.Source source = scheduler.register("test", () -> INTERVAL, () -> {
+            refreshes.incrementAndGet();
+            return true;
+        });
+
+        source.setVisible(false);
+        source.refreshNow();
+        assertThat(pendingRefreshes).isEmpty();
+
+        source.setVisible(true);
+        runPendingRefreshes();
+        assertThat(refreshes).hasValue(1);
+
+        scheduler.setWindowShowing(false);
+        verify(scheduledFuture).cancel(false);
+        fireLastTimer();
+        assertThat(pendingRefreshes).isEmpty();
+
+        scheduler.setWindowShowing(true);
+        runPendingRefreshes();
+        assertThat(refreshes).hasValue(2);
+    }
+
+    @Test
+    void keepsBackgroundSourcesRunningWhileTheWindowIsHidden() {
+        final AtomicInteger refreshes = new AtomicInteger();
+        final DashboardRefreshScheduler.Source source = scheduler.register("test", () -> INTERVAL, () -> true, () -> {
+            refreshes.incrementAndGet();
+            return true;
+        });
+
+        scheduler.setWindowShowing(false);
+        source.refreshNow();
+        runPendingRefreshes();
+        fireLastTimer();
+        runPendingRefreshes();
+
+        assertThat(refreshes).hasValue(2);
+    }
+
+    @Test
+    void mergesRefreshRequestsMadeDuringARefreshIntoOneRerun() {
+        final AtomicInteger refreshes = new AtomicInteger();
+        final DashboardRefreshScheduler.Source source = scheduler.register("test", () -> INTERVAL, () -> {
+            refreshes.incrementAndGet();
+            return true;
+        });
+
+        source.refreshNow();
+        source.refreshNow();
+        source.refreshNow();
+        runPendingRefreshes();
+
+        assertThat(refreshes).hasValue(2);
+        assertThat(delays).containsExactly(10_000L);
+    }
+
+    @Test
+    void appliesAChangedIntervalToTheWaitingRefresh() {
+        final AtomicReference<Duration> interval = new AtomicReference<>(Duration.ofMinutes(1));
+        final DashboardRefreshScheduler.Source source = scheduler.register("test", interval::get, () -> true);
+        source.refreshNow();
+        runPendingRefreshes();
+
+        source.reschedule();
+        assertThat(delays).containsExactly(60_000L);
+
+        when(scheduledFuture.getDelay(TimeUnit.MILLISECONDS)).thenReturn(45_000L);
+        interval.set(Duration.ofSeconds(20));
+        source.reschedule();
+
+        verify(scheduledFuture).cancel(false);
+        assertThat(delays).containsExactly(60_000L, 5_000L);
+    }
+
+    private void runPendingRefreshes() {
+        Runnable refresh;
+        while ((refresh = pendingRefreshes.poll()) != null) {
+            refresh.run();
+        }
+    }
+
+    private void fireLastTimer() {
+        timerTasks.getLast().run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.patres.alina.uidesktop.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalMarkdownRendererTest {
+
+    @Test
+    void freezesParagraphOnceNextBlockStarts() {
+        final IncrementalMarkdownRenderer renderer = new IncrementalMarkdownRenderer();
+
+        final var first = renderer.append("First paragraph.\n\n");
+        final var second = renderer.append("Second");
+
+        assertThat(first.frozenHtml()).isEmpty();
+        assertThat(first.tailHtml()).isEqualTo("<p>First paragraph.</p>");
+        assertThat(second.frozenHtml()).isEqualTo("<p>First paragraph.</p>");
+        assertThat(second.tailHtml()).isEqualTo("<p>Second</p>");
+    }
+
+    @Test
+    void keepsFencedCodeWithBlankLinesInOpenBlock() {
+        final IncrementalMarkdownRenderer renderer = new IncrementalMarkdownRenderer();
+
+        renderer.append("```java\nint a = 1;\n\n");
+        final var insideFence = renderer.append("int b = 2;\n");
+        final var afterFence = renderer.append("```\n\nDone");
+
+        assertThat(insideFence.frozenHtml()).isEmpty();
+        assertThat(insideFence.tailHtml()).contains("int a = 1;").contains("int b = 2;");
+        assertThat(afterFence.frozenHtml()).startsWith("<pre><code class=\"language-java\">");
+        assertThat(afterFence.tailHtml()).isEqualTo("<p>Done</p>");
+    }
+
+    @Test
+    void keepsLooseListTogetherUntilItEnds() {
+        final IncrementalMarkdownRenderer renderer = new IncrementalMarkdownRenderer();
+
+        final var looseItem = renderer.append("- one\n\n- two\n\n  continued\n\n");
+        final var afterList = renderer.append("Text");
+
+        assertThat(looseItem.frozenHtml()).isEmpty();
+        assertThat(afterList.frozenHtml()).contains("<li>").contains("continued");
+        assertThat(afterList.tailHtml()).isEqualTo("<p>Text</p>");
+    }
+
+    @Test
+    void streamedPatchesComposeToFullRendering() {
+        final String markdown = """
+                # Title
+
+                Some **bold** text
+                spanning lines.
+
+                | a | b |
+                |---|---|
+                | 1 | 2 |
+
+                ```
+                code
+
+                more code
+                ```
+
+                1. first
+                2. second
+
+                Final line.""";
+        final IncrementalMarkdownRenderer renderer = new IncrementalMarkdownRenderer();
+        final StringBuilder frozen = new StringBuilder();
+        String tail = "";
+        for (int i = 0; i < markdown.length(); i += 3) {
+            final var patch = renderer.append(markdown.substring(i, Math.min(markdown.length(), i + 3)));
+            frozen.append(patch.frozenHtml());
+            tail = patch.tailHtml();
+        }
+
+        final String expected = MarkdownToHtmlConverter.convertMarkdownToHtml(markdown);
+        assertThat(normalize(frozen + tail)).isEqualTo(normalize(expected));
+        assertThat(renderer.getMarkdown()).isEqualTo(markdown);
+    }
+
+    @Test
+    void resetStartsNewMessage() {
+        final IncrementalMarkdownRenderer renderer = new IncrementalMarkdownRenderer();
+        renderer.append("Old\n\nMessage");
+
+        renderer.reset();
+        final var patch = renderer.append("New");
+
+        assertThat(patch.frozenHtml()).isEmpty();
+        assertThat(patch.tailHtml()).isEqualTo("<p>New</p>");
+    }
+
+    private static String normalize(final String html) {
+        return html.replaceAll(">\\s+<", "><").trim();
+    }
+}